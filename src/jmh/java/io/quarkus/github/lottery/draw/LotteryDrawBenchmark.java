@@ -0,0 +1,210 @@
+package io.quarkus.github.lottery.draw;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.github.lottery.config.LotteryConfig;
+import io.quarkus.github.lottery.github.GitHubRepository;
+import io.quarkus.github.lottery.github.Issue;
+import io.quarkus.github.lottery.history.LotteryHistory;
+
+/**
+ * Measures the draw engine on synthetic, in-memory repositories, without any call to GitHub:
+ * <ul>
+ * <li>{@code draw}: a whole {@link Lottery#draw(GitHubRepository, LotteryHistory)} for all buckets;
+ * run with {@code -prof gc} to get allocation per draw ({@code gc.alloc.rate.norm}).</li>
+ * <li>{@code rounds}: rounds of a single draw, through {@link Lottery.Draw#runSingleRound()},
+ * where many issues get skipped and reconsidered through {@link io.quarkus.github.lottery.util.BufferingIterator}
+ * because participants can't be assigned issues they authored.
+ * The {@code rounds} counter is the number of rounds per second.</li>
+ * </ul>
+ * The full parameter matrix takes a while; narrow it down with e.g. {@code -p participants=1000 -p issues=100000}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LotteryDrawBenchmark {
+
+    private static final Instant NOW = Instant.parse("2017-11-06T06:00:00Z");
+    private static final String TRIAGE_LABEL = "triage/needs-triage";
+    private static final LotteryConfig.Buckets BUCKETS = new LotteryConfig.Buckets(
+            new LotteryConfig.Buckets.Triage(TRIAGE_LABEL, Duration.ZERO, Duration.ofDays(3)),
+            new LotteryConfig.Buckets.Maintenance(
+                    new LotteryConfig.Buckets.Maintenance.Created(Duration.ZERO, Duration.ofDays(1),
+                            Duration.ofDays(14), List.of()),
+                    new LotteryConfig.Buckets.Maintenance.Feedback(List.of("triage/needs-feedback"),
+                            new LotteryConfig.Buckets.Maintenance.Feedback.Needed(Duration.ofDays(21),
+                                    Duration.ofDays(3)),
+                            new LotteryConfig.Buckets.Maintenance.Feedback.Provided(Duration.ofDays(7),
+                                    Duration.ofDays(3))),
+                    new LotteryConfig.Buckets.Maintenance.Stale(Duration.ofDays(60), Duration.ofDays(14), List.of())),
+            new LotteryConfig.Buckets.Stewardship(Duration.ofDays(60), Duration.ofDays(14), List.of()));
+
+    @Param({ "10", "1000", "10000" })
+    int participants;
+
+    @Param({ "1", "50", "500" })
+    int areaLabels;
+
+    @Param({ "1000", "100000" })
+    int issues;
+
+    @Param({ "false", "true" })
+    boolean concurrentDrawRounds;
+
+    private DeploymentConfig deploymentConfig;
+    private List<Issue> allIssues;
+    private GitHubRepository repo;
+
+    private Lottery lottery;
+    private LotteryHistory lotteryHistory;
+    private Lottery.Draw singleDraw;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundCounters {
+        public long rounds;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rounds = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        deploymentConfig = mock(DeploymentConfig.class, withSettings().stubOnly());
+        when(deploymentConfig.minChunkSize()).thenReturn(20);
+        when(deploymentConfig.maxChunkSize()).thenReturn(40);
+        when(deploymentConfig.pageSize()).thenReturn(60);
+        // Prefetching only matters when retrieving issues from GitHub; here it would just add noise.
+        when(deploymentConfig.prefetchPages()).thenReturn(0);
+        when(deploymentConfig.concurrentDrawRounds()).thenReturn(concurrentDrawRounds);
+        when(deploymentConfig.incrementalSearch())
+                .thenReturn(mock(DeploymentConfig.IncrementalSearch.class, withSettings().stubOnly()));
+        when(deploymentConfig.mergedLabelSearch())
+                .thenReturn(mock(DeploymentConfig.MergedLabelSearch.class, withSettings().stubOnly()));
+        when(deploymentConfig.sharedIssuePool())
+                .thenReturn(mock(DeploymentConfig.SharedIssuePool.class, withSettings().stubOnly()));
+
+        // Each issue has one area label, and some need triage; some were authored by participants.
+        allIssues = new ArrayList<>(issues);
+        Map<String, List<Issue>> issuesByLabel = new HashMap<>();
+        for (int number = 1; number <= issues; number++) {
+            var issue = new Issue(number, "Hibernate ORM works too well #" + number, username(number % participants),
+                    null);
+            allIssues.add(issue);
+            issuesByLabel.computeIfAbsent(areaLabel(number % areaLabels), ignored -> new ArrayList<>()).add(issue);
+            if (number % 10 == 0) {
+                issuesByLabel.computeIfAbsent(TRIAGE_LABEL, ignored -> new ArrayList<>()).add(issue);
+            }
+        }
+        repo = mock(GitHubRepository.class, withSettings().stubOnly());
+        when(repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(anyString(), any(), any()))
+                .thenAnswer(invocation -> issuesByLabel.getOrDefault(invocation.<String> getArgument(0), List.of())
+                        .stream());
+        when(repo.issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(anyString(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> issuesByLabel.getOrDefault(invocation.<String> getArgument(0), List.of())
+                        .stream());
+        when(repo.issuesLastActedOnByAndLastUpdatedBefore(any(), anyString(), any(), any()))
+                .thenAnswer(invocation -> issuesByLabel.getOrDefault(invocation.<String> getArgument(1), List.of())
+                        .stream());
+        when(repo.issuesOrPullRequestsLastUpdatedBefore(any(), any()))
+                .thenAnswer(ignored -> allIssues.stream());
+    }
+
+    // Participations get filled by draws, so we need fresh ones for each draw.
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        lottery = new Lottery(NOW, deploymentConfig, BUCKETS, Map.of(), new Random(42L));
+        for (int i = 0; i < participants; i++) {
+            String username = username(i);
+            var maintenance = lottery.maintenance(areaLabel(i % areaLabels));
+            maintenance.created().participate(participation(username, 3));
+            maintenance.feedbackNeeded().participate(participation(username, 2));
+            maintenance.feedbackProvided().participate(participation(username, 2));
+            maintenance.stale().participate(participation(username, 5));
+            if (i % 10 == 0) {
+                lottery.triage().participate(participation(username, 3));
+            }
+            if (i % 20 == 0) {
+                lottery.stewardship().participate(participation(username, 10));
+            }
+        }
+        lotteryHistory = new LotteryHistory(NOW, BUCKETS);
+
+        var singleDrawLottery = new Lottery(NOW, deploymentConfig, BUCKETS, Map.of(), new Random(42L));
+        var bucket = singleDrawLottery.triage();
+        for (int i = 0; i < participants; i++) {
+            bucket.participate(participation(username(i), 5));
+        }
+        singleDraw = bucket.createDraw(allIssues.iterator(), new HashSet<>(),
+                (participation, issue) -> !participation.username().equals(issue.author()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Lottery draw() throws IOException {
+        lottery.draw(repo, lotteryHistory);
+        return lottery;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void rounds(RoundCounters counters) {
+        try {
+            Lottery.Draw.State state;
+            do {
+                state = singleDraw.runSingleRound();
+                counters.rounds++;
+            } while (state == Lottery.Draw.State.RUNNING);
+        } finally {
+            singleDraw.close();
+        }
+    }
+
+    private static String username(int index) {
+        return "participant" + index;
+    }
+
+    private static String areaLabel(int index) {
+        return "area/" + index;
+    }
+
+    private static Participation participation(String username, int maxIssues) {
+        return Participation.create(username, new LotteryConfig.Participant.Participation(maxIssues)).orElseThrow();
+    }
+
+}
@@ -0,0 +1,133 @@
+package io.quarkus.github.lottery.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link BufferingIterator} with the {@link ArrayListBufferingIterator} it used to be,
+ * under the access pattern of {@code Lottery.Draw#runSingleRound}:
+ * each round gets back to the start of the buffer, then scans it,
+ * skipping elements that are not compatible with any waiting participation
+ * and removing the others, until all participations got an element.
+ * <p>
+ * Elements skipped in a round generally get removed in later rounds,
+ * so with {@code compatibleOneIn > 1} most removals happen in the middle of a large buffer.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BufferingIteratorBenchmark {
+
+    private static final int CHUNK_SIZE = 40;
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    @Param({ "10", "1000" })
+    int participations;
+
+    // An element is compatible with participations of a given round
+    // if (element + round) is a multiple of this.
+    @Param({ "1", "10" })
+    int compatibleOneIn;
+
+    private List<Integer> elements;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Integer[] array = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = i;
+        }
+        elements = Arrays.asList(array);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int roundsArrayList() {
+        var it = new ArrayListBufferingIterator<>(elements.iterator(), CHUNK_SIZE, ignored -> {
+        });
+        int round = 0;
+        while (it.hasNext()) {
+            int waiting = participations;
+            while (waiting > 0 && it.hasNext()) {
+                if (isCompatible(it.next(), round)) {
+                    it.remove();
+                    --waiting;
+                }
+            }
+            it.backToStart();
+            ++round;
+        }
+        return round;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int roundsLinkedSlots() {
+        var it = new BufferingIterator<>(elements.iterator(), CHUNK_SIZE, ignored -> {
+        });
+        int round = 0;
+        while (it.hasNext()) {
+            int waiting = participations;
+            while (waiting > 0 && it.hasNext()) {
+                if (isCompatible(it.next(), round)) {
+                    it.remove();
+                    --waiting;
+                }
+            }
+            it.backToStart();
+            ++round;
+        }
+        return round;
+    }
+
+    // Buffers all elements, then removes half of them, like proposals being committed.
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ArrayListBufferingIterator<Integer> removeIfArrayList() {
+        var it = new ArrayListBufferingIterator<>(elements.iterator(), CHUNK_SIZE, ignored -> {
+        });
+        while (it.hasNext()) {
+            it.next();
+        }
+        it.removeIf(element -> element % 2 == 0);
+        return it;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BufferingIterator<Integer> removeIfLinkedSlots() {
+        var it = new BufferingIterator<>(elements.iterator(), CHUNK_SIZE, ignored -> {
+        });
+        while (it.hasNext()) {
+            it.next();
+        }
+        it.removeIf(element -> element % 2 == 0);
+        return it;
+    }
+
+    private boolean isCompatible(int element, int round) {
+        return (element + round) % compatibleOneIn == 0;
+    }
+
+}
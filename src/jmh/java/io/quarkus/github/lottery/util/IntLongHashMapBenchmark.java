@@ -0,0 +1,122 @@
+package io.quarkus.github.lottery.util;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Compares {@link IntLongHashMap} with the {@code HashMap<Integer, Instant>} that {@code LotteryHistory} used to rely on,
+ * for lookups similar to {@code LotteryHistory.Bucket#lastNotificationTimedOutForIssueNumber}.
+ * <p>
+ * Heap footprint of both maps is printed at the end of each trial.
+ * Run with {@code -prof gc} to also compare allocation when populating maps.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IntLongHashMapBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    private Instant cutoff;
+    private long cutoffEpochMilli;
+    private Instant[] instants;
+    private int[] lookupKeys;
+
+    private Map<Integer, Instant> hashMap;
+    private IntLongHashMap intLongHashMap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var random = new Random(42L);
+        Instant now = Instant.parse("2017-11-06T06:00:00Z");
+        cutoff = now.minusSeconds(TimeUnit.DAYS.toSeconds(3));
+        cutoffEpochMilli = cutoff.toEpochMilli();
+        instants = new Instant[size];
+        for (int i = 0; i < size; i++) {
+            // Notifications over the last two weeks
+            instants[i] = now.minusSeconds(random.nextInt((int) TimeUnit.DAYS.toSeconds(14)));
+        }
+        hashMap = populateHashMap();
+        intLongHashMap = populateIntLongHashMap();
+        // Roughly half of the candidate issues were notified.
+        lookupKeys = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupKeys[i] = 1 + random.nextInt(size * 2);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printFootprint() {
+        System.out.printf("%nHeap footprint for %d entries: HashMap<Integer, Instant> = %d bytes, IntLongHashMap = %d bytes%n",
+                size, GraphLayout.parseInstance(hashMap).totalSize(),
+                GraphLayout.parseInstance(intLongHashMap).totalSize());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(LOOKUPS)
+    public void lookupHashMap(Blackhole blackhole) {
+        for (int key : lookupKeys) {
+            blackhole.consume(hashMap.getOrDefault(key, Instant.MIN).isBefore(cutoff));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(LOOKUPS)
+    public void lookupIntLongHashMap(Blackhole blackhole) {
+        for (int key : lookupKeys) {
+            blackhole.consume(intLongHashMap.getOrDefault(key, Long.MIN_VALUE) < cutoffEpochMilli);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<Integer, Instant> populateHashMap() {
+        Map<Integer, Instant> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            // Issue numbers are sequential in practice.
+            map.merge(i + 1, instants[i], (first, second) -> first.isAfter(second) ? first : second);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public IntLongHashMap populateIntLongHashMap() {
+        IntLongHashMap map = new IntLongHashMap();
+        for (int i = 0; i < size; i++) {
+            map.merge(i + 1, instants[i].toEpochMilli(), Math::max);
+        }
+        return map;
+    }
+
+}
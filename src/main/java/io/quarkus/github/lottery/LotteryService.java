@@ -10,8 +10,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import io.quarkus.github.lottery.config.DeploymentConfig;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -25,6 +30,7 @@ import io.quarkus.github.lottery.draw.DrawRef;
 import io.quarkus.github.lottery.draw.Lottery;
 import io.quarkus.github.lottery.draw.LotteryReport;
 import io.quarkus.github.lottery.draw.Participant;
+import io.quarkus.github.lottery.github.GitHubInstallationRef;
 import io.quarkus.github.lottery.github.GitHubRepository;
 import io.quarkus.github.lottery.github.GitHubRepositoryRef;
 import io.quarkus.github.lottery.github.GitHubService;
@@ -53,6 +59,9 @@ public class LotteryService {
     @Inject
     Clock clock;
 
+    // Preserved across draws, so that the cap also applies to repositories of an installation drawn concurrently.
+    private final Map<GitHubInstallationRef, Semaphore> notificationPermitsByInstallation = new ConcurrentHashMap<>();
+
     /**
      * Draws the lottery and sends lists of tickets to participants as necessary.
      */
@@ -62,19 +71,41 @@ public class LotteryService {
         List<GitHubRepositoryRef> refs = gitHubService.listRepositories();
         Log.infof("Will draw for the following repositories: %s", refs);
 
-        // TODO parallelize
-        for (GitHubRepositoryRef ref : refs) {
-            Log.infof("Starting draw for repository %s...", ref);
-            try {
-                drawForRepository(ref);
-                Log.infof("End of draw for repository %s.", ref);
-            } catch (Exception e) {
-                Log.errorf(e, "Error drawing for repository %s", ref);
+        // Each repository gets its own (virtual) thread, so that the draw takes as long as the slowest repository,
+        // as opposed to the sum of all repositories.
+        // Concurrency is capped per installation, since that's the scope of GitHub API rate limits.
+        Map<GitHubInstallationRef, Semaphore> permitsByInstallation = new HashMap<>();
+        try (var executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lottery-draw-", 0).factory())) {
+            for (GitHubRepositoryRef ref : refs) {
+                var permits = permitsByInstallation.computeIfAbsent(ref.installationRef(),
+                        ignored -> new Semaphore(deploymentConfig.maxConcurrentDrawsPerInstallation()));
+                executor.execute(() -> drawForRepository(ref, permits));
             }
+            // Closing the executor waits for all draws to complete.
         }
         Log.info("End of draw.");
     }
 
+    private void drawForRepository(GitHubRepositoryRef ref, Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.errorf(e, "Interrupted while waiting to draw for repository %s", ref);
+            return;
+        }
+        try {
+            Log.infof("Starting draw for repository %s...", ref);
+            drawForRepository(ref);
+            Log.infof("End of draw for repository %s.", ref);
+        } catch (Exception e) {
+            // Failures are isolated: other repositories are still drawn for.
+            Log.errorf(e, "Error drawing for repository %s", ref);
+        } finally {
+            permits.release();
+        }
+    }
+
     private void drawForRepository(GitHubRepositoryRef repoRef) throws IOException {
         try (GitHubRepository repo = gitHubService.repository(repoRef)) {
             var optionalLotteryConfig = repo.fetchLotteryConfig();
@@ -154,19 +185,61 @@ public class LotteryService {
 
     private List<LotteryReport.Serialized> notifyParticipants(LotteryConfig lotteryConfig,
             Notifier notifier, List<Participant> participants) {
-        List<LotteryReport.Serialized> sent = new ArrayList<>();
-        for (var participant : participants) {
-            var report = participant.report(lotteryConfig.buckets().triage().label(),
-                    new LinkedHashSet<>(lotteryConfig.buckets().maintenance().feedback().labels()));
-            try {
-                Log.debugf("Sending report: %s", report);
-                notifier.send(report);
-                sent.add(report.serialized());
-            } catch (IOException | RuntimeException e) {
-                Log.errorf(e, "Failed to send lottery report with content %s", report);
+        // Reports are sent to the notification repository, so that's the installation whose limits matter.
+        var permits = notificationPermitsByInstallation.computeIfAbsent(notifier.installationRef(),
+                // Fair, so that reports are sent roughly in order.
+                ignored -> new Semaphore(deploymentConfig.maxConcurrentNotificationsPerInstallation(), true));
+        List<Optional<LotteryReport.Serialized>> results = new ArrayList<>();
+        if (deploymentConfig.maxConcurrentNotificationsPerInstallation() <= 1) {
+            for (var participant : participants) {
+                results.add(notifyParticipant(lotteryConfig, notifier, participant, permits));
             }
+        } else {
+            // Each report is sent from its own (virtual) thread, so that slow GitHub API calls for one participant
+            // don't delay other participants.
+            // Concurrency is capped per installation, and mutations remain throttled by the installation's rate limiter.
+            List<Future<Optional<LotteryReport.Serialized>>> futures = new ArrayList<>();
+            try (var executor = Executors
+                    .newThreadPerTaskExecutor(Thread.ofVirtual().name("lottery-notify-", 0).factory())) {
+                for (var participant : participants) {
+                    futures.add(executor.submit(() -> notifyParticipant(lotteryConfig, notifier, participant, permits)));
+                }
+                // Closing the executor waits for all reports to be sent.
+            }
+            for (var future : futures) {
+                // Failures are handled in notifyParticipant, so this won't throw.
+                results.add(future.resultNow());
+            }
+        }
+        // Reports are listed in participant order, regardless of the order they were actually sent in.
+        List<LotteryReport.Serialized> sent = new ArrayList<>();
+        for (var result : results) {
+            result.ifPresent(sent::add);
         }
         return sent;
     }
 
+    private Optional<LotteryReport.Serialized> notifyParticipant(LotteryConfig lotteryConfig, Notifier notifier,
+            Participant participant, Semaphore permits) {
+        var report = participant.report(lotteryConfig.buckets().triage().label(),
+                new LinkedHashSet<>(lotteryConfig.buckets().maintenance().feedback().labels()));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.errorf(e, "Interrupted while waiting to send lottery report with content %s", report);
+            return Optional.empty();
+        }
+        try {
+            Log.debugf("Sending report: %s", report);
+            notifier.send(report);
+            return Optional.of(report.serialized());
+        } catch (IOException | RuntimeException e) {
+            Log.errorf(e, "Failed to send lottery report with content %s", report);
+            return Optional.empty();
+        } finally {
+            permits.release();
+        }
+    }
+
 }
@@ -1,5 +1,9 @@
 package io.quarkus.github.lottery.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 
@@ -42,4 +46,299 @@ public interface DeploymentConfig {
     @WithDefault("60")
     int pageSize();
 
+    /**
+     * @return How many pages of issues/PRs to retrieve from GitHub ahead of time, in the background, when drawing.
+     *         Prefetching allows retrieving issues for a draw while other draws are running,
+     *         but may retrieve pages that the draw ends up not needing,
+     *         which costs calls to the search API.
+     *         If set to 0, prefetching is disabled and issues are retrieved when a draw needs them.
+     * @see #pageSize()
+     */
+    @WithDefault("0")
+    int prefetchPages();
+
+    /**
+     * @return Whether draws for different buckets of a given repository should pick issues concurrently.
+     *         When enabled, each round of the lottery has draws pick issues in parallel, then assigns picked issues
+     *         one draw after the other, in a fixed order, discarding conflicting picks;
+     *         the outcome is just as fair, and still only depends on the random seed.
+     *         Mostly useful for repositories with many area labels, and thus many draws.
+     */
+    @WithDefault("false")
+    boolean concurrentDrawRounds();
+
+    /**
+     * @return How many repositories to draw for concurrently, at a maximum, for a given GitHub App installation.
+     *         Draws for repositories of different installations are independent and always run concurrently,
+     *         since each installation has its own GitHub API rate limits.
+     *         If set to 1, draws for repositories of a given installation run one after the other.
+     */
+    @WithDefault("2")
+    int maxConcurrentDrawsPerInstallation();
+
+    /**
+     * @return How many reports to send concurrently, at a maximum, for a given GitHub App installation,
+     *         across all repositories of that installation.
+     *         Calls to the GitHub API that change something remain subject to the installation's rate limits
+     *         regardless of this setting.
+     *         If set to 1, reports are sent one after the other.
+     * @see RateLimits#mutationsPerMinute()
+     */
+    @WithDefault("4")
+    int maxConcurrentNotificationsPerInstallation();
+
+    /**
+     * @return Limits on the rate of calls to the GitHub API, for each GitHub App installation.
+     *         These are upper bounds: calls get further slowed down when GitHub reports
+     *         that the primary rate limit is close to being reached.
+     */
+    RateLimits rateLimits();
+
+    /**
+     * @return Configuration of the cache of user permissions on repositories,
+     *         which is shared across repositories and draws.
+     */
+    PermissionCache permissionCache();
+
+    /**
+     * @return Configuration of incremental searches, which allow retrieving fewer issues from GitHub on each draw.
+     */
+    IncrementalSearch incrementalSearch();
+
+    /**
+     * @return Configuration of merged searches, which allow retrieving issues for multiple area labels at once
+     *         when drawing for maintenance buckets.
+     */
+    MergedLabelSearch mergedLabelSearch();
+
+    /**
+     * @return Configuration of the pool of issues shared by the stale and stewardship buckets.
+     */
+    SharedIssuePool sharedIssuePool();
+
+    /**
+     * @return Configuration of the local copy of lottery history, which allows loading history without retrieving it
+     *         from GitHub on each draw.
+     */
+    HistoryCache historyCache();
+
+    /**
+     * @return Configuration of the minimization of outdated comments on dedicated issues.
+     */
+    CommentMinimization commentMinimization();
+
+    /**
+     * @return Configuration of the packing of dedicated issues, i.e. the deletion of old comments
+     *         to avoid hitting GitHub's limit of comments per issue.
+     */
+    CommentPacking commentPacking();
+
+    /**
+     * @return Configuration of the cache of responses to reads from the GitHub REST API,
+     *         which allows sending conditional requests.
+     */
+    HttpCache httpCache();
+
+    interface RateLimits {
+
+        /**
+         * @return How many calls to the search API to perform per minute, at a maximum.
+         *         GitHub allows 30 per minute.
+         */
+        @WithDefault("30")
+        int searchesPerMinute();
+
+        /**
+         * @return How many calls to the REST API that don't change anything to perform per minute, at a maximum.
+         *         Up to a tenth of this may be performed in a burst.
+         */
+        @WithDefault("300")
+        int readsPerMinute();
+
+        /**
+         * @return How many calls to the REST or GraphQL API that change something to perform per minute, at a maximum.
+         *         GitHub recommends waiting at least one second between such calls.
+         */
+        @WithDefault("60")
+        int mutationsPerMinute();
+
+        /**
+         * @return How many GraphQL queries to perform per minute, at a maximum.
+         *         Up to a tenth of this may be performed in a burst.
+         */
+        @WithDefault("120")
+        int graphqlQueriesPerMinute();
+
+    }
+
+    interface PermissionCache {
+
+        /**
+         * @return How many user permissions to cache, at a maximum, across all repositories.
+         */
+        @WithDefault("10000")
+        int maxSize();
+
+        /**
+         * @return How long to cache user permissions.
+         *         Cached permissions are also invalidated when GitHub notifies us of changes to collaborators or teams,
+         *         so this is mostly a safety net in case a notification gets lost.
+         */
+        @WithDefault("P1D")
+        Duration ttl();
+
+    }
+
+    interface IncrementalSearch {
+
+        /**
+         * @return Whether results of searches for issues last updated before a cutoff should be kept in memory
+         *         and updated incrementally from one draw to the next,
+         *         instead of searching from scratch on each draw.
+         *         Only applies to the triage, stale and stewardship buckets,
+         *         and only to searches whose results GitHub can return in full.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * @return Whether to rely on events sent by GitHub (issues, comments, pull requests, labels)
+         *         to know which issues changed since search results were last updated,
+         *         instead of searching for such issues.
+         *         Requires the GitHub App to subscribe to the corresponding events.
+         */
+        @WithDefault("false")
+        boolean webhooks();
+
+        /**
+         * @return How many search results to keep in memory, at a maximum, across all repositories.
+         */
+        @WithDefault("1000")
+        int maxSize();
+
+        /**
+         * @return How long to update search results incrementally before searching from scratch again.
+         *         Searching from scratch regularly is a safety net in case incremental updates miss a change,
+         *         e.g. because GitHub's search index lagged behind.
+         */
+        @WithDefault("P1D")
+        Duration fullSearchInterval();
+
+    }
+
+    interface MergedLabelSearch {
+
+        /**
+         * @return Whether searches for issues of maintenance buckets should cover multiple area labels at once
+         *         (e.g. {@code label:area/a,area/b,area/c}), with results split in memory by area label,
+         *         instead of searching separately for each area label.
+         *         This saves many calls to the search API for repositories with many area labels,
+         *         but retrieves all matching issues upfront, even those that end up not being needed by any draw.
+         *         Doesn't apply to the stale bucket when incremental search is enabled,
+         *         since incremental search saves most of those calls already.
+         * @see IncrementalSearch#enabled()
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * @return How long a search query can be, at a maximum, in characters.
+         *         Area labels are grouped so that each merged search stays within this limit.
+         *         GitHub rejects queries longer than 256 characters.
+         */
+        @WithDefault("256")
+        int maxQueryLength();
+
+    }
+
+    interface SharedIssuePool {
+
+        /**
+         * @return Whether the stale and stewardship buckets, which look for overlapping sets of issues,
+         *         should share a single pool of open issues last updated before the latest of their cutoffs,
+         *         retrieved once per draw and filtered in memory,
+         *         instead of searching separately for each bucket.
+         *         Doesn't apply when incremental search is enabled,
+         *         since incremental search saves most of those searches already.
+         *         Buckets still search separately when the pool would exceed what a single GitHub search can return.
+         * @see IncrementalSearch#enabled()
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+    }
+
+    interface HistoryCache {
+
+        /**
+         * @return A directory where to keep a local copy of the history of each repository,
+         *         which is mirrored when history is appended to,
+         *         and used instead of retrieving history from GitHub whenever GitHub reports no other change.
+         *         The directory will be created if necessary, and should be preserved across restarts.
+         *         If not set, history is retrieved from GitHub on each draw.
+         */
+        Optional<Path> directory();
+
+    }
+
+    interface CommentMinimization {
+
+        /**
+         * @return Whether outdated comments should be minimized in batches, once all dedicated issues
+         *         of a repository have been updated, instead of one at a time as each dedicated issue gets updated.
+         *         Batching relies on aliased mutations in a single GraphQL query, which saves round-trips.
+         */
+        @WithDefault("false")
+        boolean batch();
+
+        /**
+         * @return How many comments to minimize in a single GraphQL query, at a maximum, when batching.
+         */
+        @WithDefault("25")
+        int batchSize();
+
+    }
+
+    interface CommentPacking {
+
+        /**
+         * @return Whether dedicated issues should be packed in the background, after the draw,
+         *         deleting old comments in batches through GraphQL,
+         *         instead of during the draw, deleting old comments one at a time through the REST API.
+         *         Packing that gets interrupted (e.g. by a failure) resumes on the next update of the dedicated issue.
+         */
+        @WithDefault("false")
+        boolean background();
+
+        /**
+         * @return How many comments to delete in a single GraphQL query, at a maximum, when packing in the background.
+         */
+        @WithDefault("25")
+        int batchSize();
+
+    }
+
+    interface HttpCache {
+
+        /**
+         * @return A directory where to keep responses to reads from the GitHub REST API, along with their ETag,
+         *         so that subsequent identical reads can be sent as conditional requests
+         *         and answered from the cache when GitHub reports no change (HTTP 304).
+         *         Such responses don't count against GitHub's primary rate limit.
+         *         Responses are only reused for requests from the same GitHub App installation,
+         *         and search results are never cached.
+         *         The directory will be created if necessary, and may be preserved across restarts.
+         *         If not set, responses are not cached.
+         */
+        Optional<Path> directory();
+
+        /**
+         * @return The maximum total size of cached responses, in bytes.
+         *         Least recently used responses get evicted when this size is exceeded.
+         */
+        @WithDefault("104857600")
+        long maxSize();
+
+    }
+
 }
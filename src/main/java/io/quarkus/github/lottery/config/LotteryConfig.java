@@ -23,6 +23,7 @@ public record LotteryConfig(
         List<Participant> participants) {
 
     public static final String FILE_NAME = "quarkus-github-lottery.yml";
+    public static final String FILE_PATH = ".github/" + FILE_NAME;
 
     public LotteryConfig(
             @JsonProperty(required = true) Notifications notifications,
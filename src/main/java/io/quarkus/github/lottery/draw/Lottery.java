@@ -1,26 +1,36 @@
 package io.quarkus.github.lottery.draw;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import io.quarkus.github.lottery.config.DeploymentConfig;
 import io.quarkus.github.lottery.config.LotteryConfig;
 import io.quarkus.github.lottery.github.GitHubRepository;
 import io.quarkus.github.lottery.github.Issue;
 import io.quarkus.github.lottery.github.IssueActionSide;
+import io.quarkus.github.lottery.github.IssuePool;
 import io.quarkus.github.lottery.history.LotteryHistory;
 import io.quarkus.github.lottery.util.BufferingIterator;
+import io.quarkus.github.lottery.util.PrefetchingIterator;
 import io.quarkus.logging.Log;
 
 /**
@@ -39,11 +49,18 @@ public final class Lottery {
 
     public Lottery(Instant now, DeploymentConfig deploymentConfig, LotteryConfig.Buckets config,
             Map<String, Set<String>> maintainerUsernamesByAreaLabel) {
+        this(now, deploymentConfig, config, maintainerUsernamesByAreaLabel, new Random());
+    }
+
+    // Mainly useful for tests: the outcome of a draw only depends on the seed of this random,
+    // even when draw rounds run concurrently.
+    Lottery(Instant now, DeploymentConfig deploymentConfig, LotteryConfig.Buckets config,
+            Map<String, Set<String>> maintainerUsernamesByAreaLabel, Random random) {
         this.now = now;
         this.deploymentConfig = deploymentConfig;
         this.config = config;
         this.maintainerUsernamesByAreaLabel = maintainerUsernamesByAreaLabel;
-        this.random = new Random();
+        this.random = random;
         this.triage = new Triage();
         this.maintenanceByLabel = new LinkedHashMap<>();
         this.stewardship = new Stewardship();
@@ -75,13 +92,66 @@ public final class Lottery {
         Set<Integer> allTriageWinnings = new HashSet<>();
         Set<Integer> allMaintenanceWinnings = new HashSet<>();
         Set<Integer> allStewardshipWinnings = new HashSet<>();
-        triage.createDraws(repo, lotteryHistory, draws, allTriageWinnings);
+        try {
+            triage.createDraws(repo, lotteryHistory, draws, allTriageWinnings);
+            var issuePool = createIssuePool(repo);
+            var maintenanceSearches = new MaintenanceSearches(repo, issuePool);
+            for (Maintenance maintenance : maintenanceByLabel.values()) {
+                maintenance.createDraws(maintenanceSearches, lotteryHistory, draws, allMaintenanceWinnings);
+            }
+            stewardship.createDraws(repo, issuePool, lotteryHistory, draws, allStewardshipWinnings);
+            List<Draw> runningDraws = new ArrayList<>(draws);
+            if (deploymentConfig.concurrentDrawRounds()) {
+                runRoundsConcurrently(runningDraws);
+            } else {
+                runRoundsSequentially(runningDraws);
+            }
+        } finally {
+            // Stop prefetching issues for draws that ended before their issues were exhausted.
+            draws.forEach(Draw::close);
+        }
+        Log.infof("Winnings of lottery for repository %s / triage: %s", repo.ref(), allTriageWinnings);
+        Log.infof("Winnings of lottery for repository %s / maintenance: %s", repo.ref(), allMaintenanceWinnings);
+        Log.infof("Winnings of lottery for repository %s / stewardship: %s", repo.ref(), allStewardshipWinnings);
+    }
+
+    /**
+     * Retrieves issues for the stale and stewardship buckets at once, when enabled and useful,
+     * since these buckets look for overlapping sets of issues.
+     *
+     * @return A pool of issues shared by the stale and stewardship buckets, or {@code null}
+     *         if disabled, not useful, or if the pool would be too large to retrieve with a single search.
+     * @see DeploymentConfig#sharedIssuePool()
+     */
+    private IssuePool createIssuePool(GitHubRepository repo) {
+        if (!deploymentConfig.sharedIssuePool().enabled() || deploymentConfig.incrementalSearch().enabled()) {
+            return null;
+        }
+        List<Instant> cutoffs = new ArrayList<>();
+        List<Set<String>> ignoreLabelSets = new ArrayList<>();
+        if (stewardship.bucket.hasParticipation()) {
+            cutoffs.add(now.minus(config.stewardship().notification().delay()));
+            ignoreLabelSets.add(new LinkedHashSet<>(config.stewardship().ignoreLabels()));
+        }
         for (Maintenance maintenance : maintenanceByLabel.values()) {
-            maintenance.createDraws(repo, lotteryHistory, draws, allMaintenanceWinnings);
+            if (maintenance.stale.hasParticipation()) {
+                cutoffs.add(now.minus(config.maintenance().stale().notification().delay()));
+                ignoreLabelSets.add(new LinkedHashSet<>(config.maintenance().stale().ignoreLabels()));
+            }
         }
-        stewardship.createDraws(repo, lotteryHistory, draws, allStewardshipWinnings);
-        while (!draws.isEmpty()) {
-            var drawsIterator = draws.iterator();
+        if (cutoffs.size() < 2) {
+            // Nothing to share.
+            return null;
+        }
+        // Ignore labels can only be part of the search query if all buckets ignore them.
+        Set<String> commonIgnoreLabels = new LinkedHashSet<>(ignoreLabelSets.get(0));
+        ignoreLabelSets.forEach(commonIgnoreLabels::retainAll);
+        return repo.issuePoolLastUpdatedBefore(commonIgnoreLabels, Collections.max(cutoffs)).orElse(null);
+    }
+
+    private static void runRoundsSequentially(List<Draw> runningDraws) {
+        while (!runningDraws.isEmpty()) {
+            var drawsIterator = runningDraws.iterator();
             while (drawsIterator.hasNext()) {
                 var state = drawsIterator.next().runSingleRound();
                 if (Draw.State.DRAINED.equals(state)) {
@@ -89,9 +159,52 @@ public final class Lottery {
                 }
             }
         }
-        Log.infof("Winnings of lottery for repository %s / triage: %s", repo.ref(), allTriageWinnings);
-        Log.infof("Winnings of lottery for repository %s / maintenance: %s", repo.ref(), allMaintenanceWinnings);
-        Log.infof("Winnings of lottery for repository %s / stewardship: %s", repo.ref(), allStewardshipWinnings);
+    }
+
+    private static void runRoundsConcurrently(List<Draw> runningDraws) throws IOException {
+        try (var executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lottery-round-", 0).factory())) {
+            while (!runningDraws.isEmpty()) {
+                // Each round is split in two phases.
+                // First, each draw picks issues for its participations, in parallel;
+                // this only reads state shared between draws (winnings, participations), so it's safe.
+                List<Future<Map<Participation, Issue>>> futureProposals = new ArrayList<>();
+                for (Draw draw : runningDraws) {
+                    futureProposals.add(executor.submit(draw::propose));
+                }
+                List<Map<Participation, Issue>> proposals = new ArrayList<>();
+                for (Future<Map<Participation, Issue>> futureProposal : futureProposals) {
+                    proposals.add(await(futureProposal));
+                }
+                // Then, draws assign the picked issues, one draw after the other, always in the same order,
+                // discarding picks that conflict with those of previous draws.
+                // That way, the outcome doesn't depend on thread scheduling.
+                var drawsIterator = runningDraws.iterator();
+                var proposalsIterator = proposals.iterator();
+                while (drawsIterator.hasNext()) {
+                    var state = drawsIterator.next().commit(proposalsIterator.next());
+                    if (Draw.State.DRAINED.equals(state)) {
+                        drawsIterator.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            } else {
+                throw new IOException(e.getCause());
+            }
+        }
     }
 
     final class Triage {
@@ -153,22 +266,12 @@ public final class Lottery {
             return stale;
         }
 
-        void createDraws(GitHubRepository repo, LotteryHistory lotteryHistory, List<Draw> draws,
+        void createDraws(MaintenanceSearches searches, LotteryHistory lotteryHistory, List<Draw> draws,
                 Set<Integer> allWinnings) throws IOException {
             if (created.hasParticipation()) {
-                var maxCutoff = now.minus(config.maintenance().created().notification().delay());
-                var minCutoff = now.minus(config.maintenance().created().expiry());
-                // Remove duplicates, but preserve order
-                var ignoreLabels = new LinkedHashSet<String>();
-                // Ignore issues with feedback request labels,
-                // since they evidently got some attention from the team already.
-                ignoreLabels.addAll(config.maintenance().feedback().labels());
-                ignoreLabels.addAll(config.maintenance().created().ignoreLabels());
                 var history = lotteryHistory.created();
                 draws.add(created.createDraw(
-                        repo.issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(areaLabel, ignoreLabels,
-                                maintainerUsernames, minCutoff,
-                                maxCutoff)
+                        searches.created(this)
                                 .filter(issue -> history.lastNotificationTimedOutForIssueNumber(issue.number()))
                                 .iterator(),
                         allWinnings,
@@ -176,35 +279,26 @@ public final class Lottery {
                         // they already know about them, and needs *someone else* to have a look.
                         ((participation, issue) -> !participation.username().equals(issue.author()))));
             }
-            // Remove duplicates, but preserve order
-            Set<String> needFeedbackLabels = new LinkedHashSet<>(config.maintenance().feedback().labels());
             if (feedbackNeeded.hasParticipation()) {
-                var cutoff = now.minus(config.maintenance().feedback().needed().notification().delay());
                 var history = lotteryHistory.feedbackNeeded();
                 draws.add(feedbackNeeded.createDraw(
-                        repo.issuesLastActedOnByAndLastUpdatedBefore(needFeedbackLabels, areaLabel,
-                                IssueActionSide.TEAM, cutoff)
+                        searches.feedbackNeeded(this)
                                 .filter(issue -> history.lastNotificationTimedOutForIssueNumber(issue.number()))
                                 .iterator(),
                         allWinnings));
             }
             if (feedbackProvided.hasParticipation()) {
-                var cutoff = now.minus(config.maintenance().feedback().provided().notification().delay());
                 var history = lotteryHistory.feedbackProvided();
                 draws.add(feedbackProvided.createDraw(
-                        repo.issuesLastActedOnByAndLastUpdatedBefore(needFeedbackLabels, areaLabel,
-                                IssueActionSide.OUTSIDER, cutoff)
+                        searches.feedbackProvided(this)
                                 .filter(issue -> history.lastNotificationTimedOutForIssueNumber(issue.number()))
                                 .iterator(),
                         allWinnings));
             }
             if (stale.hasParticipation()) {
-                var cutoff = now.minus(config.maintenance().stale().notification().delay());
-                // Remove duplicates, but preserve order
-                var ignoreLabels = new LinkedHashSet<>(config.maintenance().stale().ignoreLabels());
                 var history = lotteryHistory.stale();
                 draws.add(stale.createDraw(
-                        repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(areaLabel, ignoreLabels, cutoff)
+                        searches.stale(this)
                                 .filter(issue -> history.lastNotificationTimedOutForIssueNumber(issue.number()))
                                 .iterator(),
                         allWinnings));
@@ -212,6 +306,115 @@ public final class Lottery {
         }
     }
 
+    /**
+     * Searches for issues of {@link Maintenance maintenance} buckets,
+     * either separately for each area label,
+     * or for many area labels at once, splitting results in memory.
+     *
+     * @see DeploymentConfig#mergedLabelSearch()
+     */
+    final class MaintenanceSearches {
+        private final GitHubRepository repo;
+        private final IssuePool issuePool;
+        private final boolean merged;
+        // Lazily initialized when merging searches.
+        private Map<String, Stream<Issue>> createdByAreaLabel;
+        private Map<String, Stream<Issue>> feedbackNeededByAreaLabel;
+        private Map<String, Stream<Issue>> feedbackProvidedByAreaLabel;
+        private Map<String, Stream<Issue>> staleByAreaLabel;
+
+        MaintenanceSearches(GitHubRepository repo, IssuePool issuePool) {
+            this.repo = repo;
+            this.issuePool = issuePool;
+            this.merged = deploymentConfig.mergedLabelSearch().enabled();
+        }
+
+        Stream<Issue> created(Maintenance maintenance) {
+            var maxCutoff = now.minus(config.maintenance().created().notification().delay());
+            var minCutoff = now.minus(config.maintenance().created().expiry());
+            // Remove duplicates, but preserve order
+            var ignoreLabels = new LinkedHashSet<String>();
+            // Ignore issues with feedback request labels,
+            // since they evidently got some attention from the team already.
+            ignoreLabels.addAll(config.maintenance().feedback().labels());
+            ignoreLabels.addAll(config.maintenance().created().ignoreLabels());
+            if (!merged) {
+                return repo.issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(maintenance.areaLabel, ignoreLabels,
+                        maintenance.maintainerUsernames, minCutoff, maxCutoff);
+            }
+            if (createdByAreaLabel == null) {
+                Map<String, Set<String>> maintainerUsernamesByAreaLabel = new LinkedHashMap<>();
+                for (Maintenance m : maintenanceByLabel.values()) {
+                    if (m.created.hasParticipation()) {
+                        maintainerUsernamesByAreaLabel.put(m.areaLabel, m.maintainerUsernames);
+                    }
+                }
+                createdByAreaLabel = repo.issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(
+                        maintainerUsernamesByAreaLabel, ignoreLabels, minCutoff, maxCutoff);
+            }
+            return createdByAreaLabel.get(maintenance.areaLabel);
+        }
+
+        Stream<Issue> feedbackNeeded(Maintenance maintenance) {
+            var cutoff = now.minus(config.maintenance().feedback().needed().notification().delay());
+            // Remove duplicates, but preserve order
+            Set<String> needFeedbackLabels = new LinkedHashSet<>(config.maintenance().feedback().labels());
+            if (!merged) {
+                return repo.issuesLastActedOnByAndLastUpdatedBefore(needFeedbackLabels, maintenance.areaLabel,
+                        IssueActionSide.TEAM, cutoff);
+            }
+            if (feedbackNeededByAreaLabel == null) {
+                feedbackNeededByAreaLabel = repo.issuesLastActedOnByAndLastUpdatedBefore(needFeedbackLabels,
+                        areaLabelsWithParticipation(m -> m.feedbackNeeded), IssueActionSide.TEAM, cutoff);
+            }
+            return feedbackNeededByAreaLabel.get(maintenance.areaLabel);
+        }
+
+        Stream<Issue> feedbackProvided(Maintenance maintenance) {
+            var cutoff = now.minus(config.maintenance().feedback().provided().notification().delay());
+            // Remove duplicates, but preserve order
+            Set<String> needFeedbackLabels = new LinkedHashSet<>(config.maintenance().feedback().labels());
+            if (!merged) {
+                return repo.issuesLastActedOnByAndLastUpdatedBefore(needFeedbackLabels, maintenance.areaLabel,
+                        IssueActionSide.OUTSIDER, cutoff);
+            }
+            if (feedbackProvidedByAreaLabel == null) {
+                feedbackProvidedByAreaLabel = repo.issuesLastActedOnByAndLastUpdatedBefore(needFeedbackLabels,
+                        areaLabelsWithParticipation(m -> m.feedbackProvided), IssueActionSide.OUTSIDER, cutoff);
+            }
+            return feedbackProvidedByAreaLabel.get(maintenance.areaLabel);
+        }
+
+        Stream<Issue> stale(Maintenance maintenance) {
+            var cutoff = now.minus(config.maintenance().stale().notification().delay());
+            // Remove duplicates, but preserve order
+            var ignoreLabels = new LinkedHashSet<>(config.maintenance().stale().ignoreLabels());
+            if (issuePool != null) {
+                return issuePool.issuesOrPullRequestsWithLabelLastUpdatedBefore(maintenance.areaLabel, ignoreLabels,
+                        cutoff);
+            }
+            // Incremental search already saves most searches, and can't be merged.
+            if (!merged || deploymentConfig.incrementalSearch().enabled()) {
+                return repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(maintenance.areaLabel, ignoreLabels, cutoff);
+            }
+            if (staleByAreaLabel == null) {
+                staleByAreaLabel = repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(
+                        areaLabelsWithParticipation(m -> m.stale), ignoreLabels, cutoff);
+            }
+            return staleByAreaLabel.get(maintenance.areaLabel);
+        }
+
+        private Set<String> areaLabelsWithParticipation(Function<Maintenance, Bucket> bucket) {
+            Set<String> result = new LinkedHashSet<>();
+            for (Maintenance maintenance : maintenanceByLabel.values()) {
+                if (bucket.apply(maintenance).hasParticipation()) {
+                    result.add(maintenance.areaLabel);
+                }
+            }
+            return result;
+        }
+    }
+
     final class Stewardship {
         private final Bucket bucket;
 
@@ -219,15 +422,17 @@ public final class Lottery {
             bucket = new Bucket("stewardship");
         }
 
-        void createDraws(GitHubRepository repo, LotteryHistory lotteryHistory, List<Draw> draws,
+        void createDraws(GitHubRepository repo, IssuePool issuePool, LotteryHistory lotteryHistory, List<Draw> draws,
                 Set<Integer> allWinnings) throws IOException {
             if (stewardship.bucket.hasParticipation()) {
                 var cutoff = now.minus(config.stewardship().notification().delay());
                 var ignoreLabels = new LinkedHashSet<>(config.stewardship().ignoreLabels());
                 var history = lotteryHistory.stewardship();
+                var issues = issuePool != null
+                        ? issuePool.issuesOrPullRequestsWithLabelLastUpdatedBefore(null, ignoreLabels, cutoff)
+                        : repo.issuesOrPullRequestsLastUpdatedBefore(ignoreLabels, cutoff);
                 draws.add(bucket.createDraw(
-                        repo.issuesOrPullRequestsLastUpdatedBefore(ignoreLabels, cutoff)
-                                .filter(issue -> history.lastNotificationTimedOutForIssueNumber(issue.number()))
+                        issues.filter(issue -> history.lastNotificationTimedOutForIssueNumber(issue.number()))
                                 .iterator(),
                         allWinnings));
             }
@@ -264,32 +469,46 @@ public final class Lottery {
                 BiPredicate<Participation, Issue> compatibilityFilter) {
             // Shuffle participations so that prizes are not always assigned in the same order.
             // In particular if there's only one prize, we don't want to always assign it to the same participation.
+            // Each draw gets its own random, so that the outcome doesn't depend on the order in which draws
+            // consume random numbers, which matters when draw rounds run concurrently.
+            Random drawRandom = new Random(random.nextLong());
             List<Participation> shuffledParticipations = new ArrayList<>(participations);
-            Collections.shuffle(shuffledParticipations, random);
+            Collections.shuffle(shuffledParticipations, drawRandom);
             int maxIssuesNeeded = participations.stream().mapToInt(p -> p.maxIssues).sum();
             int chunkSize = Math.min(deploymentConfig.maxChunkSize(),
                     Math.max(deploymentConfig.minChunkSize(), maxIssuesNeeded));
+            PrefetchingIterator<Issue> prefetchingIssueIterator = null;
+            if (deploymentConfig.prefetchPages() > 0) {
+                // Retrieve the next issues from GitHub while other draws are running.
+                prefetchingIssueIterator = new PrefetchingIterator<>(name, issueIterator,
+                        deploymentConfig.prefetchPages() * deploymentConfig.pageSize());
+                issueIterator = prefetchingIssueIterator;
+            }
             var bufferingIssueIterator = chunkSize == 1
                     // Don't bother shuffling issues if there's only one per chunk
                     ? new BufferingIterator<>(issueIterator, 1, ignored -> {
                     })
-                    : new BufferingIterator<>(issueIterator, chunkSize, issues -> Collections.shuffle(issues, random));
-            return new Draw(name, shuffledParticipations, bufferingIssueIterator, allWinnings, compatibilityFilter);
+                    : new BufferingIterator<>(issueIterator, chunkSize, issues -> Collections.shuffle(issues, drawRandom));
+            return new Draw(name, shuffledParticipations, bufferingIssueIterator, prefetchingIssueIterator, allWinnings,
+                    compatibilityFilter);
         }
     }
 
-    private static class Draw {
+    static class Draw {
         private final String name;
         private final List<Participation> shuffledParticipations;
         private final BufferingIterator<Issue> issueIterator;
+        private final PrefetchingIterator<Issue> prefetchingIssueIterator;
         private final Set<Integer> allWinnings;
         private final BiPredicate<Participation, Issue> compatibilityFilter;
 
         Draw(String name, List<Participation> shuffledParticipations, BufferingIterator<Issue> issueIterator,
+                PrefetchingIterator<Issue> prefetchingIssueIterator,
                 Set<Integer> allWinnings, BiPredicate<Participation, Issue> compatibilityFilter) {
             this.name = name;
             this.shuffledParticipations = shuffledParticipations;
             this.issueIterator = issueIterator;
+            this.prefetchingIssueIterator = prefetchingIssueIterator;
             this.allWinnings = allWinnings;
             this.compatibilityFilter = compatibilityFilter;
         }
@@ -299,6 +518,12 @@ public final class Lottery {
             return "Draw[" + name + "]";
         }
 
+        void close() {
+            if (prefetchingIssueIterator != null) {
+                prefetchingIssueIterator.close();
+            }
+        }
+
         State runSingleRound() {
             Log.tracef("Start of round for draw %s...", name);
 
@@ -309,48 +534,165 @@ public final class Lottery {
             // We proceed in rounds, each round yielding
             // at most one prize to each participation (if there are enough prizes),
             // so that prizes are spread evenly across participations.
-            for (var participationIterator = shuffledParticipations.iterator(); participationIterator.hasNext();) {
-                Participation participation = participationIterator.next();
-                // Re-consider previously skipped issues
-                issueIterator.backToStart();
-                if (!issueIterator.hasNext()) {
-                    break;
+            var waitingParticipations = new LinkedList<>(shuffledParticipations);
+            // Re-consider previously skipped issues
+            issueIterator.backToStart();
+            while (!waitingParticipations.isEmpty() && issueIterator.hasNext()) {
+                Issue issue = issueIterator.next();
+                if (allWinnings.contains(issue.number())) {
+                    // This issue was already won, either in this draw or in a parallel one.
+                    // Remove it, because it can't be used even for another participation.
+                    issueIterator.remove();
+                    continue;
+                }
+                Participation participation = pollFirstCompatible(waitingParticipations, issue);
+                if (participation == null) {
+                    // Can't use this issue for any participation waiting for an issue in this round.
+                    // Skip it, but keep the issue for the next rounds.
+                    continue;
                 }
 
-                Issue issue = null;
-                while (issueIterator.hasNext() && issue == null) {
-                    Issue issueCandidate = issueIterator.next();
-                    if (!compatibilityFilter.test(participation, issueCandidate)) {
-                        // Can't use this issue for this participation.
-                        // Skip it, but keep the issue for another participation.
-                        Log.tracef("Draw %s skipping issue %s for %s due to incompatibility", name, issueCandidate.number(),
-                                participation);
-                        continue;
-                    }
-                    if (!allWinnings.add(issueCandidate.number())) {
-                        // This issue was already won, either in this draw or in a parallel one.
-                        // Skip it, to avoid notifying twice about the same issue,
-                        // and remove it, because it can't be used even for another participation.
-                        issueIterator.remove();
-                        continue;
-                    }
+                // We found an issue!
+                allWinnings.add(issue.number());
+                issueIterator.remove();
+                participation.issues.add(issue);
+                Log.tracef("Draw %s assigned issue %s to %s", name, issue.number(), participation);
+            }
 
-                    // We found an issue!
-                    issue = issueCandidate;
+            if (!waitingParticipations.isEmpty()) {
+                // Cannot find any issue for these participations anymore
+                shuffledParticipations.removeIf(new HashSet<>(waitingParticipations)::contains);
+            }
+            Log.tracef("End of round for draw %s", name);
+
+            return endOfRound();
+        }
+
+        /**
+         * Picks issues for participations in this draw, without assigning them.
+         * <p>
+         * Only reads state shared with other draws, so that it can run concurrently with other draws.
+         *
+         * @return Issues picked for each participation, at most one per participation.
+         * @see #commit(Map)
+         */
+        Map<Participation, Issue> propose() {
+            Log.tracef("Start of round for draw %s...", name);
+
+            // Participations may have reached their max number of issues in parallel draws
+            // using the same participations;
+            removeMaxedOutParticipations();
+
+            Map<Participation, Issue> picks = new HashMap<>();
+            var waitingParticipations = new LinkedList<>(shuffledParticipations);
+            // Re-consider previously skipped issues
+            issueIterator.backToStart();
+            while (!waitingParticipations.isEmpty() && issueIterator.hasNext()) {
+                Issue issue = issueIterator.next();
+                if (allWinnings.contains(issue.number())) {
+                    // This issue was already won in a previous round, either in this draw or in a parallel one.
+                    // Remove it, because it can't be used even for another participation.
                     issueIterator.remove();
+                    continue;
+                }
+                Participation participation = pollFirstCompatible(waitingParticipations, issue);
+                if (participation != null) {
+                    // We found an issue!
+                    picks.put(participation, issue);
+                }
+            }
+
+            if (!waitingParticipations.isEmpty()) {
+                // Participations still waiting went through all issues, and either none is compatible,
+                // or compatible ones were picked for other participations in this round.
+                Set<Participation> drainedParticipations = new HashSet<>();
+                for (Participation participation : waitingParticipations) {
+                    if (!hasCompatibleIssue(participation)) {
+                        drainedParticipations.add(participation);
+                    }
+                }
+                // Cannot find any issue for these participations anymore
+                shuffledParticipations.removeIf(drainedParticipations::contains);
+            }
+
+            Map<Participation, Issue> proposals = new LinkedHashMap<>();
+            for (Participation participation : shuffledParticipations) {
+                Issue issue = picks.get(participation);
+                if (issue != null) {
+                    proposals.put(participation, issue);
                 }
+            }
+            return proposals;
+        }
 
-                if (issue == null) {
-                    // Cannot find any issue for this participation anymore
+        /**
+         * Removes and returns the first participation that can use the given issue.
+         * <p>
+         * Giving each issue, in order, to the first waiting participation that can use it
+         * yields the same assignments as having each participation, in order,
+         * pick the first issue it can use among those not picked yet,
+         * but without going through skipped issues again for each participation.
+         *
+         * @param waitingParticipations Participations waiting for an issue in this round, in order.
+         * @param issue An issue.
+         * @return The first participation that can use the issue, or {@code null} if there is none.
+         */
+        private Participation pollFirstCompatible(List<Participation> waitingParticipations, Issue issue) {
+            for (var participationIterator = waitingParticipations.iterator(); participationIterator.hasNext();) {
+                Participation participation = participationIterator.next();
+                if (compatibilityFilter.test(participation, issue)) {
                     participationIterator.remove();
-                    continue;
+                    return participation;
                 }
+                // Can't use this issue for this participation.
+                // Skip it, but keep the issue for another participation.
+                Log.tracef("Draw %s skipping issue %s for %s due to incompatibility", name, issue.number(),
+                        participation);
+            }
+            return null;
+        }
 
+        private boolean hasCompatibleIssue(Participation participation) {
+            issueIterator.backToStart();
+            while (issueIterator.hasNext()) {
+                if (compatibilityFilter.test(participation, issueIterator.next())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Assigns issues picked by {@link #propose()}, unless they conflict with assignments in other draws.
+         * <p>
+         * Writes state shared with other draws, so it must not run concurrently with other draws.
+         *
+         * @param proposals Issues picked for each participation.
+         * @return The state of this draw at the end of the round.
+         */
+        State commit(Map<Participation, Issue> proposals) {
+            for (var entry : proposals.entrySet()) {
+                Participation participation = entry.getKey();
+                Issue issue = entry.getValue();
+                if (participation.issues.size() >= participation.maxIssues) {
+                    // The participation reached its max number of issues in a parallel draw during this round.
+                    continue;
+                }
+                if (!allWinnings.add(issue.number())) {
+                    // The issue was won in a parallel draw during this round.
+                    continue;
+                }
                 participation.issues.add(issue);
                 Log.tracef("Draw %s assigned issue %s to %s", name, issue.number(), participation);
             }
+            // Issues that were won can't be used anymore, be it in this draw or in a parallel one.
+            issueIterator.removeIf(issue -> allWinnings.contains(issue.number()));
             Log.tracef("End of round for draw %s", name);
 
+            return endOfRound();
+        }
+
+        private State endOfRound() {
             removeMaxedOutParticipations();
 
             // Re-consider previously skipped issues
@@ -0,0 +1,41 @@
+package io.quarkus.github.lottery.event;
+
+import java.io.IOException;
+
+import jakarta.inject.Inject;
+
+import org.kohsuke.github.GHEventPayload;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHRepository;
+
+import io.quarkiverse.githubapp.event.Push;
+import io.quarkus.github.lottery.config.LotteryConfig;
+import io.quarkus.github.lottery.github.LotteryConfigCache;
+import io.quarkus.logging.Log;
+
+public class LotteryConfigCacheInvalidation {
+
+    @Inject
+    LotteryConfigCache lotteryConfigCache;
+
+    void pushed(@Push GHEventPayload.Push payload) throws IOException {
+        GHRepository repository = payload.getRepository();
+        if (!("refs/heads/" + repository.getDefaultBranch()).equals(payload.getRef())
+                || payload.getCommits().stream().noneMatch(commit -> commit.getAdded().contains(LotteryConfig.FILE_PATH)
+                        || commit.getModified().contains(LotteryConfig.FILE_PATH)
+                        || commit.getRemoved().contains(LotteryConfig.FILE_PATH))) {
+            return;
+        }
+        String repositoryName = repository.getFullName();
+        // Keep the configuration for the new blob, in case it was prewarmed already (see PullRequestConfigCheck).
+        String blobSha;
+        try {
+            blobSha = repository.getFileContent(LotteryConfig.FILE_PATH, payload.getHead()).getSha();
+        } catch (GHFileNotFoundException e) {
+            blobSha = null;
+        }
+        Log.debugf("Lottery configuration of %s changed; invalidating cached configuration", repositoryName);
+        lotteryConfigCache.retainOnly(repositoryName, blobSha);
+    }
+
+}
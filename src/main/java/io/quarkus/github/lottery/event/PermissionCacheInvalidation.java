@@ -0,0 +1,45 @@
+package io.quarkus.github.lottery.event;
+
+import jakarta.inject.Inject;
+
+import org.kohsuke.github.GHEventPayload;
+
+import io.quarkiverse.githubapp.event.Member;
+import io.quarkiverse.githubapp.event.Membership;
+import io.quarkiverse.githubapp.event.Team;
+import io.quarkus.github.lottery.github.PermissionCache;
+import io.quarkus.logging.Log;
+
+public class PermissionCacheInvalidation {
+
+    @Inject
+    PermissionCache permissionCache;
+
+    void collaboratorChanged(@Member GHEventPayload.Member payload) {
+        String repositoryName = payload.getRepository().getFullName();
+        String login = payload.getMember().getLogin();
+        Log.debugf("Collaborator %s changed on %s; invalidating cached permissions", login, repositoryName);
+        permissionCache.invalidate(repositoryName, login);
+    }
+
+    void teamMembershipChanged(@Membership GHEventPayload.Membership payload) {
+        String login = payload.getMember().getLogin();
+        Log.debugf("Team membership of %s changed; invalidating cached permissions", login);
+        // We don't know which repositories the team has access to.
+        permissionCache.invalidateLogin(login);
+    }
+
+    void teamChanged(@Team GHEventPayload.Team payload) {
+        if (payload.getRepository() != null) {
+            String repositoryName = payload.getRepository().getFullName();
+            Log.debugf("Team access to %s changed; invalidating cached permissions", repositoryName);
+            permissionCache.invalidateRepository(repositoryName);
+        } else {
+            String organizationLogin = payload.getOrganization().getLogin();
+            Log.debugf("Team of %s changed; invalidating cached permissions", organizationLogin);
+            // We don't know which repositories the team has access to.
+            permissionCache.invalidateOrganization(organizationLogin);
+        }
+    }
+
+}
@@ -21,13 +21,15 @@ import io.quarkiverse.githubapp.event.CheckRun;
 import io.quarkiverse.githubapp.event.CheckSuite;
 import io.quarkiverse.githubapp.event.PullRequest;
 import io.quarkus.github.lottery.config.LotteryConfig;
+import io.quarkus.github.lottery.github.LotteryConfigCache;
+import io.quarkus.logging.Log;
 
 public class PullRequestConfigCheck {
 
-    private static final String CONFIG_FILE_ABSOLUTE_PATH = ".github/" + LotteryConfig.FILE_NAME;
-
     @Inject
     GitHubConfigFileProvider configFileProvider;
+    @Inject
+    LotteryConfigCache lotteryConfigCache;
 
     void pullRequestChanged(
             @PullRequest.Opened @PullRequest.Reopened @PullRequest.Synchronize GHEventPayload.PullRequest payload)
@@ -35,6 +37,28 @@ public class PullRequestConfigCheck {
         checkLotteryConfig(payload.getRepository(), payload.getPullRequest());
     }
 
+    void pullRequestClosed(@PullRequest.Closed GHEventPayload.PullRequest payload) throws IOException {
+        GHRepository repository = payload.getRepository();
+        GHPullRequest pullRequest = payload.getPullRequest();
+        if (!pullRequest.isMerged()
+                || !repository.getDefaultBranch().equals(pullRequest.getBase().getRef())
+                || !changesLotteryConfig(pullRequest)) {
+            return;
+        }
+        // Prewarm the cache, so that the next draw doesn't need to parse the configuration.
+        String mergeCommitSha = pullRequest.getMergeCommitSha();
+        try {
+            String blobSha = repository.getFileContent(LotteryConfig.FILE_PATH, mergeCommitSha).getSha();
+            configFileProvider.fetchConfigFile(repository, mergeCommitSha, LotteryConfig.FILE_NAME,
+                    ConfigFile.Source.CURRENT_REPOSITORY, LotteryConfig.class)
+                    .ifPresent(config -> lotteryConfigCache.put(repository.getFullName(), blobSha, config));
+        } catch (Exception e) {
+            // Invalid configuration would have been reported by the check; the next draw will report it again.
+            Log.debugf(e, "Could not prewarm lottery configuration of %s at %s", repository.getFullName(),
+                    mergeCommitSha);
+        }
+    }
+
     void checkRunRequested(@CheckRun.Rerequested GHEventPayload.CheckRun payload) throws IOException {
         for (GHPullRequest pullRequest : payload.getCheckRun().getPullRequests()) {
             checkLotteryConfig(payload.getRepository(), pullRequest);
@@ -57,9 +81,13 @@ public class PullRequestConfigCheck {
                 && repository.getId() == pullRequest.getBase().getRepository().getId();
     }
 
+    private boolean changesLotteryConfig(GHPullRequest pullRequest) {
+        return Streams.toStream(pullRequest.listFiles())
+                .anyMatch(f -> f.getFilename().equals(LotteryConfig.FILE_PATH));
+    }
+
     private void checkLotteryConfig(GHRepository repository, GHPullRequest pullRequest) throws IOException {
-        if (shouldCheck(repository, pullRequest) && Streams.toStream(pullRequest.listFiles())
-                .noneMatch(f -> f.getFilename().equals(CONFIG_FILE_ABSOLUTE_PATH))) {
+        if (shouldCheck(repository, pullRequest) && !changesLotteryConfig(pullRequest)) {
             // Config did not change
             return;
         }
@@ -74,14 +102,14 @@ public class PullRequestConfigCheck {
                     .withCompletedAt(Date.from(Instant.now()))
                     .withStatus(GHCheckRun.Status.COMPLETED)
                     .withConclusion(GHCheckRun.Conclusion.SUCCESS)
-                    .add(new GHCheckRunBuilder.Output(CONFIG_FILE_ABSOLUTE_PATH + " passed syntax checks", ""))
+                    .add(new GHCheckRunBuilder.Output(LotteryConfig.FILE_PATH + " passed syntax checks", ""))
                     .create();
         } catch (Exception e) {
             repository.updateCheckRun(checkRun.getId())
                     .withCompletedAt(Date.from(Instant.now()))
                     .withStatus(GHCheckRun.Status.COMPLETED)
                     .withConclusion(GHCheckRun.Conclusion.FAILURE)
-                    .add(new GHCheckRunBuilder.Output(CONFIG_FILE_ABSOLUTE_PATH + " failed syntax checks",
+                    .add(new GHCheckRunBuilder.Output(LotteryConfig.FILE_PATH + " failed syntax checks",
                             "```\n" + ExceptionUtils.getStackTrace(e) + "\n```"))
                     .create();
         }
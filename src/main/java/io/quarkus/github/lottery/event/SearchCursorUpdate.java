@@ -0,0 +1,56 @@
+package io.quarkus.github.lottery.event;
+
+import java.time.Clock;
+
+import jakarta.inject.Inject;
+
+import org.kohsuke.github.GHEventPayload;
+
+import io.quarkiverse.githubapp.event.Issue;
+import io.quarkiverse.githubapp.event.IssueComment;
+import io.quarkiverse.githubapp.event.Label;
+import io.quarkiverse.githubapp.event.PullRequest;
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.github.lottery.github.SearchCursorCache;
+import io.quarkus.logging.Log;
+
+public class SearchCursorUpdate {
+
+    @Inject
+    DeploymentConfig deploymentConfig;
+    @Inject
+    Clock clock;
+    @Inject
+    SearchCursorCache searchCursorCache;
+
+    void issueChanged(@Issue GHEventPayload.Issue payload) {
+        recordChange(payload.getRepository().getFullName(), payload.getIssue().getNumber());
+    }
+
+    void issueCommentChanged(@IssueComment GHEventPayload.IssueComment payload) {
+        recordChange(payload.getRepository().getFullName(), payload.getIssue().getNumber());
+    }
+
+    void pullRequestChanged(@PullRequest GHEventPayload.PullRequest payload) {
+        recordChange(payload.getRepository().getFullName(), payload.getNumber());
+    }
+
+    void labelChanged(@Label.Edited @Label.Deleted GHEventPayload.Label payload) {
+        if (!deploymentConfig.incrementalSearch().webhooks()) {
+            return;
+        }
+        String repositoryName = payload.getRepository().getFullName();
+        // Renaming or deleting a label affects many issues, without necessarily notifying us about each of them.
+        Log.debugf("Label %s changed on %s; invalidating search cursors", payload.getLabel().getName(), repositoryName);
+        searchCursorCache.invalidateRepository(repositoryName);
+    }
+
+    private void recordChange(String repositoryName, int issueNumber) {
+        if (!deploymentConfig.incrementalSearch().webhooks()) {
+            return;
+        }
+        Log.tracef("Issue %s#%s changed", repositoryName, issueNumber);
+        searchCursorCache.recordChange(repositoryName, issueNumber, clock.instant());
+    }
+
+}
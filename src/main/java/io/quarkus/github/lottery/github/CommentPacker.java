@@ -0,0 +1,113 @@
+package io.quarkus.github.lottery.github;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.logging.Log;
+
+/**
+ * Packs dedicated issues in the background, i.e. deletes their old comments
+ * to avoid hitting GitHub's limit of comments per issue.
+ * <p>
+ * Packing of a given issue always deletes the oldest comments until the expected number of comments is left,
+ * based on the comments the issue has when packing starts.
+ * Thus, packing that gets interrupted can simply be started again:
+ * it will resume where it stopped.
+ * Issues whose packing did not complete are remembered (in memory),
+ * so that packing gets started again on the next update of the issue.
+ *
+ * @see DeploymentConfig.CommentPacking
+ */
+@ApplicationScoped
+public class CommentPacker {
+
+    @Inject
+    GitHubService gitHubService;
+
+    private ExecutorService executor;
+    private final Set<Key> unfinished = ConcurrentHashMap.newKeySet();
+    private final Map<Key, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("comment-packing-", 0).factory());
+    }
+
+    @PreDestroy
+    void destroy() {
+        // Packing is idempotent, so interrupting it is fine.
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param repositoryRef A repository.
+     * @param issueNumber The number of a dedicated issue in that repository.
+     * @return Whether packing of the given issue was started previously and did not complete.
+     */
+    boolean isUnfinished(GitHubRepositoryRef repositoryRef, int issueNumber) {
+        return unfinished.contains(new Key(repositoryRef, issueNumber));
+    }
+
+    /**
+     * Starts packing an issue in the background, unless it is already being packed.
+     *
+     * @param repositoryRef A repository.
+     * @param issueNumber The number of a dedicated issue in that repository.
+     * @param retainedComments The number of most recent comments to retain.
+     */
+    void schedule(GitHubRepositoryRef repositoryRef, int issueNumber, int retainedComments) {
+        Key key = new Key(repositoryRef, issueNumber);
+        unfinished.add(key);
+        running.computeIfAbsent(key, ignored -> CompletableFuture.runAsync(() -> {
+            try {
+                pack(key, retainedComments);
+            } finally {
+                running.remove(key);
+            }
+        }, executor));
+    }
+
+    private void pack(Key key, int retainedComments) {
+        try (GitHubRepository repository = gitHubService.repository(key.repositoryRef())) {
+            repository.packComments(key.issueNumber(), retainedComments);
+            unfinished.remove(key);
+        } catch (Exception e) {
+            Log.errorf(e, "Failed to pack comments for issue %s#%s; will resume on next update",
+                    key.repositoryRef().repositoryName(), key.issueNumber());
+        }
+    }
+
+    /**
+     * Waits for packing currently running in the background to complete.
+     *
+     * @param timeout How long to wait, at a maximum.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws TimeoutException If packing did not complete in time.
+     */
+    public void awaitIdle(Duration timeout) throws InterruptedException, TimeoutException {
+        try {
+            CompletableFuture.allOf(running.values().toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Failures are logged in pack(), and never propagated.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Key(GitHubRepositoryRef repositoryRef, int issueNumber) {
+    }
+}
@@ -0,0 +1,260 @@
+package io.quarkus.github.lottery.github;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.logging.Log;
+
+/**
+ * A local, size-bounded cache of responses to reads from the GitHub REST API, along with their ETag,
+ * so that reads can be sent as conditional requests.
+ * <p>
+ * Each response is stored in its own file. An in-memory index of files, ordered by last access,
+ * allows evicting least recently used responses when the total size exceeds the configured maximum.
+ * <p>
+ * Corrupted files (e.g. truncated by a crash while writing) are simply considered missing.
+ *
+ * @see ConditionalRequestConnector
+ * @see DeploymentConfig.HttpCache
+ */
+@ApplicationScoped
+public class ConditionalRequestCache {
+
+    // Bump when changing the file format; files with a different version are considered missing.
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".response";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    @Inject
+    DeploymentConfig deploymentConfig;
+
+    private Path directory;
+    private long maxSize;
+    // Access-ordered, for LRU eviction.
+    private final LinkedHashMap<String, Long> sizeByFileName = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    // Guards the index only: files are written to a temporary file then moved, so reads don't need the lock.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ConditionalRequestCache() {
+    }
+
+    ConditionalRequestCache(Path directory, long maxSize) throws IOException {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        loadIndex();
+    }
+
+    @PostConstruct
+    void init() {
+        directory = deploymentConfig.httpCache().directory().orElse(null);
+        maxSize = deploymentConfig.httpCache().maxSize();
+        if (directory == null) {
+            return;
+        }
+        try {
+            loadIndex();
+        } catch (IOException | RuntimeException e) {
+            Log.errorf(e, "Could not load the cache of GitHub responses from %s; disabling the cache", directory);
+            directory = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * @param key A key identifying a request.
+     * @return The cached response to that request, or {@code null} if there is none.
+     * @throws IOException If reading the cached response fails.
+     */
+    CachedResponse get(String key) throws IOException {
+        String fileName = fileName(key);
+        lock.lock();
+        try {
+            // Also marks the file as recently used.
+            if (sizeByFileName.get(fileName) == null) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Path file = directory.resolve(fileName);
+        CachedResponse response = read(file, key);
+        if (response != null) {
+            // So that the order of last access can be restored on restart.
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        return response;
+    }
+
+    /**
+     * @param key A key identifying a request.
+     * @param response The response to that request.
+     * @throws IOException If writing the response fails.
+     */
+    void put(String key, CachedResponse response) throws IOException {
+        String fileName = fileName(key);
+        Path file = directory.resolve(fileName);
+        // Write to a temporary file then move, so that the file is never partially written.
+        Path tempFile = Files.createTempFile(directory, fileName, TEMP_FILE_EXTENSION);
+        long size;
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                write(out, key, response);
+            }
+            size = Files.size(tempFile);
+            if (size > maxSize) {
+                return;
+            }
+            lock.lock();
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Long previousSize = sizeByFileName.put(fileName, size);
+                totalSize += size - (previousSize == null ? 0L : previousSize);
+                evictIfNecessary();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = new ArrayList<>(stream.toList());
+        }
+        for (Iterator<Path> iterator = files.iterator(); iterator.hasNext();) {
+            String fileName = iterator.next().getFileName().toString();
+            if (fileName.endsWith(FILE_EXTENSION)) {
+                continue;
+            }
+            if (fileName.contains(FILE_EXTENSION) && fileName.endsWith(TEMP_FILE_EXTENSION)) {
+                // Leftover temporary file, e.g. after a crash.
+                Files.deleteIfExists(directory.resolve(fileName));
+            }
+            iterator.remove();
+        }
+        Map<Path, FileTime> lastModifiedTimes = new LinkedHashMap<>();
+        for (Path file : files) {
+            lastModifiedTimes.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(lastModifiedTimes::get));
+        lock.lock();
+        try {
+            for (Path file : files) {
+                long size = Files.size(file);
+                sizeByFileName.put(file.getFileName().toString(), size);
+                totalSize += size;
+            }
+            evictIfNecessary();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must be called while holding the lock.
+    private void evictIfNecessary() throws IOException {
+        Iterator<Map.Entry<String, Long>> iterator = sizeByFileName.entrySet().iterator();
+        while (totalSize > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            Files.deleteIfExists(directory.resolve(eldest.getKey()));
+            totalSize -= eldest.getValue();
+            iterator.remove();
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash) + FILE_EXTENSION;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CachedResponse read(Path file, String key) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                // Unsupported format, or (unlikely) hash collision.
+                return null;
+            }
+            String etag = in.readUTF();
+            int headerCount = in.readInt();
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readInt();
+                List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(in.readUTF());
+                }
+                headers.put(name, values);
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new CachedResponse(etag, headers, body);
+        } catch (NoSuchFileException e) {
+            // Evicted concurrently.
+            return null;
+        } catch (EOFException e) {
+            Log.warnf("Ignoring cached GitHub response %s: truncated", file);
+            return null;
+        }
+    }
+
+    private static void write(DataOutputStream out, String key, CachedResponse response) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(key);
+        out.writeUTF(response.etag());
+        out.writeInt(response.headers().size());
+        for (var header : response.headers().entrySet()) {
+            out.writeUTF(header.getKey());
+            out.writeInt(header.getValue().size());
+            for (String value : header.getValue()) {
+                out.writeUTF(value);
+            }
+        }
+        out.writeInt(response.body().length);
+        out.write(response.body());
+    }
+
+    /**
+     * @param etag The ETag of the response.
+     * @param headers The headers of the response.
+     * @param body The (uncompressed) body of the response.
+     */
+    record CachedResponse(String etag, Map<String, List<String>> headers, byte[] body) {
+    }
+}
@@ -0,0 +1,171 @@
+package io.quarkus.github.lottery.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import io.quarkus.logging.Log;
+
+/**
+ * A {@link GitHubConnector} that sends reads as conditional requests ({@code If-None-Match}),
+ * relying on a {@link ConditionalRequestCache} to store the ETag and content of previous responses.
+ * <p>
+ * When GitHub reports that content didn't change (HTTP 304), which doesn't count against the primary rate limit,
+ * the cached content is returned as if GitHub had returned it,
+ * along with the headers of the fresh response (rate limits in particular).
+ * <p>
+ * Each connector serves a single installation, and cached responses are only ever replayed to that installation,
+ * since the same URL may return different content to different installations.
+ * Responses are not keyed by access token, since installation tokens expire every hour.
+ * Search results are never cached, as they are rarely requested twice with the same cursor.
+ */
+final class ConditionalRequestConnector implements GitHubConnector {
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final int OK = 200;
+    private static final int NOT_MODIFIED = 304;
+    private static final String SEARCH_PATH_PREFIX = "/search/";
+    // The cached body is stored uncompressed, so these headers don't apply to it.
+    private static final Set<String> EXCLUDED_HEADERS = Set.of("content-encoding", "content-length");
+
+    private final GitHubConnector delegate;
+    private final ConditionalRequestCache cache;
+    private final long installationId;
+
+    ConditionalRequestConnector(GitHubConnector delegate, ConditionalRequestCache cache, long installationId) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.installationId = installationId;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        if (!"GET".equals(request.method()) || request.hasBody() || request.header(IF_NONE_MATCH) != null
+                || request.url().getPath().startsWith(SEARCH_PATH_PREFIX)) {
+            return delegate.send(request);
+        }
+        // Responses may depend on the requested media type, e.g. raw content vs. JSON,
+        // and on who is asking, e.g. private repositories.
+        String key = installationId + "\n" + request.url() + "\n" + request.header("Accept");
+
+        ConditionalRequestCache.CachedResponse cached = null;
+        try {
+            cached = cache.get(key);
+        } catch (IOException | RuntimeException e) {
+            Log.warnf(e, "Could not read cached GitHub response for %s; ignoring", request.url());
+        }
+
+        if (cached == null) {
+            return cacheIfPossible(request, key, delegate.send(request));
+        }
+
+        GitHubConnectorResponse response = delegate.send(new ConditionalRequest(request, cached.etag()));
+        if (response.statusCode() != NOT_MODIFIED) {
+            return cacheIfPossible(request, key, response);
+        }
+        Log.tracef("GitHub response for %s not modified; using cached response", request.url());
+        Map<String, List<String>> headers = copyHeaders(cached.headers());
+        headers.putAll(copyHeaders(response.allHeaders()));
+        response.close();
+        return new BufferedResponse(request, OK, headers, cached.body());
+    }
+
+    private GitHubConnectorResponse cacheIfPossible(GitHubConnectorRequest request, String key,
+            GitHubConnectorResponse response) throws IOException {
+        String etag = response.header("ETag");
+        if (response.statusCode() != OK || etag == null) {
+            return response;
+        }
+        byte[] body;
+        try (response) {
+            body = response.bodyStream().readAllBytes();
+        }
+        Map<String, List<String>> headers = copyHeaders(response.allHeaders());
+        try {
+            cache.put(key, new ConditionalRequestCache.CachedResponse(etag, headers, body));
+        } catch (IOException | RuntimeException e) {
+            Log.warnf(e, "Could not cache GitHub response for %s; ignoring", request.url());
+        }
+        return new BufferedResponse(request, OK, headers, body);
+    }
+
+    private static Map<String, List<String>> copyHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (var header : headers.entrySet()) {
+            if (header.getKey() == null || EXCLUDED_HEADERS.contains(header.getKey().toLowerCase())) {
+                continue;
+            }
+            copy.put(header.getKey(), List.copyOf(header.getValue()));
+        }
+        return copy;
+    }
+
+    private record ConditionalRequest(GitHubConnectorRequest delegate, String etag) implements GitHubConnectorRequest {
+        @Override
+        public String method() {
+            return delegate.method();
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(delegate.allHeaders());
+            headers.put(IF_NONE_MATCH, List.of(etag));
+            return headers;
+        }
+
+        @Override
+        public String header(String name) {
+            return IF_NONE_MATCH.equalsIgnoreCase(name) ? etag : delegate.header(name);
+        }
+
+        @Override
+        public String contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public InputStream body() {
+            return delegate.body();
+        }
+
+        @Override
+        public URL url() {
+            return delegate.url();
+        }
+
+        @Override
+        public boolean hasBody() {
+            return delegate.hasBody();
+        }
+    }
+
+    private static final class BufferedResponse extends GitHubConnectorResponse {
+        private final byte[] body;
+
+        BufferedResponse(GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers,
+                byte[] body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        @Override
+        protected InputStream rawBodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            // Nothing to do.
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.quarkus.github.lottery.github;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import io.quarkiverse.githubapp.GitHubClientProvider;
+import io.quarkiverse.githubapp.GitHubCustomizer;
+
+/**
+ * Customizes GitHub clients created by {@link io.quarkiverse.githubapp.GitHubClientProvider},
+ * to send reads as conditional requests when the {@link ConditionalRequestCache} is enabled.
+ * <p>
+ * Only installation clients retrieved through {@link #installationClient(GitHubClientProvider, long)} are customized,
+ * because cached responses must be keyed by installation, and the installation isn't otherwise known here.
+ */
+@Singleton
+public class GitHubClientCustomizer implements GitHubCustomizer {
+
+    // Set while retrieving an installation client, so that a client created in the process knows its installation.
+    private static final ThreadLocal<Long> CURRENT_INSTALLATION_ID = new ThreadLocal<>();
+
+    @Inject
+    ConditionalRequestCache conditionalRequestCache;
+
+    /**
+     * @param clientProvider The client provider.
+     * @param installationId The ID of a GitHub App installation.
+     * @return A client for that installation, sending reads as conditional requests if enabled.
+     */
+    static GitHub installationClient(GitHubClientProvider clientProvider, long installationId) {
+        // The application client creates installation tokens:
+        // make sure it exists beforehand, so that it doesn't get mistaken for an installation client.
+        clientProvider.getApplicationClient();
+        CURRENT_INSTALLATION_ID.set(installationId);
+        try {
+            return clientProvider.getInstallationClient(installationId);
+        } finally {
+            CURRENT_INSTALLATION_ID.remove();
+        }
+    }
+
+    @Override
+    public void customize(GitHubBuilder builder) {
+        Long installationId = CURRENT_INSTALLATION_ID.get();
+        if (conditionalRequestCache.isEnabled() && installationId != null) {
+            builder.withConnector(new ConditionalRequestConnector(GitHubConnector.DEFAULT, conditionalRequestCache,
+                    installationId));
+        }
+    }
+
+}
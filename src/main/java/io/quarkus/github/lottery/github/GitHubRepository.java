@@ -1,57 +1,80 @@
 package io.quarkus.github.lottery.github;
 
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.anyLabel;
+import static io.quarkus.github.lottery.github.GitHubSearchClauses.anyLabelBatches;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.assignee;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.author;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.commenter;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.created;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.isIssue;
+import static io.quarkus.github.lottery.github.GitHubSearchClauses.isOpen;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.label;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.noLinkedPr;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.not;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.repo;
 import static io.quarkus.github.lottery.github.GitHubSearchClauses.updated;
 import static io.quarkus.github.lottery.util.GitHubApiLimits.executeWithRetry;
-import static io.quarkus.github.lottery.util.GitHubApiLimits.sleepForMutationThrottling;
 import static io.quarkus.github.lottery.util.UncheckedIOFunction.uncheckedIO;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.sql.Date;
 import java.time.Clock;
-import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+import org.kohsuke.github.GHContent;
 import org.kohsuke.github.GHDirection;
+import org.kohsuke.github.GHFileNotFoundException;
 import org.kohsuke.github.GHIssue;
 import org.kohsuke.github.GHIssueComment;
 import org.kohsuke.github.GHIssueCommentQueryBuilder;
 import org.kohsuke.github.GHIssueEvent;
 import org.kohsuke.github.GHIssueSearchBuilder;
 import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GitHub;
 import org.kohsuke.github.PagedIterable;
+import org.kohsuke.github.PagedSearchIterable;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import io.quarkiverse.githubapp.ConfigFile;
 import io.quarkiverse.githubapp.GitHubClientProvider;
-import io.quarkiverse.githubapp.GitHubConfigFileProvider;
 import io.quarkus.github.lottery.config.DeploymentConfig;
 import io.quarkus.github.lottery.config.LotteryConfig;
 import io.quarkus.github.lottery.message.MessageFormatter;
 import io.quarkus.github.lottery.util.GitHubConstants;
+import io.quarkus.github.lottery.util.GitHubRateLimiter;
 import io.quarkus.github.lottery.util.Streams;
 import io.quarkus.logging.Log;
+import io.smallrye.graphql.client.Response;
 import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClient;
 
 /**
@@ -59,35 +82,55 @@ import io.smallrye.graphql.client.dynamic.api.DynamicGraphQLClient;
  */
 public class GitHubRepository implements AutoCloseable {
 
+    // Per GitHub API limits.
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Per GitHub API limits: a search never returns more results than this, regardless of pagination.
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
     private final DeploymentConfig deploymentConfig;
     private final Clock clock;
     private final GitHubClientProvider clientProvider;
-    private final GitHubConfigFileProvider configFileProvider;
+    private final ObjectMapper yamlObjectMapper;
     private final MessageFormatter messageFormatter;
     private final GitHubRepositoryRef ref;
-    private final LoadingCache<String, IssueActionSide> noContextIssueActionSideCache;
+    private final GitHubRateLimiter rateLimiter;
+    private final PermissionCache permissionCache;
+    private final SearchCursorCache searchCursorCache;
+    private final LastCommentCache lastCommentCache;
+    private final CommentPacker commentPacker;
+    private final LotteryConfigCache lotteryConfigCache;
 
     private GitHub client;
     private GHRepository repository;
     private DynamicGraphQLClient graphQLClient;
+    private List<GHIssue> appIssues;
+    private boolean tooManyAppIssues;
+    private final List<String> pendingMinimizationNodeIds = new ArrayList<>();
+    private final Map<Integer, Integer> pendingPackingRetainedCommentsByIssueNumber = new LinkedHashMap<>();
 
     public GitHubRepository(DeploymentConfig deploymentConfig, Clock clock,
-            GitHubClientProvider clientProvider, GitHubConfigFileProvider configFileProvider,
-            MessageFormatter messageFormatter, GitHubRepositoryRef ref) {
+            GitHubClientProvider clientProvider, ObjectMapper yamlObjectMapper,
+            MessageFormatter messageFormatter, GitHubRepositoryRef ref, GitHubRateLimiter rateLimiter,
+            PermissionCache permissionCache, SearchCursorCache searchCursorCache, LastCommentCache lastCommentCache,
+            CommentPacker commentPacker, LotteryConfigCache lotteryConfigCache) {
         this.deploymentConfig = deploymentConfig;
         this.clock = clock;
         this.clientProvider = clientProvider;
-        this.configFileProvider = configFileProvider;
+        this.yamlObjectMapper = yamlObjectMapper;
         this.messageFormatter = messageFormatter;
         this.ref = ref;
-        this.noContextIssueActionSideCache = Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(Duration.ofMinutes(1))
-                .build(this::computeNoContextIssueActionSide);
+        this.rateLimiter = rateLimiter;
+        this.permissionCache = permissionCache;
+        this.searchCursorCache = searchCursorCache;
+        this.lastCommentCache = lastCommentCache;
+        this.commentPacker = commentPacker;
+        this.lotteryConfigCache = lotteryConfigCache;
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        minimizePendingComments();
+        schedulePendingPacking();
         if (graphQLClient != null) {
             try {
                 graphQLClient.close();
@@ -105,15 +148,23 @@ public class GitHubRepository implements AutoCloseable {
         return ref.installationRef().appLogin();
     }
 
-    private GitHub client() {
+    // Synchronized because the same repository may be used from multiple threads, e.g. to prefetch issues.
+    private synchronized GitHub client() {
         if (client == null) {
-            client = clientProvider.getInstallationClient(ref.installationRef().installationId());
+            client = GitHubClientCustomizer.installationClient(clientProvider, ref.installationRef().installationId());
         }
         return client;
     }
 
-    private GHRepository repository() throws IOException {
+    // The client is passed along so that the rate limiter relies on the rate limits observed by that client,
+    // as opposed to another client for the same installation.
+    private void acquire(GitHubRateLimiter.Resource resource) {
+        rateLimiter.acquire(resource, client());
+    }
+
+    private synchronized GHRepository repository() throws IOException {
         if (repository == null) {
+            acquire(GitHubRateLimiter.Resource.READ);
             repository = client().getRepository(ref.repositoryName());
         }
         return repository;
@@ -130,16 +181,53 @@ public class GitHubRepository implements AutoCloseable {
                 .q(repo(ref));
     }
 
-    private DynamicGraphQLClient graphQLClient() {
+    private synchronized DynamicGraphQLClient graphQLClient() {
         if (graphQLClient == null) {
             graphQLClient = clientProvider.getInstallationGraphQLClient(ref.installationRef().installationId());
         }
         return graphQLClient;
     }
 
+    /**
+     * Retrieves the lottery configuration of this repository.
+     * <p>
+     * Unlike {@link io.quarkiverse.githubapp.GitHubConfigFileProvider}, this parses the file content directly,
+     * so that the file is retrieved only once, and only parsed when its blob changed.
+     * As a consequence, the file is always read from the default branch of this repository,
+     * even for forks when {@code quarkus.github-app.read-config-files-from-source-repository} is enabled.
+     *
+     * @return The lottery configuration, or an empty optional if this repository doesn't have one.
+     * @throws IOException In case of I/O failure.
+     */
     public Optional<LotteryConfig> fetchLotteryConfig() throws IOException {
-        return configFileProvider.fetchConfigFile(repository(), LotteryConfig.FILE_NAME, ConfigFile.Source.DEFAULT,
-                LotteryConfig.class);
+        GHRepository repository = repository();
+        acquire(GitHubRateLimiter.Resource.READ);
+        GHContent content;
+        try {
+            // Cheap compared to parsing, in particular when the response is cached (see ConditionalRequestCache):
+            // we only parse the content when the blob changed.
+            content = repository.getFileContent(LotteryConfig.FILE_PATH);
+        } catch (GHFileNotFoundException e) {
+            return Optional.empty();
+        }
+        if (content == null) {
+            return Optional.empty();
+        }
+        String blobSha = content.getSha();
+        if (blobSha != null) {
+            LotteryConfig cached = lotteryConfigCache.get(ref.repositoryName(), blobSha);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        LotteryConfig config;
+        try (var stream = content.read()) {
+            config = yamlObjectMapper.readValue(stream, LotteryConfig.class);
+        }
+        if (blobSha != null && config != null) {
+            lotteryConfigCache.put(ref.repositoryName(), blobSha, config);
+        }
+        return Optional.ofNullable(config);
     }
 
     /**
@@ -151,15 +239,11 @@ public class GitHubRepository implements AutoCloseable {
      * @throws java.io.UncheckedIOException In case of I/O failure.
      */
     public Stream<Issue> issuesOrPullRequestsLastUpdatedBefore(Set<String> ignoreLabels, Instant updatedBefore) {
-        var builder = searchIssuesOrPullRequests()
-                .isOpen()
-                .q(updated(null, updatedBefore))
-                .sort(GHIssueSearchBuilder.Sort.UPDATED)
-                .order(GHDirection.DESC);
+        List<String> clauses = new ArrayList<>();
         if (!ignoreLabels.isEmpty()) {
-            builder.q(not(anyLabel(ignoreLabels)));
+            clauses.add(not(anyLabel(ignoreLabels)));
         }
-        return toStreamWithPageSize(builder.list()).map(toIssueRecord());
+        return openIssuesOrPullRequestsLastUpdatedBefore(clauses, updatedBefore);
     }
 
     /**
@@ -173,16 +257,158 @@ public class GitHubRepository implements AutoCloseable {
      */
     public Stream<Issue> issuesOrPullRequestsWithLabelLastUpdatedBefore(String label, Set<String> ignoreLabels,
             Instant updatedBefore) {
+        List<String> clauses = new ArrayList<>();
+        clauses.add(label(label));
+        if (!ignoreLabels.isEmpty()) {
+            clauses.add(not(anyLabel(ignoreLabels)));
+        }
+        return openIssuesOrPullRequestsLastUpdatedBefore(clauses, updatedBefore);
+    }
+
+    /**
+     * Lists issues or pull requests with any of the given labels that were last updated before the given instant,
+     * for each of the given labels.
+     * <p>
+     * Searches for multiple labels are merged, and results are split in memory.
+     * Unlike {@link #issuesOrPullRequestsWithLabelLastUpdatedBefore(String, Set, Instant)},
+     * this never relies on incremental search.
+     *
+     * @param labels GitHub labels; returned issues are grouped by label.
+     * @param ignoreLabels GitHub labels. Issues assigned with any of these labels are ignored (not returned).
+     * @param updatedBefore An instant; all returned issues must have been last updated before that instant.
+     * @return Matching issues for each label, as streams to be consumed at most once.
+     * @throws java.io.UncheckedIOException In case of I/O failure.
+     */
+    public Map<String, Stream<Issue>> issuesOrPullRequestsWithLabelLastUpdatedBefore(Set<String> labels,
+            Set<String> ignoreLabels, Instant updatedBefore) {
+        List<String> clauses = new ArrayList<>();
+        clauses.add(repo(ref));
+        clauses.add(isOpen());
+        clauses.add(updated(null, updatedBefore));
+        if (!ignoreLabels.isEmpty()) {
+            clauses.add(not(anyLabel(ignoreLabels)));
+        }
+        return searchByLabel(labels, clauses, GHIssueSearchBuilder.Sort.UPDATED, GHDirection.DESC,
+                Function.identity(), Function.identity(), (ghIssue, label) -> true);
+    }
+
+    /**
+     * Retrieves a pool of open issues or pull requests that were last updated before the given instant,
+     * to be filtered in memory instead of searching separately for overlapping sets of issues.
+     *
+     * @param ignoreLabels GitHub labels. Issues assigned with any of these labels are ignored (not included in the pool).
+     * @param updatedBefore An instant; all issues in the pool must have been last updated before that instant.
+     * @return The pool of matching issues,
+     *         or an empty optional if there are too many such issues for a single search to return them all,
+     *         in which case each bucket must search for its own issues.
+     * @throws java.io.UncheckedIOException In case of I/O failure.
+     */
+    public Optional<IssuePool> issuePoolLastUpdatedBefore(Set<String> ignoreLabels, Instant updatedBefore) {
         var builder = searchIssuesOrPullRequests()
                 .isOpen()
-                .q(label(label))
                 .q(updated(null, updatedBefore))
                 .sort(GHIssueSearchBuilder.Sort.UPDATED)
                 .order(GHDirection.DESC);
         if (!ignoreLabels.isEmpty()) {
             builder.q(not(anyLabel(ignoreLabels)));
         }
-        return toStreamWithPageSize(builder.list()).map(toIssueRecord());
+        var results = searchUnlessTruncated(builder.list().withPageSize(deploymentConfig.pageSize()));
+        if (results.isEmpty()) {
+            Log.infof("Too many issues last updated before %s in %s to pool them; searching for each bucket instead",
+                    updatedBefore, ref);
+            return Optional.empty();
+        }
+        var candidates = results.get()
+                .map(uncheckedIO((GHIssue ghIssue) -> new IssuePool.Candidate(toIssueRecord().apply(ghIssue),
+                        ghIssue.getLabels().stream().map(GHLabel::getName).collect(Collectors.toSet()),
+                        ghIssue.getUpdatedAt().toInstant())))
+                .toList();
+        Log.debugf("Issue pool for %s: %s issues last updated before %s", ref, candidates.size(), updatedBefore);
+        return Optional.of(new IssuePool(updatedBefore, candidates));
+    }
+
+    private Stream<Issue> openIssuesOrPullRequestsLastUpdatedBefore(List<String> clauses, Instant updatedBefore) {
+        var config = deploymentConfig.incrementalSearch();
+        if (!config.enabled()) {
+            return searchOpenIssuesOrPullRequests(clauses, null, updatedBefore);
+        }
+        // Results are cached across draws, and updated incrementally:
+        // as the cutoff moves forward, we only need to search for issues that changed since the previous draw.
+        var now = clock.instant();
+        var cursor = searchCursorCache.get(ref.repositoryName(), clauses);
+        Optional<SearchCursor> newCursor = Optional.empty();
+        if (cursor != null && cursor.canAdvanceTo(updatedBefore, now.minus(config.fullSearchInterval()))) {
+            newCursor = advanceSearchCursor(cursor, clauses, updatedBefore, now);
+        }
+        if (newCursor.isEmpty()) {
+            newCursor = searchOpenIssuesOrPullRequestsUnlessTruncated(clauses, null, updatedBefore)
+                    .map(issues -> SearchCursor.create(updatedBefore, now, issues.toList()));
+        }
+        if (newCursor.isEmpty()) {
+            // Results would be incomplete, and so would any later incremental update.
+            Log.infof("Too many issues matching %s in %s to search incrementally; searching from scratch",
+                    clauses, ref);
+            searchCursorCache.invalidate(ref.repositoryName(), clauses);
+            return searchOpenIssuesOrPullRequests(clauses, null, updatedBefore);
+        }
+        searchCursorCache.put(ref.repositoryName(), clauses, newCursor.get());
+        return newCursor.get().issues().stream();
+    }
+
+    private Optional<SearchCursor> advanceSearchCursor(SearchCursor cursor, List<String> clauses,
+            Instant updatedBefore, Instant now) {
+        // This includes issues that were closed or no longer match the clauses.
+        Set<Integer> changedIssueNumbers;
+        if (deploymentConfig.incrementalSearch().webhooks()) {
+            changedIssueNumbers = searchCursorCache.changedIssueNumbers(ref.repositoryName(), cursor.changedSince());
+        } else {
+            var changedIssues = searchUnlessTruncated(searchIssuesOrPullRequests()
+                    .q(updated(cursor.changedSince(), null))
+                    .list()
+                    .withPageSize(deploymentConfig.pageSize()));
+            if (changedIssues.isEmpty()) {
+                Log.infof("Too many issues changed since %s in %s to search incrementally", cursor.changedSince(), ref);
+                return Optional.empty();
+            }
+            changedIssueNumbers = changedIssues.get()
+                    .map(GHIssue::getNumber)
+                    .collect(Collectors.toSet());
+        }
+        var addedIssues = searchOpenIssuesOrPullRequestsUnlessTruncated(clauses, cursor.addedSince(), updatedBefore);
+        if (addedIssues.isEmpty()) {
+            Log.infof("Too many issues matching %s last updated since %s in %s to search incrementally", clauses,
+                    cursor.addedSince(), ref);
+            return Optional.empty();
+        }
+        List<Issue> addedIssueList = addedIssues.get().toList();
+        Log.debugf("Incremental search for %s %s: %s changed issues, %s added issues", ref, clauses,
+                changedIssueNumbers.size(), addedIssueList.size());
+        return Optional.of(cursor.advance(updatedBefore, now, changedIssueNumbers, addedIssueList));
+    }
+
+    private Stream<Issue> searchOpenIssuesOrPullRequests(List<String> clauses, Instant updatedMin, Instant updatedMax) {
+        return toStreamWithPageSize(searchOpenIssuesOrPullRequestsBuilder(clauses, updatedMin, updatedMax).list())
+                .map(toIssueRecord());
+    }
+
+    private Optional<Stream<Issue>> searchOpenIssuesOrPullRequestsUnlessTruncated(List<String> clauses,
+            Instant updatedMin, Instant updatedMax) {
+        return searchUnlessTruncated(searchOpenIssuesOrPullRequestsBuilder(clauses, updatedMin, updatedMax).list()
+                .withPageSize(deploymentConfig.pageSize()))
+                .map(issues -> issues.map(toIssueRecord()));
+    }
+
+    private GHIssueSearchBuilder searchOpenIssuesOrPullRequestsBuilder(List<String> clauses, Instant updatedMin,
+            Instant updatedMax) {
+        var builder = searchIssuesOrPullRequests()
+                .isOpen()
+                .q(updated(updatedMin, updatedMax))
+                .sort(GHIssueSearchBuilder.Sort.UPDATED)
+                .order(GHDirection.DESC);
+        for (String clause : clauses) {
+            builder.q(clause);
+        }
+        return builder;
     }
 
     /**
@@ -199,19 +425,61 @@ public class GitHubRepository implements AutoCloseable {
      */
     public Stream<Issue> issuesLastActedOnByAndLastUpdatedBefore(Set<String> initialActionLabels, String filterLabel,
             IssueActionSide lastActionSide, Instant updatedBefore) {
-        return toStreamWithPageSize(searchIssuesOnly()
+        var candidates = toStreamWithPageSize(searchIssuesOnly()
                 .isOpen()
                 .q(anyLabel(initialActionLabels))
                 .q(label(filterLabel))
                 .q(updated(null, updatedBefore))
                 .sort(GHIssueSearchBuilder.Sort.UPDATED)
                 .order(GHDirection.DESC)
-                .list())
-                .filter(uncheckedIO((GHIssue ghIssue) -> lastActionSide
-                        .equals(lastActionSide(ghIssue, initialActionLabels)))::apply)
+                .list());
+        return filterLastActedOnBy(candidates, initialActionLabels, lastActionSide)
                 .map(toIssueRecord());
     }
 
+    /**
+     * Lists issues with the given labels that were last acted on (label applied or comment)
+     * by the given "side" (team or outsider) and were last updated before the given instant,
+     * for each of the given filter labels.
+     * <p>
+     * Searches for multiple filter labels are merged, and results are split in memory.
+     *
+     * @param initialActionLabels A set of GitHub labels; all returned issues must have been assigned one of these labels.
+     *        The last time this label was assigned is considered the first "action" on an issue.
+     * @param filterLabels Secondary GitHub labels; returned issues are grouped by filter label.
+     *        These labels are not relevant to determining the last action.
+     * @param updatedBefore An instant; all returned issues must have been last updated before that instant.
+     * @return Matching issues for each filter label, as streams to be consumed at most once.
+     * @throws java.io.UncheckedIOException In case of I/O failure.
+     * @see #issuesLastActedOnByAndLastUpdatedBefore(Set, String, IssueActionSide, Instant)
+     */
+    public Map<String, Stream<Issue>> issuesLastActedOnByAndLastUpdatedBefore(Set<String> initialActionLabels,
+            Set<String> filterLabels, IssueActionSide lastActionSide, Instant updatedBefore) {
+        List<String> clauses = List.of(repo(ref), isIssue(), isOpen(), anyLabel(initialActionLabels),
+                updated(null, updatedBefore));
+        return searchByLabel(filterLabels, clauses, GHIssueSearchBuilder.Sort.UPDATED, GHDirection.DESC,
+                candidates -> filterLastActedOnBy(candidates, initialActionLabels, lastActionSide),
+                Function.identity(), (ghIssue, label) -> true);
+    }
+
+    private Stream<GHIssue> filterLastActedOnBy(Stream<GHIssue> candidates, Set<String> initialActionLabels,
+            IssueActionSide lastActionSide) {
+        // Optimization: retrieve the information we need about a whole page of issues in a single GraphQL query,
+        // instead of performing multiple REST calls per issue.
+        return Streams.batch(candidates, deploymentConfig.pageSize())
+                .flatMap(uncheckedIO((List<GHIssue> batch) -> {
+                    var lastCommenters = lastNonBotCommentersSinceInitialAction(batch, initialActionLabels);
+                    return batch.stream()
+                            .filter(uncheckedIO((GHIssue ghIssue) -> {
+                                Optional<String> lastCommenter = lastCommenters.containsKey(ghIssue.getNodeId())
+                                        ? lastCommenters.get(ghIssue.getNodeId())
+                                        // Couldn't be determined from the GraphQL query, e.g. too many comments.
+                                        : lastNonBotCommenterSinceInitialAction(ghIssue, initialActionLabels);
+                                return lastActionSide.equals(lastActionSide(ghIssue, lastCommenter));
+                            })::apply);
+                })::apply);
+    }
+
     /**
      * Lists issues or pull requests with the given labels that were never acted on (commented)
      * by the team and were last updated before the given instant.
@@ -240,37 +508,377 @@ public class GitHubRepository implements AutoCloseable {
         for (String username : ignoreUsers) {
             builder.q(not(commenter(username)));
         }
-        return toStreamWithPageSize(builder.list())
+        var candidates = toStreamWithPageSize(builder.list())
                 // We don't want to consider (non-PR) issues created by people in ignoreCommentedBy,
                 // because we assume the author of such issues will initiate discussion themselves.
-                .filter(uncheckedIO((GHIssue i) -> i.isPullRequest() || !ignoreUsers.contains(i.getUser().getLogin()))::apply)
-                // Note: "ignoreCommentedBy" cannot be assumed to be the full list of maintainers,
-                // so we use "ignoreCommentedBy" for optimization
-                // (to skip issues that we know for sure aren't relevant),
-                // but we still need to have a closer look at issues afterward
-                // (to skip issues commented on by team members which are not in "ignoreCommentedBy").
-                .filter(this::hasNoTeamAction)
+                .filter(uncheckedIO((GHIssue i) -> i.isPullRequest() || !ignoreUsers.contains(i.getUser().getLogin()))::apply);
+        // Note: "ignoreCommentedBy" cannot be assumed to be the full list of maintainers,
+        // so we use "ignoreCommentedBy" for optimization
+        // (to skip issues that we know for sure aren't relevant),
+        // but we still need to have a closer look at issues afterward
+        // (to skip issues commented on by team members which are not in "ignoreCommentedBy").
+        // Optimization: retrieve commenters of a whole page of issues in a single GraphQL query,
+        // instead of listing comments of each issue through the REST API.
+        return Streams.batch(candidates, deploymentConfig.pageSize())
+                .flatMap(uncheckedIO((List<GHIssue> batch) -> {
+                    var commenters = nonBotCommenters(batch);
+                    return batch.stream()
+                            .filter(uncheckedIO((GHIssue ghIssue) -> hasNoTeamAction(ghIssue,
+                                    commenters.get(ghIssue.getNodeId())))::apply);
+                })::apply)
                 .map(toIssueRecord());
     }
 
-    private IssueActionSide lastActionSide(GHIssue ghIssue, Set<String> initialActionLabels) throws IOException {
-        // Optimization: don't even fetch older comments as they wouldn't affect the result
-        // (we're looking for the *last* action).
-        Instant lastEventActionSideInstant = null;
-        for (GHIssueEvent event : ghIssue.listEvents()) {
-            if (io.quarkiverse.githubapp.event.Issue.Labeled.NAME.equals(event.getEvent())
-                    && initialActionLabels.contains(event.getLabel().getName())) {
-                lastEventActionSideInstant = event.getCreatedAt().toInstant();
+    /**
+     * Lists issues or pull requests with the given labels that were never acted on (commented)
+     * by the team and were last updated before the given instant, for each of the given filter labels.
+     * <p>
+     * Searches for multiple filter labels are merged, and results are split in memory.
+     *
+     * @param ignoreUsersByFilterLabel Users to ignore for each filter label; returned issues are grouped by filter label.
+     *        For a given filter label, issues are ignored (not returned) if commented on by any of the corresponding users,
+     *        or of they are not a PR and were submitted by any of the corresponding users.
+     *        Filter labels are not relevant to determining the last action.
+     * @param ignoreLabels GitHub labels. Issues assigned with any of these labels are ignored (not returned).
+     * @param createdAfter An instant; all returned issues must have been created after that instant.
+     * @param createdBefore An instant; all returned issues must have been created before that instant.
+     * @return Matching issues for each filter label, as streams to be consumed at most once.
+     * @throws java.io.UncheckedIOException In case of I/O failure.
+     * @see #issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(String, Set, Set, Instant, Instant)
+     */
+    public Map<String, Stream<Issue>> issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(
+            Map<String, Set<String>> ignoreUsersByFilterLabel, Set<String> ignoreLabels,
+            Instant createdAfter, Instant createdBefore) {
+        List<String> clauses = List.of(repo(ref), isOpen(), not(anyLabel(ignoreLabels)), noLinkedPr(),
+                created(createdAfter, createdBefore));
+        // Users to ignore differ from one filter label to the next, so we can't rely on the search query
+        // to skip issues they commented on: we check in memory instead,
+        // using the commenters we retrieve anyway to check for team action.
+        return searchByLabel(ignoreUsersByFilterLabel.keySet(), clauses,
+                GHIssueSearchBuilder.Sort.CREATED, GHDirection.ASC,
+                candidates -> Streams.batch(candidates, deploymentConfig.pageSize())
+                        .flatMap(uncheckedIO((List<GHIssue> batch) -> {
+                            var commenters = nonBotCommenters(batch);
+                            return batch.stream()
+                                    .map(uncheckedIO((GHIssue ghIssue) -> {
+                                        Set<String> commenterLogins = nonBotCommenterLogins(ghIssue,
+                                                commenters.get(ghIssue.getNodeId()));
+                                        if (!hasNoTeamAction(ghIssue, commenterLogins)) {
+                                            return null;
+                                        }
+                                        Set<String> ignoringUsers = new HashSet<>(commenterLogins);
+                                        if (!ghIssue.isPullRequest()) {
+                                            ignoringUsers.add(ghIssue.getUser().getLogin());
+                                        }
+                                        return new NeverActedOnCandidate(ghIssue, ignoringUsers);
+                                    })::apply)
+                                    .filter(Objects::nonNull);
+                        })::apply),
+                NeverActedOnCandidate::ghIssue,
+                (candidate, label) -> Collections.disjoint(candidate.ignoringUsers(),
+                        ignoreUsersByFilterLabel.get(label)));
+    }
+
+    // Carries users to ignore along with each issue, since streams of issues for different labels
+    // may be consumed concurrently, e.g. when prefetching.
+    private record NeverActedOnCandidate(GHIssue ghIssue, Set<String> ignoringUsers) {
+    }
+
+    /**
+     * Searches for open issues or pull requests matching the given clauses and any of the given labels,
+     * merging searches for multiple labels, then splits results in memory by label.
+     * <p>
+     * A merged search that matches more issues than GitHub can return is split into smaller searches,
+     * down to a lazily consumed search per label.
+     *
+     * @param labels GitHub labels; returned issues are grouped by label.
+     * @param clauses Clauses of the search query, except for the one matching labels.
+     * @param filter A filter to apply to search results, before splitting them,
+     *        which may attach information to each result for use by {@code labelFilter}.
+     * @param ghIssue A function returning the search result of each element returned by {@code filter}.
+     * @param labelFilter A filter to apply to search results for a given label, when splitting them.
+     * @param <C> The type of elements returned by {@code filter}.
+     * @return Matching issues for each label, in the order of search results.
+     */
+    private <C> Map<String, Stream<Issue>> searchByLabel(Set<String> labels, List<String> clauses,
+            GHIssueSearchBuilder.Sort sort, GHDirection order,
+            Function<Stream<GHIssue>, Stream<C>> filter, Function<C, GHIssue> ghIssue,
+            BiPredicate<C, String> labelFilter) {
+        Map<String, List<Issue>> mergedResults = new HashMap<>();
+        Map<String, Stream<Issue>> lazyResults = new HashMap<>();
+        // GitHub limits the length of the whole query, including other clauses and separating spaces.
+        int maxLabelClauseLength = deploymentConfig.mergedLabelSearch().maxQueryLength()
+                - String.join(" ", clauses).length() - 1;
+        Deque<Set<String>> batches = new ArrayDeque<>(anyLabelBatches(labels, maxLabelClauseLength));
+        Log.debugf("Merged search for %s %s: %s labels in %s searches", ref, clauses, labels.size(), batches.size());
+        while (!batches.isEmpty()) {
+            Set<String> batch = batches.removeFirst();
+            var builder = client().searchIssues()
+                    .sort(sort)
+                    .order(order);
+            for (String clause : clauses) {
+                builder.q(clause);
+            }
+            builder.q(anyLabel(batch));
+            if (batch.size() == 1) {
+                // Nothing left to split: the caller will only retrieve as many results as it needs.
+                String label = batch.iterator().next();
+                lazyResults.put(label, filter.apply(toStreamWithPageSize(builder.list()))
+                        .filter(candidate -> labelFilter.test(candidate, label))
+                        .map(ghIssue)
+                        .map(toIssueRecord()));
+                continue;
+            }
+            var results = searchUnlessTruncated(builder.list().withPageSize(deploymentConfig.pageSize()));
+            if (results.isEmpty()) {
+                List<String> batchLabels = List.copyOf(batch);
+                int half = batchLabels.size() / 2;
+                Log.debugf("Too many results for merged search for %s %s on labels %s; splitting", ref, clauses,
+                        batch);
+                batches.addFirst(new LinkedHashSet<>(batchLabels.subList(half, batchLabels.size())));
+                batches.addFirst(new LinkedHashSet<>(batchLabels.subList(0, half)));
+                continue;
+            }
+            // GitHub matches labels regardless of case.
+            Map<String, String> batchLabelsByLowerCase = new HashMap<>();
+            for (String label : batch) {
+                batchLabelsByLowerCase.putIfAbsent(label.toLowerCase(Locale.ROOT), label);
+                mergedResults.put(label, new ArrayList<>());
+            }
+            filter.apply(results.get())
+                    .forEach(candidate -> {
+                        GHIssue candidateGHIssue = ghIssue.apply(candidate);
+                        Issue issue = toIssueRecord().apply(candidateGHIssue);
+                        for (GHLabel ghLabel : candidateGHIssue.getLabels()) {
+                            String label = batchLabelsByLowerCase.get(ghLabel.getName().toLowerCase(Locale.ROOT));
+                            if (label != null && labelFilter.test(candidate, label)) {
+                                mergedResults.get(label).add(issue);
+                            }
+                        }
+                    });
+        }
+        Map<String, Stream<Issue>> result = new LinkedHashMap<>();
+        for (String label : labels) {
+            List<Issue> merged = mergedResults.get(label);
+            result.put(label, merged != null ? merged.stream() : lazyResults.get(label));
+        }
+        return result;
+    }
+
+    private IssueActionSide lastActionSide(GHIssue ghIssue, Optional<String> lastNonBotCommenterSinceInitialAction)
+            throws IOException {
+        if (lastNonBotCommenterSinceInitialAction.isEmpty()) {
+            // No action since the label was assigned.
+            return IssueActionSide.TEAM;
+        }
+        return getIssueActionSide(ghIssue, lastNonBotCommenterSinceInitialAction.get());
+    }
+
+    /**
+     * Retrieves, for each of the given issues, the login of the last non-bot user who commented
+     * since one of the given labels was last assigned.
+     *
+     * @return A map from issue node ID to the login of the last non-bot commenter (empty if there is none).
+     *         Issues for which this couldn't be determined with a single query are absent from the map.
+     */
+    private Map<String, Optional<String>> lastNonBotCommentersSinceInitialAction(List<GHIssue> ghIssues,
+            Set<String> initialActionLabels) throws IOException {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("ids", ghIssues.stream().map(GHIssue::getNodeId).toList());
+        JsonObject data = executeGraphQLQuery("""
+                query LastActions($ids: [ID!]!) {
+                  rateLimit {
+                    limit
+                    remaining
+                    resetAt
+                  }
+                  nodes(ids: $ids) {
+                    ... on Issue {
+                      id
+                      timelineItems(itemTypes: [LABELED_EVENT], last: 50) {
+                        pageInfo {
+                          hasPreviousPage
+                        }
+                        nodes {
+                          ... on LabeledEvent {
+                            createdAt
+                            label {
+                              name
+                            }
+                          }
+                        }
+                      }
+                      comments(last: 10) {
+                        pageInfo {
+                          hasPreviousPage
+                        }
+                        nodes {
+                          createdAt
+                          author {
+                            __typename
+                            login
+                          }
+                        }
+                      }
+                    }
+                  }
+                }
+                """, variables);
+
+        Map<String, Optional<String>> result = new HashMap<>();
+        for (JsonObject node : graphQLNodes(data)) {
+            JsonObject labeledEvents = node.getJsonObject("timelineItems");
+            Instant lastInitialActionInstant = null;
+            for (JsonObject event : labeledEvents.getJsonArray("nodes").getValuesAs(JsonObject.class)) {
+                if (!event.isNull("label") && initialActionLabels.contains(event.getJsonObject("label").getString("name"))) {
+                    lastInitialActionInstant = Instant.parse(event.getString("createdAt"));
+                }
+            }
+            if (lastInitialActionInstant == null && hasPreviousPage(labeledEvents)) {
+                // The label was assigned before the events we retrieved.
+                continue;
+            }
+
+            JsonObject comments = node.getJsonObject("comments");
+            List<JsonObject> commentNodes = comments.getJsonArray("nodes").getValuesAs(JsonObject.class);
+            // Unless we encounter a relevant comment, we'll only know the result for sure
+            // if we retrieved all comments since the label was assigned.
+            boolean complete = !hasPreviousPage(comments);
+            Optional<String> lastCommenter = Optional.empty();
+            for (int i = commentNodes.size() - 1; i >= 0; i--) {
+                JsonObject comment = commentNodes.get(i);
+                if (lastInitialActionInstant != null
+                        && Instant.parse(comment.getString("createdAt")).isBefore(lastInitialActionInstant)) {
+                    complete = true;
+                    break;
+                }
+                if (isGraphQLBot(comment)) {
+                    continue;
+                }
+                lastCommenter = Optional.of(graphQLAuthorLogin(comment));
+                complete = true;
+                break;
+            }
+            if (complete) {
+                result.put(node.getString("id"), lastCommenter);
             }
         }
+        return result;
+    }
+
+    // Fallback for lastNonBotCommentersSinceInitialAction, using the REST API.
+    private Optional<String> lastNonBotCommenterSinceInitialAction(GHIssue ghIssue, Set<String> initialActionLabels)
+            throws IOException {
+        // Optimization: don't even fetch older comments as they wouldn't affect the result
+        // (we're looking for the *last* action).
+        // Events are paged like anything else, so each page must be throttled.
+        Instant lastEventActionSideInstant = toStreamWithoutPageSize(ghIssue.listEvents(),
+                GitHubRateLimiter.Resource.READ)
+                .filter(event -> io.quarkiverse.githubapp.event.Issue.Labeled.NAME.equals(event.getEvent())
+                        && initialActionLabels.contains(event.getLabel().getName()))
+                .map(uncheckedIO((GHIssueEvent event) -> event.getCreatedAt().toInstant()))
+                .reduce(Streams.last())
+                .orElse(null);
 
         Optional<GHIssueComment> lastComment = getNonBotCommentsSince(ghIssue, lastEventActionSideInstant)
                 .reduce(Streams.last());
         if (lastComment.isEmpty()) {
-            // No action since the label was assigned.
-            return IssueActionSide.TEAM;
+            return Optional.empty();
+        }
+        return Optional.of(lastComment.get().getUser().getLogin());
+    }
+
+    private boolean hasNoTeamAction(GHIssue ghIssue, Commenters prefetchedCommenters) throws IOException {
+        if (prefetchedCommenters == null) {
+            // Not found through GraphQL for some reason.
+            return hasNoTeamAction(ghIssue);
+        }
+        // Stops at the first team member.
+        boolean noTeamActionInPrefetched = prefetchedCommenters.logins().stream()
+                .map(uncheckedIO((String login) -> getIssueActionSide(ghIssue, login)))
+                .noneMatch(Predicate.isEqual(IssueActionSide.TEAM));
+        if (!noTeamActionInPrefetched) {
+            return false;
+        }
+        // If there are too many comments, we need to have a look at the ones we didn't prefetch.
+        return prefetchedCommenters.complete() || hasNoTeamAction(ghIssue);
+    }
+
+    private record Commenters(Set<String> logins, boolean complete) {
+    }
+
+    /**
+     * Retrieves the logins of non-bot users who commented on each of the given issues.
+     *
+     * @return A map from issue node ID to commenters.
+     *         Commenters are incomplete for issues with too many comments to retrieve in a single query.
+     */
+    private Map<String, Commenters> nonBotCommenters(List<GHIssue> ghIssues) throws IOException {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("ids", ghIssues.stream().map(GHIssue::getNodeId).toList());
+        // Issues and pull requests have distinct types with the same "comments" connection.
+        String commentsSelection = """
+                  id
+                  comments(first: 100) {
+                    pageInfo {
+                      hasNextPage
+                    }
+                    nodes {
+                      author {
+                        __typename
+                        login
+                      }
+                    }
+                  }
+                """;
+        JsonObject data = executeGraphQLQuery("""
+                query Commenters($ids: [ID!]!) {
+                  rateLimit {
+                    limit
+                    remaining
+                    resetAt
+                  }
+                  nodes(ids: $ids) {
+                    ... on Issue {
+                %s
+                    }
+                    ... on PullRequest {
+                %s
+                    }
+                  }
+                }
+                """.formatted(commentsSelection, commentsSelection), variables);
+
+        Map<String, Commenters> result = new HashMap<>();
+        for (JsonObject node : graphQLNodes(data)) {
+            JsonObject comments = node.getJsonObject("comments");
+            Set<String> logins = new LinkedHashSet<>();
+            for (JsonObject comment : comments.getJsonArray("nodes").getValuesAs(JsonObject.class)) {
+                if (!isGraphQLBot(comment)) {
+                    logins.add(graphQLAuthorLogin(comment));
+                }
+            }
+            result.put(node.getString("id"), new Commenters(logins,
+                    !comments.getJsonObject("pageInfo").getBoolean("hasNextPage")));
         }
-        return getIssueActionSide(ghIssue, lastComment.get().getUser().getLogin());
+        return result;
+    }
+
+    // Fallback for nonBotCommenters, using the REST API.
+    private boolean hasNoTeamAction(GHIssue ghIssue, Set<String> nonBotCommenterLogins) {
+        return nonBotCommenterLogins.stream()
+                .map(uncheckedIO((String login) -> getIssueActionSide(ghIssue, login)))
+                .noneMatch(Predicate.isEqual(IssueActionSide.TEAM));
+    }
+
+    private Set<String> nonBotCommenterLogins(GHIssue ghIssue, Commenters prefetchedCommenters) {
+        if (prefetchedCommenters != null && prefetchedCommenters.complete()) {
+            return prefetchedCommenters.logins();
+        }
+        // Not found through GraphQL for some reason, or too many comments.
+        return getNonBotCommentsSince(ghIssue, null)
+                .map(uncheckedIO((GHIssueComment c) -> c.getUser().getLogin()))
+                .collect(Collectors.toSet());
     }
 
     private boolean hasNoTeamAction(GHIssue ghIssue) {
@@ -287,12 +895,14 @@ public class GitHubRepository implements AutoCloseable {
             return IssueActionSide.OUTSIDER;
         }
 
-        // Caching in case a same user is encountered multiple times in the same run.
-        return noContextIssueActionSideCache.get(login);
+        // Caching, since the same users are encountered on many issues and across draws.
+        return permissionCache.get(ref.repositoryName(), login, uncheckedIO(this::computeNoContextIssueActionSide));
     }
 
     private IssueActionSide computeNoContextIssueActionSide(String login) throws IOException {
-        return switch (repository().getPermission(login)) {
+        GHRepository repository = repository();
+        acquire(GitHubRateLimiter.Resource.READ);
+        return switch (repository.getPermission(login)) {
             case ADMIN, WRITE, UNKNOWN -> IssueActionSide.TEAM; // "Unknown" includes "triage"
             case READ, NONE -> IssueActionSide.OUTSIDER;
         };
@@ -344,16 +954,17 @@ public class GitHubRepository implements AutoCloseable {
          *        which can be useful to avoid huge conversations.
          * @param markdownBody The body of the description to update.
          * @param comment Whether The body should also be added as a comment, triggering a GitHub notification.
+         * @return The comment that was added, if any.
          *
          * @throws IOException If a GitHub API call fails.
          * @throws java.io.UncheckedIOException If a GitHub API call fails.
          */
-        public void update(String topicSuffix, String markdownBody, boolean comment)
+        public Optional<TopicComment> update(String topicSuffix, String markdownBody, boolean comment)
                 throws IOException {
             if (deploymentConfig.dryRun()) {
                 Log.infof("[DRY RUN] Topic update:\n\tTopic:%s\n\tSuffix:%s\n\tBody:%s\n\tComment:%s",
                         ref, topicSuffix, markdownBody, comment);
-                return;
+                return Optional.empty();
             }
 
             var dedicatedIssue = getDedicatedIssues().findFirst();
@@ -367,9 +978,11 @@ public class GitHubRepository implements AutoCloseable {
             if (dedicatedIssue.isPresent()) {
                 issue = dedicatedIssue.get();
                 if (!issue.getTitle().equals(targetTitle)) {
+                    acquire(GitHubRateLimiter.Resource.MUTATION);
                     issue.setTitle(targetTitle);
                 }
                 if (GHIssueState.CLOSED.equals(issue.getState())) {
+                    acquire(GitHubRateLimiter.Resource.MUTATION);
                     issue.reopen();
                 }
 
@@ -382,14 +995,8 @@ public class GitHubRepository implements AutoCloseable {
                 }
 
                 try {
-                    // We try to minimize the last comment on a best-effort basis,
-                    // taking into account only recent comments,
-                    // to avoid performance hogs on issues with many comments.
-                    // (There's no way to retrieve comments of an issue in anti-chronological order...)
-                    Optional<GHIssueComment> lastRecentComment = getAppCommentsSince(issue,
-                            clock.instant().minus(21, ChronoUnit.DAYS))
-                            .reduce(Streams.last());
-                    lastRecentComment.ifPresent(GitHubRepository.this::minimizeOutdatedComment);
+                    // We try to minimize the last comment on a best-effort basis.
+                    lastCommentNodeId(issue).ifPresent(GitHubRepository.this::minimizeOutdatedComment);
                 } catch (Exception e) {
                     Log.errorf(e, "Failed to minimize last notification for issue %s#%s",
                             GitHubRepository.this.ref.repositoryName(), issue.getNumber());
@@ -399,14 +1006,25 @@ public class GitHubRepository implements AutoCloseable {
                 // for convenience.
                 // This must be done before the comment, so that notifications triggered by the comment are only sent
                 // when the issue is fully updated.
+                acquire(GitHubRateLimiter.Resource.MUTATION);
                 issue.setBody(messageFormatter.formatDedicatedIssueBodyMarkdown(ref.topic(), markdownBody));
             } else {
                 issue = createDedicatedIssue(targetTitle, markdownBody);
             }
 
             if (comment) {
-                issue.comment(markdownBody);
+                acquire(GitHubRateLimiter.Resource.MUTATION);
+                GHIssueComment added = issue.comment(markdownBody);
+                if (added != null) {
+                    if (added.getNodeId() != null) {
+                        lastCommentCache.put(GitHubRepository.this.ref.repositoryName(), ref, added.getNodeId());
+                    }
+                    // The creation date is part of the response: no need for another request.
+                    return Optional.of(new TopicComment(issue.getNumber(), added.getId(),
+                            added.getCreatedAt().toInstant(), markdownBody));
+                }
             }
+            return Optional.empty();
         }
 
         /**
@@ -415,6 +1033,9 @@ public class GitHubRepository implements AutoCloseable {
          * GitHub does not allow more than 2500 comments on a given issue.
          * To prevent hitting this limit, we delete old comments when the count exceeds the threshold,
          * keeping only the specified number of most recent comments.
+         * <p>
+         * When {@link DeploymentConfig.CommentPacking#background() background packing} is enabled,
+         * this only schedules packing, which will start once this repository gets closed.
          *
          * @param issue The issue to pack
          * @param threshold The comment count threshold that triggers packing
@@ -424,6 +1045,16 @@ public class GitHubRepository implements AutoCloseable {
         private void pack(GHIssue issue, int threshold, int retainedComments) throws IOException {
             int commentCount = issue.getCommentsCount();
 
+            if (deploymentConfig.commentPacking().background()) {
+                int issueNumber = issue.getNumber();
+                if (commentCount > threshold || commentPacker.isUnfinished(GitHubRepository.this.ref, issueNumber)) {
+                    synchronized (GitHubRepository.this) {
+                        pendingPackingRetainedCommentsByIssueNumber.put(issueNumber, retainedComments);
+                    }
+                }
+                return;
+            }
+
             // If we have more than the threshold, delete the older ones to keep only the specified number
             // This helps us stay well below GitHub's 2500 comment limit per issue
             if (commentCount > threshold) {
@@ -432,11 +1063,14 @@ public class GitHubRepository implements AutoCloseable {
                         GitHubRepository.this.ref.repositoryName(), issue.getNumber(), commentsToDelete, retainedComments);
 
                 // Only fetch comments when we actually need to delete them
-                var comments = toStreamWithoutPageSize(issue.queryComments().list()).toList();
+                var comments = toStreamWithoutPageSize(issue.queryComments().list(), GitHubRateLimiter.Resource.READ)
+                        .toList();
                 for (int i = 0; i < commentsToDelete; i++) {
                     var comment = comments.get(i);
                     try {
                         executeWithRetry(() -> {
+                            // Throttling to avoid triggering secondary rate limits
+                            acquire(GitHubRateLimiter.Resource.MUTATION);
                             try {
                                 comment.delete();
                             } catch (IOException e) {
@@ -449,22 +1083,37 @@ public class GitHubRepository implements AutoCloseable {
                                 GitHubRepository.this.ref.repositoryName(),
                                 issue.getNumber());
                     }
-
-                    // Delay between deletions to avoid triggering secondary rate limits
-                    if (i < commentsToDelete - 1) {
-                        sleepForMutationThrottling();
-                    }
                 }
             }
         }
 
+        private Optional<String> lastCommentNodeId(GHIssue issue) {
+            String cached = lastCommentCache.get(GitHubRepository.this.ref.repositoryName(), ref);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            // Not posted since the application started: we need to look for it.
+            // We only take into account recent comments, to avoid performance hogs on issues with many comments.
+            // (There's no way to retrieve comments of an issue in anti-chronological order...)
+            return getAppCommentsSince(issue, clock.instant().minus(LastCommentCache.MINIMIZATION_WINDOW))
+                    .reduce(Streams.last())
+                    .map(GHIssueComment::getNodeId);
+        }
+
         private Stream<GHIssue> getDedicatedIssues() throws IOException {
-            var builder = searchIssuesOnly()
-                    .q(author(appLogin()));
-            if (ref.assignee() != null) {
-                builder.q(assignee(ref.assignee()));
+            Stream<GHIssue> candidates;
+            var allAppIssues = appIssues();
+            if (allAppIssues.isPresent()) {
+                candidates = allAppIssues.get().stream();
+            } else {
+                var builder = searchIssuesOnly()
+                        .q(author(appLogin()));
+                if (ref.assignee() != null) {
+                    builder.q(assignee(ref.assignee()));
+                }
+                candidates = toStreamWithoutPageSize(builder.list(), GitHubRateLimiter.Resource.SEARCH);
             }
-            return toStreamWithoutPageSize(builder.list())
+            return candidates
                     .filter(ref.expectedSuffixStart() != null
                             ? issue -> issue.getTitle().startsWith(ref.topic() + ref.expectedSuffixStart())
                             // Try exact match in this case to avoid confusion if there are two issues and one is
@@ -473,7 +1122,10 @@ public class GitHubRepository implements AutoCloseable {
                             //     topic = Lottery history for quarkusio/quarkus
                             //     issue1.title = Lottery history for quarkusio/quarkusio.github.io
                             //     issue2.title = Lottery history for quarkusio/quarkus
-                            : issue -> issue.getTitle().equals(ref.topic()));
+                            : issue -> issue.getTitle().equals(ref.topic()))
+                    .filter(ref.assignee() == null ? issue -> true
+                            : issue -> issue.getAssignees().stream()
+                                    .anyMatch(assignee -> ref.assignee().equalsIgnoreCase(assignee.getLogin())));
         }
 
         public Stream<String> extractComments(Instant since)
@@ -483,12 +1135,138 @@ public class GitHubRepository implements AutoCloseable {
                     .map(GHIssueComment::getBody);
         }
 
+        /**
+         * Like {@link #extractComments(Instant)}, but also retrieves comment metadata.
+         *
+         * @param since The earliest instant comments may have been updated at; older comments are ignored.
+         * @return App comments on the dedicated issues, in chronological order.
+         * @throws IOException If a GitHub API call fails.
+         * @throws java.io.UncheckedIOException If a GitHub API call fails.
+         */
+        public Stream<TopicComment> comments(Instant since)
+                throws IOException {
+            return getDedicatedIssues()
+                    .flatMap(issue -> getAppCommentsSince(issue, since)
+                            .map(uncheckedIO((GHIssueComment comment) -> toTopicComment(issue.getNumber(), comment))));
+        }
+
+        /**
+         * Retrieves the ID of the last app comment on a given dedicated issue, in a single GraphQL query.
+         * <p>
+         * Useful to check whether a copy of the comments is still up-to-date,
+         * without retrieving the comments.
+         *
+         * @param issueNumber The number of the dedicated issue, as previously returned by this topic.
+         * @return The ID of the last app comment on the given issue,
+         *         or an empty optional if the issue no longer belongs to this topic,
+         *         or if that comment isn't among the last few comments.
+         * @throws IOException If a GitHub API call fails.
+         */
+        public OptionalLong lastAppCommentId(int issueNumber) throws IOException {
+            String[] ownerAndName = GitHubRepository.this.ref.repositoryName().split("/", 2);
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("owner", ownerAndName[0]);
+            variables.put("name", ownerAndName[1]);
+            variables.put("number", issueNumber);
+            JsonObject data = executeGraphQLQuery("""
+                    query LastAppComment($owner: String!, $name: String!, $number: Int!) {
+                      rateLimit {
+                        limit
+                        remaining
+                        resetAt
+                      }
+                      repository(owner: $owner, name: $name) {
+                        issue(number: $number) {
+                          title
+                          comments(last: 10) {
+                            nodes {
+                              fullDatabaseId
+                              author {
+                                __typename
+                                login
+                              }
+                            }
+                          }
+                        }
+                      }
+                    }
+                    """, variables);
+            JsonObject repository = data.getJsonObject("repository");
+            if (repository == null || repository.isNull("issue")) {
+                return OptionalLong.empty();
+            }
+            JsonObject issue = repository.getJsonObject("issue");
+            String title = issue.getString("title");
+            if (ref.expectedSuffixStart() != null ? !title.startsWith(ref.topic() + ref.expectedSuffixStart())
+                    : !title.equals(ref.topic())) {
+                return OptionalLong.empty();
+            }
+            String appLogin = appLogin();
+            List<JsonObject> comments = issue.getJsonObject("comments").getJsonArray("nodes")
+                    .getValuesAs(JsonObject.class);
+            for (int i = comments.size() - 1; i >= 0; i--) {
+                JsonObject comment = comments.get(i);
+                // Unlike the REST API, the GraphQL API doesn't add the bot suffix to logins.
+                if (appLogin.equals(graphQLAuthorLogin(comment) + GitHubConstants.BOT_LOGIN_SUFFIX)) {
+                    // BigInt values are serialized as strings.
+                    JsonValue id = comment.get("fullDatabaseId");
+                    return OptionalLong.of(JsonValue.ValueType.STRING.equals(id.getValueType())
+                            ? Long.parseLong(((JsonString) id).getString())
+                            : ((JsonNumber) id).longValueExact());
+                }
+            }
+            return OptionalLong.empty();
+        }
+
         private GHIssue createDedicatedIssue(String title, String lastCommentMarkdownBody)
                 throws IOException {
-            return repository().createIssue(title)
+            GHRepository repository = repository();
+            acquire(GitHubRateLimiter.Resource.MUTATION);
+            GHIssue issue = repository.createIssue(title)
                     .assignee(ref.assignee())
                     .body(messageFormatter.formatDedicatedIssueBodyMarkdown(ref.topic(), lastCommentMarkdownBody))
                     .create();
+            addToAppIssues(issue);
+            return issue;
+        }
+    }
+
+    private static TopicComment toTopicComment(int issueNumber, GHIssueComment comment) throws IOException {
+        return new TopicComment(issueNumber, comment.getId(), comment.getCreatedAt().toInstant(), comment.getBody());
+    }
+
+    /**
+     * Lists issues created by the app in this repository, i.e. the issues dedicated to all topics.
+     * <p>
+     * The list is retrieved with a single search the first time it's needed,
+     * then topics are resolved from memory, which saves one search per topic lookup:
+     * a notification repository typically has one topic per participant.
+     *
+     * @return A snapshot of the issues created by the app,
+     *         or an empty optional if there are too many such issues for a single search to return them all,
+     *         in which case topics must be resolved with one search each.
+     * @see #topic(TopicRef)
+     */
+    private synchronized Optional<List<GHIssue>> appIssues() throws IOException {
+        if (appIssues == null && !tooManyAppIssues) {
+            var builder = searchIssuesOnly()
+                    .q(author(appLogin()));
+            var results = searchUnlessTruncated(builder.list().withPageSize(MAX_SEARCH_PAGE_SIZE));
+            if (results.isPresent()) {
+                appIssues = new ArrayList<>(results.get().toList());
+            } else {
+                Log.infof("Too many issues created by the app in %s to list them all; resolving topics one by one",
+                        ref.repositoryName());
+                tooManyAppIssues = true;
+            }
+        }
+        return tooManyAppIssues ? Optional.empty() : Optional.of(List.copyOf(appIssues));
+    }
+
+    private synchronized void addToAppIssues(GHIssue issue) {
+        // If the list wasn't retrieved yet, it will include this issue when it is.
+        if (appIssues != null && issue != null) {
+            appIssues.add(issue);
         }
     }
 
@@ -498,7 +1276,7 @@ public class GitHubRepository implements AutoCloseable {
         if (since != null) {
             queryCommentsBuilder.since(Date.from(since));
         }
-        return toStreamWithoutPageSize(queryCommentsBuilder.list())
+        return toStreamWithoutPageSize(queryCommentsBuilder.list(), GitHubRateLimiter.Resource.READ)
                 .filter(uncheckedIO((GHIssueComment comment) -> appLogin.equals(comment.getUser().getLogin()))::apply);
     }
 
@@ -507,16 +1285,74 @@ public class GitHubRepository implements AutoCloseable {
         if (since != null) {
             queryCommentsBuilder.since(Date.from(since));
         }
-        return toStreamWithoutPageSize(queryCommentsBuilder.list())
+        return toStreamWithoutPageSize(queryCommentsBuilder.list(), GitHubRateLimiter.Resource.READ)
                 // Relying on the login rather than getType(), because that would involve an additional request.
                 .filter(uncheckedIO((GHIssueComment comment) -> !comment.getUser().getLogin()
                         .endsWith(GitHubConstants.BOT_LOGIN_SUFFIX))::apply);
     }
 
-    private void minimizeOutdatedComment(GHIssueComment comment) {
+    private JsonObject executeGraphQLQuery(String query, Map<String, Object> variables) throws IOException {
+        acquire(GitHubRateLimiter.Resource.GRAPHQL);
+        Response response;
+        try {
+            response = graphQLClient().executeSync(query, variables);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not execute GraphQL query: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+        }
+        if (response.hasError()) {
+            throw new IOException("GraphQL query failed: " + response.getErrors());
+        }
+        JsonObject data = response.getData();
+        JsonObject rateLimit = data.getJsonObject("rateLimit");
+        if (rateLimit != null) {
+            rateLimiter.observeGraphQLRateLimit(rateLimit.getInt("limit"), rateLimit.getInt("remaining"),
+                    Instant.parse(rateLimit.getString("resetAt")));
+        }
+        return data;
+    }
+
+    private static List<JsonObject> graphQLNodes(JsonObject data) {
+        return data.getJsonArray("nodes").stream()
+                // Nodes that could not be found are null.
+                .filter(node -> JsonValue.ValueType.OBJECT.equals(node.getValueType()))
+                .map(JsonValue::asJsonObject)
+                .toList();
+    }
+
+    private static boolean hasPreviousPage(JsonObject connection) {
+        return connection.getJsonObject("pageInfo").getBoolean("hasPreviousPage");
+    }
+
+    private static boolean isGraphQLBot(JsonObject authored) {
+        if (authored.isNull("author")) {
+            return false;
+        }
+        JsonObject author = authored.getJsonObject("author");
+        // Unlike the REST API, the GraphQL API doesn't add the bot suffix to logins.
+        return "Bot".equals(author.getString("__typename", null))
+                || author.getString("login").endsWith(GitHubConstants.BOT_LOGIN_SUFFIX);
+    }
+
+    private static String graphQLAuthorLogin(JsonObject authored) {
+        // The author is null for deleted accounts, which the REST API represents with the "ghost" user.
+        return authored.isNull("author") ? GitHubConstants.GHOST_LOGIN
+                : authored.getJsonObject("author").getString("login");
+    }
+
+    private void minimizeOutdatedComment(String commentNodeId) {
+        if (deploymentConfig.commentMinimization().batch()) {
+            synchronized (this) {
+                pendingMinimizationNodeIds.add(commentNodeId);
+            }
+            return;
+        }
         try {
             Map<String, Object> variables = new HashMap<>();
-            variables.put("subjectId", comment.getNodeId());
+            variables.put("subjectId", commentNodeId);
+            acquire(GitHubRateLimiter.Resource.MUTATION);
             graphQLClient().executeSync("""
                     mutation MinimizeOutdatedContent($subjectId: ID!) {
                       minimizeComment(input: {
@@ -529,17 +1365,148 @@ public class GitHubRepository implements AutoCloseable {
                     }
                     """, variables);
         } catch (Exception e) {
-            throw new RuntimeException("Could not minimize comment " + comment.getNodeId(), e);
+            throw new RuntimeException("Could not minimize comment " + commentNodeId, e);
+        }
+    }
+
+    /**
+     * Minimizes comments whose minimization was deferred because of batching,
+     * using one GraphQL query per batch, with one aliased mutation per comment.
+     *
+     * @see DeploymentConfig.CommentMinimization#batch()
+     */
+    private synchronized void minimizePendingComments() {
+        int batchSize = deploymentConfig.commentMinimization().batchSize();
+        while (!pendingMinimizationNodeIds.isEmpty()) {
+            List<String> batch = pendingMinimizationNodeIds.subList(0,
+                    Math.min(batchSize, pendingMinimizationNodeIds.size()));
+            StringBuilder parameters = new StringBuilder();
+            StringBuilder mutations = new StringBuilder();
+            Map<String, Object> variables = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    parameters.append(", ");
+                }
+                parameters.append("$subjectId").append(i).append(": ID!");
+                mutations.append("""
+                          minimize%1$d: minimizeComment(input: {
+                            subjectId: $subjectId%1$d,
+                            classifier: OUTDATED}) {
+                              minimizedComment {
+                                isMinimized
+                              }
+                            }
+                        """.formatted(i));
+                variables.put("subjectId" + i, batch.get(i));
+            }
+            Log.debugf("Minimizing %d outdated comments in %s", batch.size(), ref.repositoryName());
+            // Each mutation counts separately towards secondary rate limits,
+            // but batching still saves round-trips.
+            for (int i = 0; i < batch.size(); i++) {
+                acquire(GitHubRateLimiter.Resource.MUTATION);
+            }
+            try {
+                executeGraphQLQuery("mutation MinimizeOutdatedContents(" + parameters + ") {\n" + mutations + "}\n",
+                        variables);
+            } catch (IOException | RuntimeException e) {
+                // Don't retry: minimization is best-effort.
+                Log.errorf(e, "Failed to minimize outdated comments %s in %s", batch, ref.repositoryName());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Hands issues whose packing was deferred because of background packing over to the {@link CommentPacker}.
+     *
+     * @see DeploymentConfig.CommentPacking#background()
+     */
+    private synchronized void schedulePendingPacking() {
+        for (var entry : pendingPackingRetainedCommentsByIssueNumber.entrySet()) {
+            commentPacker.schedule(ref, entry.getKey(), entry.getValue());
+        }
+        pendingPackingRetainedCommentsByIssueNumber.clear();
+    }
+
+    /**
+     * Deletes the oldest comments of an issue, so that only the given number of most recent comments remain,
+     * using one GraphQL query per batch, with one aliased mutation per comment.
+     * <p>
+     * Comments are deleted from oldest to newest, so this can safely be called again after an interruption.
+     *
+     * @param issueNumber The number of the issue to pack.
+     * @param retainedComments The number of most recent comments to keep.
+     * @throws IOException If a GitHub API call fails.
+     * @see CommentPacker
+     */
+    void packComments(int issueNumber, int retainedComments) throws IOException {
+        GHRepository repository = repository();
+        acquire(GitHubRateLimiter.Resource.READ);
+        GHIssue issue = repository.getIssue(issueNumber);
+        List<String> commentNodeIds = toStreamWithoutPageSize(issue.queryComments().list(),
+                GitHubRateLimiter.Resource.READ)
+                .map(GHIssueComment::getNodeId)
+                .toList();
+        int commentsToDelete = commentNodeIds.size() - retainedComments;
+        if (commentsToDelete <= 0) {
+            return;
+        }
+        Log.infof("Packing issue %s#%s: deleting %d old comments (keeping %d most recent)",
+                ref.repositoryName(), issueNumber, commentsToDelete, retainedComments);
+
+        int batchSize = deploymentConfig.commentPacking().batchSize();
+        for (int start = 0; start < commentsToDelete; start += batchSize) {
+            List<String> batch = commentNodeIds.subList(start, Math.min(commentsToDelete, start + batchSize));
+            StringBuilder parameters = new StringBuilder();
+            StringBuilder mutations = new StringBuilder();
+            Map<String, Object> variables = new HashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    parameters.append(", ");
+                }
+                parameters.append("$id").append(i).append(": ID!");
+                mutations.append("""
+                          delete%1$d: deleteIssueComment(input: {id: $id%1$d}) {
+                            clientMutationId
+                          }
+                        """.formatted(i));
+                variables.put("id" + i, batch.get(i));
+                // Each mutation counts separately towards secondary rate limits.
+                acquire(GitHubRateLimiter.Resource.MUTATION);
+            }
+            executeGraphQLQuery("mutation DeleteComments(" + parameters + ") {\n" + mutations + "}\n", variables);
+        }
+    }
+
+    /**
+     * Starts a search, fetching its first page,
+     * unless GitHub reports more results than a single search can return.
+     *
+     * @param iterable The search results.
+     * @return The search results, retrieved lazily after the first page,
+     *         or an empty optional if some results could not be retrieved.
+     */
+    private Optional<Stream<GHIssue>> searchUnlessTruncated(PagedSearchIterable<GHIssue> iterable) {
+        Iterator<GHIssue> iterator = Streams.toStream(iterable, () -> acquire(GitHubRateLimiter.Resource.SEARCH))
+                .iterator();
+        // Fetches the first page, which also tells us how many results there are in total.
+        iterator.hasNext();
+        if (iterable.getTotalCount() > MAX_SEARCH_RESULTS) {
+            return Optional.empty();
         }
+        return Optional.of(Streams.toStream(iterator));
     }
 
+    // Only used for searches.
     private Stream<GHIssue> toStreamWithPageSize(PagedIterable<GHIssue> iterable) {
-        return Streams.toStream(iterable.withPageSize(deploymentConfig.pageSize()));
+        return Streams.toStream(iterable.withPageSize(deploymentConfig.pageSize()),
+                () -> acquire(GitHubRateLimiter.Resource.SEARCH));
     }
 
-    private <T> Stream<T> toStreamWithoutPageSize(PagedIterable<T> iterable) {
+    private <T> Stream<T> toStreamWithoutPageSize(PagedIterable<T> iterable, GitHubRateLimiter.Resource resource) {
         // Don't apply page size here, that would be counter-productive as we generally don't need to fetch many items.
-        return Streams.toStream(iterable);
+        return Streams.toStream(iterable, () -> acquire(resource));
     }
 
 }
@@ -2,6 +2,9 @@ package io.quarkus.github.lottery.github;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -39,6 +42,10 @@ public final class GitHubSearchClauses {
         return "repo:" + ref.repositoryName();
     }
 
+    public static String isOpen() {
+        return "is:open";
+    }
+
     public static String isIssue() {
         return "is:issue";
     }
@@ -47,6 +54,34 @@ public final class GitHubSearchClauses {
         return label(String.join(",", labels));
     }
 
+    /**
+     * Splits labels into batches, so that {@link #anyLabel(Set) the clause matching any label of a batch}
+     * is at most {@code maxLength} characters long.
+     * <p>
+     * Labels that are too long to fit in such a clause on their own still get their own batch.
+     *
+     * @param labels GitHub labels.
+     * @param maxLength The maximum length of the clause for each batch.
+     * @return Batches of labels, preserving order.
+     */
+    public static List<Set<String>> anyLabelBatches(Set<String> labels, int maxLength) {
+        List<Set<String>> batches = new ArrayList<>();
+        Set<String> batch = new LinkedHashSet<>();
+        int batchClauseLength = 0;
+        for (String label : labels) {
+            if (!batch.isEmpty() && batchClauseLength + 1 + label.length() > maxLength) {
+                batches.add(batch);
+                batch = new LinkedHashSet<>();
+            }
+            batchClauseLength = batch.isEmpty() ? label(label).length() : batchClauseLength + 1 + label.length();
+            batch.add(label);
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
     public static String label(String label) {
         return "label:" + label;
     }
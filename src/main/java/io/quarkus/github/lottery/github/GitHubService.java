@@ -4,14 +4,19 @@ import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.quarkus.github.lottery.config.DeploymentConfig;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.quarkiverse.githubapp.GitHubClientProvider;
-import io.quarkiverse.githubapp.GitHubConfigFileProvider;
+import io.quarkiverse.githubapp.runtime.UtilsProducer;
 import io.quarkus.github.lottery.message.MessageFormatter;
+import io.quarkus.github.lottery.util.GitHubRateLimiter;
 import org.kohsuke.github.GHApp;
 import org.kohsuke.github.GHAppInstallation;
 import org.kohsuke.github.GHRepository;
@@ -26,10 +31,26 @@ public class GitHubService {
     Clock clock;
     @Inject
     GitHubClientProvider clientProvider;
+    // The mapper GitHubConfigFileProvider parses configuration files with, customized by ObjectMapperCustomizer.
+    // Not part of the public API of quarkus-github-app, but ObjectMapperCustomizer relies on it already.
     @Inject
-    GitHubConfigFileProvider configFileProvider;
+    @UtilsProducer.Yaml
+    ObjectMapper yamlObjectMapper;
     @Inject
     MessageFormatter messageFormatter;
+    @Inject
+    PermissionCache permissionCache;
+    @Inject
+    SearchCursorCache searchCursorCache;
+    @Inject
+    LastCommentCache lastCommentCache;
+    @Inject
+    CommentPacker commentPacker;
+    @Inject
+    LotteryConfigCache lotteryConfigCache;
+
+    // Rate limits apply per installation, so rate limiters must be shared by all repositories of an installation.
+    private final Map<Long, GitHubRateLimiter> rateLimiters = new ConcurrentHashMap<>();
 
     public List<GitHubRepositoryRef> listRepositories() throws IOException {
         List<GitHubRepositoryRef> result = new ArrayList<>();
@@ -39,7 +60,7 @@ public class GitHubService {
         for (GHAppInstallation installation : app.listInstallations()) {
             long installationId = installation.getId();
             var installationRef = new GitHubInstallationRef(appSlug, installationId);
-            for (GHRepository repository : clientProvider.getInstallationClient(installationId)
+            for (GHRepository repository : GitHubClientCustomizer.installationClient(clientProvider, installationId)
                     .getInstallation().listRepositories()) {
                 result.add(new GitHubRepositoryRef(installationRef, repository.getFullName()));
             }
@@ -48,6 +69,13 @@ public class GitHubService {
     }
 
     public GitHubRepository repository(GitHubRepositoryRef ref) {
-        return new GitHubRepository(deploymentConfig, clock, clientProvider, configFileProvider, messageFormatter, ref);
+        return new GitHubRepository(deploymentConfig, clock, clientProvider, yamlObjectMapper, messageFormatter, ref,
+                rateLimiter(ref.installationRef()), permissionCache, searchCursorCache, lastCommentCache,
+                commentPacker, lotteryConfigCache);
+    }
+
+    private GitHubRateLimiter rateLimiter(GitHubInstallationRef installationRef) {
+        return rateLimiters.computeIfAbsent(installationRef.installationId(),
+                ignored -> new GitHubRateLimiter(deploymentConfig.rateLimits()));
     }
 }
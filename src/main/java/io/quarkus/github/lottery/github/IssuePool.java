@@ -0,0 +1,68 @@
+package io.quarkus.github.lottery.github;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A pool of open issues or pull requests last updated before a cutoff,
+ * retrieved once and then filtered in memory,
+ * so that buckets searching for overlapping issues don't retrieve the same issues multiple times.
+ *
+ * @param cutoff The cutoff: all candidates were last updated before this instant.
+ * @param candidates The candidates, sorted by last update date, descending.
+ */
+public record IssuePool(Instant cutoff, List<Candidate> candidates) {
+
+    public IssuePool {
+        candidates = List.copyOf(candidates);
+    }
+
+    /**
+     * Lists issues or pull requests of this pool with the given label that were last updated before the given instant.
+     *
+     * @param label A GitHub label; if non-null, all returned issues must have been assigned that label.
+     * @param ignoreLabels GitHub labels. Issues assigned with any of these labels are ignored (not returned).
+     * @param updatedBefore An instant; all returned issues must have been last updated before that instant.
+     *        Must not be after the {@link #cutoff() cutoff} of this pool.
+     * @return A stream of matching issues, sorted by last update date, descending.
+     * @see GitHubRepository#issuesOrPullRequestsWithLabelLastUpdatedBefore(String, Set, Instant)
+     */
+    public Stream<Issue> issuesOrPullRequestsWithLabelLastUpdatedBefore(String label, Set<String> ignoreLabels,
+            Instant updatedBefore) {
+        if (updatedBefore.isAfter(cutoff)) {
+            throw new IllegalArgumentException("Cannot list issues last updated before " + updatedBefore
+                    + " from a pool of issues last updated before " + cutoff);
+        }
+        // GitHub matches labels regardless of case.
+        String normalizedLabel = label == null ? null : normalizeLabel(label);
+        Set<String> normalizedIgnoreLabels = normalizeLabels(ignoreLabels);
+        return candidates.stream()
+                .filter(candidate -> candidate.updatedAt().isBefore(updatedBefore)
+                        && (normalizedLabel == null || candidate.labels().contains(normalizedLabel))
+                        && candidate.labels().stream().noneMatch(normalizedIgnoreLabels::contains))
+                .map(Candidate::issue);
+    }
+
+    private static String normalizeLabel(String label) {
+        return label.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalizeLabels(Set<String> labels) {
+        return labels.stream().map(IssuePool::normalizeLabel).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @param issue The issue.
+     * @param labels The labels assigned to the issue.
+     * @param updatedAt When the issue was last updated.
+     */
+    public record Candidate(Issue issue, Set<String> labels, Instant updatedAt) {
+        public Candidate {
+            labels = normalizeLabels(labels);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.quarkus.github.lottery.github;
+
+import java.time.Duration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A cache of the node ID of the last comment the app posted on the dedicated issue of each topic,
+ * so that this comment can be minimized when posting the next one
+ * without scanning comments of the issue.
+ * <p>
+ * Shared by all repositories and preserved across draws, but not across restarts:
+ * when a comment is not in the cache, we fall back to scanning comments.
+ *
+ * @see GitHubRepository#topic(TopicRef)
+ */
+@ApplicationScoped
+public class LastCommentCache {
+
+    // Comments older than this are not worth minimizing; see GitHubRepository.Topic#update.
+    static final Duration MINIMIZATION_WINDOW = Duration.ofDays(21);
+    // There is one entry per topic, i.e. roughly one per participant and repository.
+    private static final int MAX_SIZE = 10_000;
+
+    private Cache<Key, String> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(MAX_SIZE)
+                .expireAfterWrite(MINIMIZATION_WINDOW)
+                .build();
+    }
+
+    /**
+     * @param repositoryName The full name of a repository.
+     * @param topic A topic in that repository.
+     * @return The node ID of the last comment the app posted on the dedicated issue of the given topic,
+     *         or {@code null} if unknown.
+     */
+    String get(String repositoryName, TopicRef topic) {
+        return cache.getIfPresent(new Key(repositoryName, topic));
+    }
+
+    void put(String repositoryName, TopicRef topic, String commentNodeId) {
+        cache.put(new Key(repositoryName, topic), commentNodeId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record Key(String repositoryName, TopicRef topic) {
+    }
+}
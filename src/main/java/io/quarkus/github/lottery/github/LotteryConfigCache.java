@@ -0,0 +1,68 @@
+package io.quarkus.github.lottery.github;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.github.lottery.config.LotteryConfig;
+
+/**
+ * A cache of parsed lottery configuration, keyed by repository and by SHA of the configuration file's blob,
+ * so that the configuration file only gets parsed again when it changes.
+ * <p>
+ * Shared by all repositories and preserved across draws, but not across restarts.
+ * Prewarmed when a pull request changing the configuration file gets merged,
+ * and cleared of outdated entries when GitHub notifies us of pushes changing the configuration file.
+ *
+ * @see io.quarkus.github.lottery.event.PullRequestConfigCheck
+ * @see io.quarkus.github.lottery.event.LotteryConfigCacheInvalidation
+ */
+@ApplicationScoped
+public class LotteryConfigCache {
+
+    // There is one entry per repository, except transiently when the configuration file changes.
+    private static final int MAX_SIZE = 1_000;
+
+    private Cache<Key, LotteryConfig> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(MAX_SIZE)
+                .build();
+    }
+
+    /**
+     * @param repositoryName The full name of a repository.
+     * @param blobSha The SHA of the blob of the configuration file in that repository.
+     * @return The configuration parsed from that blob, or {@code null} if not cached.
+     */
+    LotteryConfig get(String repositoryName, String blobSha) {
+        return cache.getIfPresent(new Key(repositoryName, blobSha));
+    }
+
+    public void put(String repositoryName, String blobSha, LotteryConfig config) {
+        cache.put(new Key(repositoryName, blobSha), config);
+    }
+
+    /**
+     * Removes configuration of the given repository parsed from any other blob than the given one.
+     *
+     * @param repositoryName The full name of a repository.
+     * @param blobSha The SHA of the current blob of the configuration file in that repository,
+     *        or {@code null} if the configuration file no longer exists.
+     */
+    public void retainOnly(String repositoryName, String blobSha) {
+        cache.asMap().keySet().removeIf(key -> key.repositoryName().equals(repositoryName)
+                && !key.blobSha().equals(blobSha));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record Key(String repositoryName, String blobSha) {
+    }
+}
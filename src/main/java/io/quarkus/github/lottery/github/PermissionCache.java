@@ -0,0 +1,73 @@
+package io.quarkus.github.lottery.github;
+
+import java.util.function.Function;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+
+/**
+ * A cache of the "side" (team or outsider) of users on repositories, regardless of context,
+ * as derived from their permissions.
+ * <p>
+ * Shared by all repositories and preserved across draws,
+ * and invalidated when GitHub notifies us of changes to collaborators or teams.
+ *
+ * @see io.quarkus.github.lottery.event.PermissionCacheInvalidation
+ */
+@ApplicationScoped
+public class PermissionCache {
+
+    @Inject
+    DeploymentConfig deploymentConfig;
+
+    private Cache<Key, IssueActionSide> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(deploymentConfig.permissionCache().maxSize())
+                .expireAfterWrite(deploymentConfig.permissionCache().ttl())
+                .build();
+    }
+
+    /**
+     * @param repositoryName The full name of a repository.
+     * @param login The login of a user.
+     * @param computer A function that computes the side of the given user, if not cached yet.
+     * @return The side of the given user on the given repository.
+     * @throws java.io.UncheckedIOException If {@code computer} throws it.
+     */
+    public IssueActionSide get(String repositoryName, String login, Function<String, IssueActionSide> computer) {
+        return cache.get(new Key(repositoryName, login), key -> computer.apply(key.login()));
+    }
+
+    public void invalidate(String repositoryName, String login) {
+        cache.invalidate(new Key(repositoryName, login));
+    }
+
+    public void invalidateLogin(String login) {
+        cache.asMap().keySet().removeIf(key -> key.login().equals(login));
+    }
+
+    public void invalidateRepository(String repositoryName) {
+        cache.asMap().keySet().removeIf(key -> key.repositoryName().equals(repositoryName));
+    }
+
+    public void invalidateOrganization(String organizationLogin) {
+        String prefix = organizationLogin + "/";
+        cache.asMap().keySet().removeIf(key -> key.repositoryName().startsWith(prefix));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record Key(String repositoryName, String login) {
+    }
+}
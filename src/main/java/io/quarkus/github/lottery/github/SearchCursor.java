@@ -0,0 +1,88 @@
+package io.quarkus.github.lottery.github;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The results of a search for open issues last updated before a cutoff,
+ * which can be updated incrementally when the cutoff moves forward.
+ * <p>
+ * This relies on any change to an issue (label, state, comment, ...) also changing its last update date.
+ * Thus, when the cutoff moves forward, results can only change in two ways:
+ * <ul>
+ * <li>issues last updated between the previous and the new cutoff may be added;</li>
+ * <li>issues that changed since the previous search may be removed.</li>
+ * </ul>
+ *
+ * @param cutoff The cutoff: all issues were last updated before this instant.
+ * @param searchedAt When results were last updated.
+ * @param fullySearchedAt When results were last retrieved through a full search, as opposed to incrementally.
+ * @param issues The issues, sorted by last update date, descending.
+ */
+record SearchCursor(Instant cutoff, Instant searchedAt, Instant fullySearchedAt, List<Issue> issues) {
+
+    // GitHub's search index may lag behind, so we always search a bit further in the past than strictly necessary.
+    static final Duration SEARCH_INDEX_LAG = Duration.ofMinutes(10);
+
+    static SearchCursor create(Instant cutoff, Instant searchedAt, List<Issue> issues) {
+        return new SearchCursor(cutoff, searchedAt, searchedAt, List.copyOf(issues));
+    }
+
+    /**
+     * @param newCutoff The new cutoff.
+     * @param oldestFullSearch The oldest acceptable full search; older results must be retrieved again from scratch.
+     * @return Whether results can be updated incrementally.
+     */
+    boolean canAdvanceTo(Instant newCutoff, Instant oldestFullSearch) {
+        return !newCutoff.isBefore(cutoff) && !fullySearchedAt.isBefore(oldestFullSearch);
+    }
+
+    /**
+     * @return The minimum last update date of issues that may have changed since results were last updated.
+     */
+    Instant changedSince() {
+        return searchedAt.minus(SEARCH_INDEX_LAG);
+    }
+
+    /**
+     * @return The minimum last update date of issues that may need to be added when the cutoff moves forward.
+     */
+    Instant addedSince() {
+        return cutoff.minus(SEARCH_INDEX_LAG);
+    }
+
+    /**
+     * @param newCutoff The new cutoff.
+     * @param newSearchedAt When {@code changedIssueNumbers} and {@code addedIssues} were retrieved.
+     * @param changedIssueNumbers Numbers of all issues, open or not, last updated after {@link #changedSince()}.
+     * @param addedIssues Open issues last updated between {@link #addedSince()} and {@code newCutoff},
+     *        sorted by last update date, descending.
+     * @return Updated results.
+     */
+    SearchCursor advance(Instant newCutoff, Instant newSearchedAt, Set<Integer> changedIssueNumbers,
+            List<Issue> addedIssues) {
+        Set<Integer> addedIssueNumbers = new HashSet<>();
+        // Added issues were last updated after all previous results, so they go first.
+        List<Issue> newIssues = new ArrayList<>(addedIssues);
+        for (Issue issue : addedIssues) {
+            addedIssueNumbers.add(issue.number());
+        }
+        for (Issue issue : issues) {
+            if (changedIssueNumbers.contains(issue.number())) {
+                // The issue changed: it may no longer match, and if it still does it's part of added issues.
+                continue;
+            }
+            if (addedIssueNumbers.contains(issue.number())) {
+                // Caught again because of SEARCH_INDEX_LAG.
+                continue;
+            }
+            newIssues.add(issue);
+        }
+        return new SearchCursor(newCutoff, newSearchedAt, fullySearchedAt, List.copyOf(newIssues));
+    }
+
+}
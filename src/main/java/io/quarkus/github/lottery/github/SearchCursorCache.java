@@ -0,0 +1,103 @@
+package io.quarkus.github.lottery.github;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+
+/**
+ * A cache of {@link SearchCursor search cursors}, so that searches can be updated incrementally from one draw to the next.
+ * <p>
+ * Shared by all repositories and preserved across draws, but not across restarts.
+ * <p>
+ * Optionally, also keeps track of changes to issues as notified by GitHub,
+ * so that searching for issues that changed is not necessary when updating search cursors.
+ *
+ * @see io.quarkus.github.lottery.event.SearchCursorUpdate
+ */
+@ApplicationScoped
+public class SearchCursorCache {
+
+    @Inject
+    DeploymentConfig deploymentConfig;
+
+    private Cache<Key, SearchCursor> cache;
+    private final Map<String, Map<Integer, Instant>> lastChangeByIssueNumberByRepository = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(deploymentConfig.incrementalSearch().maxSize())
+                // Cursors older than this would trigger a full search anyway.
+                .expireAfterWrite(deploymentConfig.incrementalSearch().fullSearchInterval())
+                .build();
+    }
+
+    /**
+     * @param repositoryName The full name of a repository.
+     * @param clauses Search clauses, excluding the repository and the last update date.
+     * @return The cursor for the given search, or {@code null}.
+     */
+    SearchCursor get(String repositoryName, List<String> clauses) {
+        return cache.getIfPresent(new Key(repositoryName, clauses));
+    }
+
+    void put(String repositoryName, List<String> clauses, SearchCursor cursor) {
+        cache.put(new Key(repositoryName, List.copyOf(clauses)), cursor);
+    }
+
+    /**
+     * @param repositoryName The full name of a repository.
+     * @param since An instant.
+     * @return Numbers of issues of the given repository that changed after the given instant,
+     *         as notified by GitHub through {@link #recordChange(String, int, Instant)}.
+     */
+    public Set<Integer> changedIssueNumbers(String repositoryName, Instant since) {
+        return lastChangeByIssueNumberByRepository.getOrDefault(repositoryName, Map.of()).entrySet().stream()
+                .filter(entry -> !entry.getValue().isBefore(since))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param repositoryName The full name of a repository.
+     * @param issueNumber The number of an issue or pull request that changed.
+     * @param instant When GitHub notified us of the change.
+     */
+    public void recordChange(String repositoryName, int issueNumber, Instant instant) {
+        var lastChangeByIssueNumber = lastChangeByIssueNumberByRepository.computeIfAbsent(repositoryName,
+                ignored -> new ConcurrentHashMap<>());
+        lastChangeByIssueNumber.merge(issueNumber, instant, (first, second) -> first.isAfter(second) ? first : second);
+        // Changes older than any search cursor are useless.
+        var oldest = instant.minus(deploymentConfig.incrementalSearch().fullSearchInterval())
+                .minus(SearchCursor.SEARCH_INDEX_LAG);
+        lastChangeByIssueNumber.values().removeIf(lastChange -> lastChange.isBefore(oldest));
+    }
+
+    void invalidate(String repositoryName, List<String> clauses) {
+        cache.invalidate(new Key(repositoryName, clauses));
+    }
+
+    public void invalidateRepository(String repositoryName) {
+        cache.asMap().keySet().removeIf(key -> key.repositoryName().equals(repositoryName));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        lastChangeByIssueNumberByRepository.clear();
+    }
+
+    private record Key(String repositoryName, List<String> clauses) {
+    }
+}
@@ -0,0 +1,14 @@
+package io.quarkus.github.lottery.github;
+
+import java.time.Instant;
+
+/**
+ * A comment on an issue dedicated to a {@link GitHubRepository#topic(TopicRef) topic}.
+ *
+ * @param issueNumber The number of the dedicated issue.
+ * @param id The ID of the comment.
+ * @param createdAt When the comment was created.
+ * @param body The markdown body of the comment.
+ */
+public record TopicComment(int issueNumber, long id, Instant createdAt, String body) {
+}
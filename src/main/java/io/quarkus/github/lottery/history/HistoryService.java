@@ -1,22 +1,26 @@
 package io.quarkus.github.lottery.history;
 
-import static io.quarkus.github.lottery.util.UncheckedIOFunction.uncheckedIO;
-
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import org.apache.commons.io.function.IOConsumer;
+
 import io.quarkus.github.lottery.config.LotteryConfig;
 import io.quarkus.github.lottery.draw.DrawRef;
 import io.quarkus.github.lottery.draw.LotteryReport;
 import io.quarkus.github.lottery.github.GitHubRepository;
 import io.quarkus.github.lottery.github.GitHubService;
+import io.quarkus.github.lottery.github.TopicComment;
 import io.quarkus.github.lottery.github.TopicRef;
 import io.quarkus.github.lottery.message.MessageFormatter;
 import io.quarkus.github.lottery.notification.NotificationService;
+import io.quarkus.logging.Log;
 
 @ApplicationScoped
 public class HistoryService {
@@ -25,26 +29,79 @@ public class HistoryService {
     GitHubService gitHubService;
     @Inject
     MessageFormatter messageFormatter;
+    @Inject
+    LocalHistoryStore localHistoryStore;
 
     public LotteryHistory fetch(DrawRef drawRef, LotteryConfig config) throws IOException {
-        var persistenceRepo = persistenceRepo(drawRef, config);
+        try (var persistenceRepo = persistenceRepo(drawRef, config)) {
+            return fetch(drawRef, config, persistenceRepo);
+        }
+    }
+
+    private LotteryHistory fetch(DrawRef drawRef, LotteryConfig config, GitHubRepository persistenceRepo)
+            throws IOException {
         var history = new LotteryHistory(drawRef.instant(), config.buckets());
-        persistenceRepo.topic(historyTopic(drawRef)).extractComments(history.since())
-                .flatMap(uncheckedIO(message -> messageFormatter.extractPayloadFromHistoryBodyMarkdown(message).stream()))
-                .forEach(history::add);
+        // Reports are added to the history as they are parsed, without collecting them first.
+        IOConsumer<String> messageConsumer = message -> messageFormatter.extractPayloadFromHistoryBodyMarkdown(message,
+                history::add);
+        var topic = persistenceRepo.topic(historyTopic(drawRef));
+        if (localHistoryStore.isEnabled()) {
+            fetchThroughLocalStore(drawRef, config, topic, history.since(), messageConsumer);
+        } else {
+            var messages = topic.extractComments(history.since()).iterator();
+            while (messages.hasNext()) {
+                messageConsumer.accept(messages.next());
+            }
+        }
         return history;
     }
 
+    private void fetchThroughLocalStore(DrawRef drawRef, LotteryConfig config, GitHubRepository.Topic topic,
+            Instant since, IOConsumer<String> messageConsumer) throws IOException {
+        String repositoryName = persistenceRepoName(config);
+        String topicText = messageFormatter.formatHistoryTopicText(drawRef);
+        var localLastComment = localHistoryStore.lastComment(repositoryName, topicText, since);
+        if (localLastComment.isPresent()) {
+            OptionalLong remoteLastCommentId = topic.lastAppCommentId(localLastComment.get().issueNumber());
+            if (remoteLastCommentId.isPresent() && remoteLastCommentId.getAsLong() == localLastComment.get().id()
+                    && localHistoryStore.forEachComment(repositoryName, topicText, since, messageConsumer)) {
+                return;
+            }
+            Log.infof("Local history for %s is outdated; retrieving history from GitHub", drawRef.repositoryRef());
+        }
+        List<TopicComment> comments = topic.comments(since).toList();
+        localHistoryStore.replace(repositoryName, topicText, since, comments);
+        for (TopicComment comment : comments) {
+            messageConsumer.accept(comment.body());
+        }
+    }
+
     public void append(DrawRef drawRef, LotteryConfig config, List<LotteryReport.Serialized> reports) throws IOException {
-        var persistenceRepo = persistenceRepo(drawRef, config);
         String body = messageFormatter.formatHistoryBodyMarkdown(drawRef, reports);
-        persistenceRepo.topic(historyTopic(drawRef)).update("", body, true);
+        Optional<TopicComment> comment;
+        try (var persistenceRepo = persistenceRepo(drawRef, config)) {
+            comment = persistenceRepo.topic(historyTopic(drawRef)).update("", body, true);
+        }
+        if (localHistoryStore.isEnabled()) {
+            String repositoryName = persistenceRepoName(config);
+            String topicText = messageFormatter.formatHistoryTopicText(drawRef);
+            if (comment.isPresent()) {
+                // The local copy was brought up-to-date when fetching history for this draw.
+                localHistoryStore.append(repositoryName, topicText, comment.get());
+            } else {
+                localHistoryStore.invalidate(repositoryName, topicText);
+            }
+        }
     }
 
     private TopicRef historyTopic(DrawRef drawRef) {
         return TopicRef.history(messageFormatter.formatHistoryTopicText(drawRef));
     }
 
+    private static String persistenceRepoName(LotteryConfig config) {
+        return config.notifications().createIssues().repository();
+    }
+
     GitHubRepository persistenceRepo(DrawRef drawRef, LotteryConfig config) {
         // We persist history to the same repository we send notifications to
         return NotificationService.notificationRepository(gitHubService, drawRef, config.notifications());
@@ -0,0 +1,304 @@
+package io.quarkus.github.lottery.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.commons.io.function.IOConsumer;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.github.lottery.github.TopicComment;
+import io.quarkus.logging.Log;
+
+/**
+ * A local, durable copy of history topics, so that history doesn't need to be retrieved from GitHub on each draw.
+ * <p>
+ * Each topic is stored in its own append-only file, as the start of the period it covers
+ * followed by a sequence of comments (issue number, comment ID, creation date, body).
+ * The last comment ID is compared with GitHub before using the local copy: on mismatch,
+ * or if comments are needed from before the start of the covered period,
+ * the local copy is replaced with comments retrieved from GitHub.
+ * <p>
+ * Corrupted files (e.g. truncated by a crash while appending) are simply considered missing.
+ *
+ * @see DeploymentConfig.HistoryCache
+ */
+@ApplicationScoped
+public class LocalHistoryStore {
+
+    // Bump when changing the file format; files with a different version are considered missing.
+    private static final int FORMAT_VERSION = 2;
+    private static final String FILE_EXTENSION = ".history";
+    // History comments are limited to 65536 characters by GitHub; this leaves some margin.
+    private static final int MAX_BODY_LENGTH = 1024 * 1024;
+
+    @Inject
+    DeploymentConfig deploymentConfig;
+
+    private Path directory;
+    // Draws run concurrently, but each topic is only used by one draw at a time,
+    // and local I/O is cheap: a single lock will do.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LocalHistoryStore() {
+    }
+
+    LocalHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @PostConstruct
+    void init() {
+        directory = deploymentConfig.historyCache().directory().orElse(null);
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Retrieves the last comment of the local copy of a topic,
+     * dropping comments created before {@code since} if they make up most of the file.
+     *
+     * @param repositoryName The full name of the repository the topic is persisted to.
+     * @param topic The topic.
+     * @param since The earliest instant comments will be needed for.
+     * @return The last comment of the local copy (without its body),
+     *         or an empty optional if there is no usable local copy
+     *         or if it doesn't cover comments since {@code since}.
+     * @throws IOException If reading the local copy fails.
+     */
+    public Optional<TopicComment> lastComment(String repositoryName, String topic, Instant since) throws IOException {
+        Path file = file(repositoryName, topic);
+        lock.lock();
+        try {
+            var counter = new IOConsumer<TopicComment>() {
+                TopicComment last;
+                int retained;
+                int dropped;
+
+                @Override
+                public void accept(TopicComment comment) {
+                    last = comment;
+                    if (comment.createdAt().isBefore(since)) {
+                        ++dropped;
+                    } else {
+                        ++retained;
+                    }
+                }
+            };
+            if (!read(file, since, false, counter)) {
+                return Optional.empty();
+            }
+            if (counter.dropped > counter.retained) {
+                compact(file, since);
+            }
+            return Optional.ofNullable(counter.last);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param repositoryName The full name of the repository the topic is persisted to.
+     * @param topic The topic.
+     * @param since The earliest instant comments are needed for; comments created before are ignored.
+     * @param consumer A consumer for comment bodies, in chronological order.
+     * @return {@code true} if the local copy could be read in full and covers comments since {@code since},
+     *         {@code false} otherwise.
+     * @throws IOException If reading the local copy fails.
+     */
+    public boolean forEachComment(String repositoryName, String topic, Instant since, IOConsumer<String> consumer)
+            throws IOException {
+        Path file = file(repositoryName, topic);
+        lock.lock();
+        try {
+            return read(file, since, true, comment -> {
+                if (!comment.createdAt().isBefore(since)) {
+                    consumer.accept(comment.body());
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the local copy of a topic.
+     *
+     * @param repositoryName The full name of the repository the topic is persisted to.
+     * @param topic The topic.
+     * @param since The instant comments were retrieved since.
+     * @param comments The comments of the topic created since {@code since}, in chronological order.
+     * @throws IOException If writing the local copy fails.
+     */
+    public void replace(String repositoryName, String topic, Instant since, List<TopicComment> comments)
+            throws IOException {
+        Path file = file(repositoryName, topic);
+        lock.lock();
+        try {
+            write(file, since, comments);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a comment to the local copy of a topic, if there is one.
+     * <p>
+     * Should only be called when the local copy is known to be up-to-date,
+     * i.e. when it was just used or replaced.
+     *
+     * @param repositoryName The full name of the repository the topic is persisted to.
+     * @param topic The topic.
+     * @param comment A comment that was just added to the topic.
+     * @throws IOException If writing the local copy fails.
+     */
+    public void append(String repositoryName, String topic, TopicComment comment) throws IOException {
+        Path file = file(repositoryName, topic);
+        lock.lock();
+        try {
+            if (!Files.exists(file)) {
+                // We'd be missing older comments: better retrieve everything from GitHub next time.
+                return;
+            }
+            try (var out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+                writeComment(out, comment);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the local copy of a topic, so that it will be retrieved from GitHub next time.
+     *
+     * @param repositoryName The full name of the repository the topic is persisted to.
+     * @param topic The topic.
+     * @throws IOException If deleting the local copy fails.
+     */
+    public void invalidate(String repositoryName, String topic) throws IOException {
+        Path file = file(repositoryName, topic);
+        lock.lock();
+        try {
+            Files.deleteIfExists(file);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Path file(String repositoryName, String topic) {
+        if (directory == null) {
+            throw new IllegalStateException("Local history store is disabled");
+        }
+        return directory.resolve(URLEncoder.encode(repositoryName + "#" + topic, StandardCharsets.UTF_8)
+                + FILE_EXTENSION);
+    }
+
+    private boolean read(Path file, Instant since, boolean withBody, IOConsumer<TopicComment> consumer)
+            throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                Log.infof("Ignoring local history file %s: unsupported format", file);
+                return false;
+            }
+            Instant coveredSince = Instant.ofEpochMilli(in.readLong());
+            if (since.isBefore(coveredSince)) {
+                // Older comments may exist on GitHub, but were never stored locally.
+                Log.infof("Ignoring local history file %s: only covers comments since %s", file, coveredSince);
+                return false;
+            }
+            while (true) {
+                int issueNumber;
+                try {
+                    issueNumber = in.readInt();
+                } catch (EOFException e) {
+                    // Clean end of file.
+                    return true;
+                }
+                long id = in.readLong();
+                Instant createdAt = Instant.ofEpochMilli(in.readLong());
+                int bodyLength = in.readInt();
+                if (bodyLength < 0 || bodyLength > MAX_BODY_LENGTH) {
+                    Log.warnf("Ignoring local history file %s: corrupted", file);
+                    return false;
+                }
+                String body = null;
+                if (withBody) {
+                    byte[] bytes = new byte[bodyLength];
+                    in.readFully(bytes);
+                    body = new String(bytes, StandardCharsets.UTF_8);
+                } else {
+                    in.skipNBytes(bodyLength);
+                }
+                consumer.accept(new TopicComment(issueNumber, id, createdAt, body));
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (EOFException e) {
+            Log.warnf("Ignoring local history file %s: truncated", file);
+            return false;
+        }
+    }
+
+    private void compact(Path file, Instant since) throws IOException {
+        Log.debugf("Compacting local history file %s", file);
+        var retained = new ArrayList<TopicComment>();
+        if (!read(file, since, true, comment -> {
+            if (!comment.createdAt().isBefore(since)) {
+                retained.add(comment);
+            }
+        })) {
+            return;
+        }
+        write(file, since, retained);
+    }
+
+    private void write(Path file, Instant since, List<TopicComment> comments) throws IOException {
+        Files.createDirectories(file.getParent());
+        // Write to a temporary file then move, so that the file is never partially written.
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(since.toEpochMilli());
+                for (TopicComment comment : comments) {
+                    writeComment(out, comment);
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void writeComment(DataOutputStream out, TopicComment comment) throws IOException {
+        byte[] body = comment.body().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(comment.issueNumber());
+        out.writeLong(comment.id());
+        out.writeLong(comment.createdAt().toEpochMilli());
+        out.writeInt(body.length);
+        out.write(body);
+    }
+
+}
@@ -10,6 +10,7 @@ import java.util.Optional;
 
 import io.quarkus.github.lottery.config.LotteryConfig;
 import io.quarkus.github.lottery.draw.LotteryReport;
+import io.quarkus.github.lottery.util.IntLongHashMap;
 
 public class LotteryHistory {
 
@@ -114,21 +115,24 @@ public class LotteryHistory {
     }
 
     public static class Bucket {
-        private final Instant notificationTimeoutCutoff;
-        private final Map<Integer, Instant> lastNotificationInstantByIssueNumber = new HashMap<>();
+        // Epoch milliseconds rather than Instants, and a primitive map rather than a HashMap,
+        // because histories may get large and this is checked for every candidate issue of every draw.
+        private final long notificationTimeoutCutoffEpochMilli;
+        private final IntLongHashMap lastNotificationEpochMilliByIssueNumber = new IntLongHashMap();
 
         public Bucket(Instant notificationTimeoutCutoff) {
-            this.notificationTimeoutCutoff = notificationTimeoutCutoff;
+            this.notificationTimeoutCutoffEpochMilli = notificationTimeoutCutoff.toEpochMilli();
         }
 
         public boolean lastNotificationTimedOutForIssueNumber(int issueNumber) {
-            return lastNotificationInstantByIssueNumber.getOrDefault(issueNumber, Instant.MIN)
-                    .isBefore(notificationTimeoutCutoff);
+            return lastNotificationEpochMilliByIssueNumber.getOrDefault(issueNumber, Long.MIN_VALUE)
+                    < notificationTimeoutCutoffEpochMilli;
         }
 
         private void add(Instant instant, LotteryReport.Bucket.Serialized bucket) {
+            long epochMilli = instant.toEpochMilli();
             for (int issueNumber : bucket.issueNumbers()) {
-                lastNotificationInstantByIssueNumber.merge(issueNumber, instant, LotteryHistory::max);
+                lastNotificationEpochMilliByIssueNumber.merge(issueNumber, epochMilli, Math::max);
             }
         }
 
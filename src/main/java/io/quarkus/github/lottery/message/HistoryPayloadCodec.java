@@ -0,0 +1,232 @@
+package io.quarkus.github.lottery.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import io.quarkus.github.lottery.draw.LotteryReport;
+
+/**
+ * A compact encoding of history payloads, i.e. lists of {@link LotteryReport.Serialized}.
+ * <p>
+ * Payloads are binary, deflated, then encoded in base64 so that they can be embedded in markdown.
+ * Numbers are encoded as variable-length integers, and issue numbers within a bucket are delta-encoded,
+ * since they are generally close to each other.
+ * <p>
+ * Encoded payloads start with a version prefix, so that the encoding can evolve,
+ * and so that they can be told apart from legacy JSON payloads.
+ */
+public final class HistoryPayloadCodec {
+
+    public static final String VERSION_PREFIX = "v2:";
+
+    // Buckets are encoded in this order; presence of each bucket is encoded as one bit in a bitmask.
+    private static final int BUCKET_COUNT = 6;
+    // GitHub usernames are limited to 39 characters; this leaves some margin.
+    private static final int MAX_USERNAME_LENGTH = 256;
+
+    private HistoryPayloadCodec() {
+    }
+
+    /**
+     * @param text A text containing a payload.
+     * @param start The index of the payload in {@code text}.
+     * @return Whether the payload is encoded with this codec, as opposed to a legacy JSON payload.
+     */
+    public static boolean isEncoded(String text, int start) {
+        return text.startsWith(VERSION_PREFIX, start);
+    }
+
+    public static String encode(List<LotteryReport.Serialized> reports) {
+        var bytes = new ByteArrayOutputStream();
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (var out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            writeVarLong(out, reports.size());
+            long previousEpochSecond = 0;
+            for (LotteryReport.Serialized report : reports) {
+                // Reports in a payload were generally produced by the same draw, so instants are often identical.
+                long epochSecond = report.instant().getEpochSecond();
+                writeVarLong(out, zigZag(epochSecond - previousEpochSecond));
+                previousEpochSecond = epochSecond;
+                writeVarLong(out, report.instant().getNano());
+                byte[] username = report.username().getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, username.length);
+                out.write(username);
+                List<Optional<LotteryReport.Bucket.Serialized>> buckets = buckets(report);
+                int presence = 0;
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    if (buckets.get(i).isPresent()) {
+                        presence |= 1 << i;
+                    }
+                }
+                out.writeByte(presence);
+                for (Optional<LotteryReport.Bucket.Serialized> bucket : buckets) {
+                    if (bucket.isPresent()) {
+                        writeIssueNumbers(out, bucket.get().issueNumbers());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Cannot happen when writing to memory.
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return VERSION_PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a payload, passing each report to the given consumer as soon as it's decoded.
+     * <p>
+     * The text is not copied, and reports are not collected, so that memory usage does not depend on the payload size.
+     *
+     * @param text A text containing a payload.
+     * @param start The index of the payload in {@code text} (inclusive).
+     * @param end The index of the end of the payload in {@code text} (exclusive).
+     * @param consumer A consumer for decoded reports.
+     * @throws IOException If the payload is invalid.
+     */
+    public static void decode(String text, int start, int end, Consumer<LotteryReport.Serialized> consumer)
+            throws IOException {
+        if (!isEncoded(text, start)) {
+            throw new IllegalArgumentException("Unsupported history payload version");
+        }
+        var inflater = new Inflater();
+        try (var in = new DataInputStream(new InflaterInputStream(
+                Base64.getDecoder().wrap(new Base64TextInputStream(text, start + VERSION_PREFIX.length(), end)),
+                inflater))) {
+            long reportCount = readVarLong(in);
+            long previousEpochSecond = 0;
+            for (long r = 0; r < reportCount; r++) {
+                long epochSecond = previousEpochSecond + unZigZag(readVarLong(in));
+                previousEpochSecond = epochSecond;
+                Instant instant = Instant.ofEpochSecond(epochSecond, readVarLong(in));
+                long usernameLength = readVarLong(in);
+                if (usernameLength > MAX_USERNAME_LENGTH) {
+                    throw new IOException("Invalid history payload: username too long");
+                }
+                byte[] username = new byte[(int) usernameLength];
+                in.readFully(username);
+                int presence = in.readUnsignedByte();
+                consumer.accept(new LotteryReport.Serialized(instant, new String(username, StandardCharsets.UTF_8),
+                        readBucket(in, presence, 0), readBucket(in, presence, 1), readBucket(in, presence, 2),
+                        readBucket(in, presence, 3), readBucket(in, presence, 4), readBucket(in, presence, 5)));
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static List<Optional<LotteryReport.Bucket.Serialized>> buckets(LotteryReport.Serialized report) {
+        return List.of(report.triage(), report.created(), report.feedbackNeeded(), report.feedbackProvided(),
+                report.stale(), report.stewardship());
+    }
+
+    private static void writeIssueNumbers(OutputStream out, List<Integer> issueNumbers) throws IOException {
+        writeVarLong(out, issueNumbers.size());
+        long previous = 0;
+        for (int issueNumber : issueNumbers) {
+            // Issue numbers are not necessarily sorted, so deltas may be negative.
+            writeVarLong(out, zigZag(issueNumber - previous));
+            previous = issueNumber;
+        }
+    }
+
+    // Must be called in bucket order, since it reads from the stream.
+    private static Optional<LotteryReport.Bucket.Serialized> readBucket(InputStream in, int presence, int index)
+            throws IOException {
+        if ((presence & (1 << index)) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new LotteryReport.Bucket.Serialized(readIssueNumbers(in)));
+    }
+
+    private static List<Integer> readIssueNumbers(InputStream in) throws IOException {
+        long count = readVarLong(in);
+        // Don't trust sizes for pre-allocation: the payload may have been tampered with.
+        List<Integer> issueNumbers = new ArrayList<>((int) Math.min(count, 1024));
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unZigZag(readVarLong(in));
+            issueNumbers.add((int) previous);
+        }
+        return issueNumbers;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated history payload");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid history payload: malformed variable-length integer");
+    }
+
+    /**
+     * Exposes base64 text embedded in a larger string as an input stream, without copying it.
+     * <p>
+     * Whitespace is ignored, in case line endings got altered.
+     */
+    private static final class Base64TextInputStream extends InputStream {
+        private final String text;
+        private final int end;
+        private int index;
+
+        Base64TextInputStream(String text, int start, int end) {
+            this.text = text;
+            this.index = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            while (index < end) {
+                char c = text.charAt(index++);
+                if (!Character.isWhitespace(c)) {
+                    // Non-ASCII characters are invalid in base64, and will be reported as such by the decoder.
+                    return c < 0x80 ? c : '?';
+                }
+            }
+            return -1;
+        }
+    }
+
+}
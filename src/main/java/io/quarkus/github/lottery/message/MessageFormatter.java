@@ -1,16 +1,21 @@
 package io.quarkus.github.lottery.message;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.github.lottery.config.LotteryConfig;
@@ -25,8 +30,6 @@ import io.quarkus.qute.TemplateInstance;
 @ApplicationScoped
 public class MessageFormatter {
 
-    private static final TypeReference<List<LotteryReport.Serialized>> LIST_OF_LOTTERY_REPORT_SERIALIZED = new TypeReference<>() {
-    };
     private static final String PAYLOAD_BEGIN = "<!--:payload:\n";
     private static final String PAYLOAD_END = "\n:payload:-->";
 
@@ -56,21 +59,55 @@ public class MessageFormatter {
         return Qute.fmt("Lottery history for {}", drawRef.repositoryRef().repositoryName());
     }
 
-    public String formatHistoryBodyMarkdown(DrawRef drawRef, List<LotteryReport.Serialized> reports)
-            throws JsonProcessingException {
+    public String formatHistoryBodyMarkdown(DrawRef drawRef, List<LotteryReport.Serialized> reports) {
         return Templates.historyBody(drawRef, reports,
-                PAYLOAD_BEGIN + jsonObjectMapper.writeValueAsString(reports) + PAYLOAD_END)
+                PAYLOAD_BEGIN + HistoryPayloadCodec.encode(reports) + PAYLOAD_END)
                 .render();
     }
 
-    public List<LotteryReport.Serialized> extractPayloadFromHistoryBodyMarkdown(String body) throws JsonProcessingException {
+    public List<LotteryReport.Serialized> extractPayloadFromHistoryBodyMarkdown(String body) throws IOException {
+        List<LotteryReport.Serialized> reports = new ArrayList<>();
+        extractPayloadFromHistoryBodyMarkdown(body, reports::add);
+        return reports;
+    }
+
+    /**
+     * Extracts the payload from the body of a history message,
+     * passing each report to the given consumer as soon as it's parsed.
+     * <p>
+     * Neither the body nor the payload are copied, so that memory usage does not depend on the size of the history.
+     *
+     * @param body The body of a history message.
+     * @param consumer A consumer for reports.
+     * @throws IOException If the payload cannot be parsed.
+     */
+    public void extractPayloadFromHistoryBodyMarkdown(String body, Consumer<LotteryReport.Serialized> consumer)
+            throws IOException {
         int beginIndex = body.indexOf(PAYLOAD_BEGIN);
         int endIndex = body.lastIndexOf(PAYLOAD_END);
         if (beginIndex < 0 || endIndex < 0) {
             throw new IllegalArgumentException("Cannot extract payload from " + body);
         }
-        return jsonObjectMapper.readValue(body.substring(beginIndex + PAYLOAD_BEGIN.length(), endIndex),
-                LIST_OF_LOTTERY_REPORT_SERIALIZED);
+        int payloadBeginIndex = beginIndex + PAYLOAD_BEGIN.length();
+        if (HistoryPayloadCodec.isEncoded(body, payloadBeginIndex)) {
+            HistoryPayloadCodec.decode(body, payloadBeginIndex, endIndex, consumer);
+            return;
+        }
+        // Legacy format, still found in older history comments.
+        try (var reader = new StringReader(body)) {
+            reader.skip(payloadBeginIndex);
+            try (JsonParser parser = jsonObjectMapper.createParser(reader)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "Expected an array of reports");
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    consumer.accept(jsonObjectMapper.readValue(parser, LotteryReport.Serialized.class));
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new JsonParseException(parser, "Expected the end of the array of reports");
+                }
+            }
+        }
     }
 
     @CheckedTemplate
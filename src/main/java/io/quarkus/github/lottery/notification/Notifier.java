@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import io.quarkus.github.lottery.draw.DrawRef;
 import io.quarkus.github.lottery.draw.LotteryReport;
+import io.quarkus.github.lottery.github.GitHubInstallationRef;
 import io.quarkus.github.lottery.github.GitHubRepository;
 import io.quarkus.github.lottery.github.TopicRef;
 import io.quarkus.github.lottery.message.MessageFormatter;
@@ -26,6 +27,14 @@ public class Notifier implements AutoCloseable {
         notificationRepository.close();
     }
 
+    /**
+     * @return The installation through which reports are sent,
+     *         which is not necessarily the installation of the repository the lottery is drawn for.
+     */
+    public GitHubInstallationRef installationRef() {
+        return notificationRepository.ref().installationRef();
+    }
+
     public boolean isIgnoring(String username) throws IOException {
         return notificationRepository.topic(notificationTopic(username))
                 .isClosed();
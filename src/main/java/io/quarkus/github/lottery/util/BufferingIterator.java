@@ -1,10 +1,12 @@
 package io.quarkus.github.lottery.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * An iterator that buffers the content of another iterator,
@@ -12,17 +14,36 @@ import java.util.function.Consumer;
  * <p>
  * This is useful for cases where one might want to skip some elements,
  * and get back to them later.
+ * <p>
+ * Buffered elements are stored in array slots linked together in iteration order,
+ * so that removing an element anywhere in the buffer doesn't require shifting other elements.
+ * Slots of removed elements get reclaimed when the arrays are full.
  *
  * @param <E> the type of elements returned by this iterator
  */
 public class BufferingIterator<E> implements Iterator<E> {
 
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+
     private final Iterator<E> delegate;
     private final int chunkSize;
     private final Consumer<? super List<E>> chunkProcessor;
 
-    private final List<E> buffer = new ArrayList<>();
-    private ListIterator<E> bufferIterator = buffer.listIterator();
+    private Object[] elements = new Object[DEFAULT_CAPACITY];
+    // For each slot, the slot of the next buffered element, or NONE.
+    private int[] nextSlots = new int[DEFAULT_CAPACITY];
+    // Number of slots in use, including slots of removed elements.
+    private int usedSlots;
+    private int bufferedCount;
+    private int headSlot = NONE;
+    private int tailSlot = NONE;
+
+    // The slot of the element last returned by next(), or NONE if at the start of the buffer.
+    private int currentSlot = NONE;
+    // The slot preceding currentSlot, or NONE; only relevant when removal is allowed.
+    private int previousSlot = NONE;
+    private boolean canRemove;
 
     /**
      * @param delegate A delegate iterator whose elements should be buffered.
@@ -37,15 +58,28 @@ public class BufferingIterator<E> implements Iterator<E> {
 
     @Override
     public boolean hasNext() {
-        return bufferIterator.hasNext() || delegate.hasNext();
+        return nextSlot() != NONE || delegate.hasNext();
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public E next() {
-        if (!bufferIterator.hasNext()) {
+        int slot = nextSlot();
+        if (slot == NONE) {
             loadChunkIntoBuffer();
+            slot = nextSlot();
+            if (slot == NONE) {
+                throw new NoSuchElementException();
+            }
         }
-        return bufferIterator.next();
+        previousSlot = currentSlot;
+        currentSlot = slot;
+        canRemove = true;
+        return (E) elements[slot];
+    }
+
+    private int nextSlot() {
+        return currentSlot == NONE ? headSlot : nextSlots[currentSlot];
     }
 
     private void loadChunkIntoBuffer() {
@@ -59,21 +93,115 @@ public class BufferingIterator<E> implements Iterator<E> {
         }
         chunkProcessor.accept(chunk);
 
+        // We only load chunks when reaching the end of the buffer,
+        // so appending new elements keeps our position right before them.
+        ensureCapacity(usedSlots + chunk.size());
         for (E newElement : chunk) {
-            bufferIterator.add(newElement);
+            int slot = usedSlots++;
+            elements[slot] = newElement;
+            nextSlots[slot] = NONE;
+            if (tailSlot == NONE) {
+                headSlot = slot;
+            } else {
+                nextSlots[tailSlot] = slot;
+            }
+            tailSlot = slot;
+        }
+        bufferedCount += chunk.size();
+    }
+
+    private void ensureCapacity(int requiredSlots) {
+        if (requiredSlots <= elements.length) {
+            return;
         }
-        // Get back to the initial position
-        for (int i = 0; i < chunk.size(); i++) {
-            bufferIterator.previous();
+        if (bufferedCount + (requiredSlots - usedSlots) <= elements.length / 2) {
+            // Most slots are taken by removed elements: reclaim them instead of growing.
+            compact();
+        } else {
+            int newCapacity = Math.max(elements.length * 2, requiredSlots);
+            elements = Arrays.copyOf(elements, newCapacity);
+            nextSlots = Arrays.copyOf(nextSlots, newCapacity);
         }
     }
 
+    // Moves buffered elements to the first slots, preserving order.
+    private void compact() {
+        Object[] newElements = new Object[elements.length];
+        int[] newNextSlots = new int[elements.length];
+        int newCurrentSlot = NONE;
+        int newPreviousSlot = NONE;
+        int newSlot = 0;
+        for (int slot = headSlot; slot != NONE; slot = nextSlots[slot], newSlot++) {
+            newElements[newSlot] = elements[slot];
+            newNextSlots[newSlot] = newSlot + 1;
+            if (slot == currentSlot) {
+                newCurrentSlot = newSlot;
+            }
+            if (slot == previousSlot) {
+                newPreviousSlot = newSlot;
+            }
+        }
+        elements = newElements;
+        nextSlots = newNextSlots;
+        usedSlots = newSlot;
+        headSlot = newSlot == 0 ? NONE : 0;
+        tailSlot = newSlot - 1;
+        if (tailSlot != NONE) {
+            nextSlots[tailSlot] = NONE;
+        }
+        currentSlot = newCurrentSlot;
+        previousSlot = newPreviousSlot;
+    }
+
     @Override
     public void remove() {
-        bufferIterator.remove();
+        if (!canRemove) {
+            throw new IllegalStateException();
+        }
+        unlink(currentSlot, previousSlot);
+        currentSlot = previousSlot;
+        canRemove = false;
+    }
+
+    private void unlink(int slot, int precedingSlot) {
+        int followingSlot = nextSlots[slot];
+        if (precedingSlot == NONE) {
+            headSlot = followingSlot;
+        } else {
+            nextSlots[precedingSlot] = followingSlot;
+        }
+        if (tailSlot == slot) {
+            tailSlot = precedingSlot;
+        }
+        elements[slot] = null;
+        bufferedCount--;
     }
 
     public void backToStart() {
-        bufferIterator = buffer.listIterator();
+        currentSlot = NONE;
+        previousSlot = NONE;
+        canRemove = false;
+    }
+
+    /**
+     * Removes buffered elements matching the given filter, then gets back to the start of the buffer.
+     * <p>
+     * Elements that haven't been fetched from the delegate yet are not affected.
+     *
+     * @param filter A filter returning {@code true} for elements to remove.
+     */
+    @SuppressWarnings("unchecked")
+    public void removeIf(Predicate<? super E> filter) {
+        int precedingSlot = NONE;
+        for (int slot = headSlot; slot != NONE;) {
+            int followingSlot = nextSlots[slot];
+            if (filter.test((E) elements[slot])) {
+                unlink(slot, precedingSlot);
+            } else {
+                precedingSlot = slot;
+            }
+            slot = followingSlot;
+        }
+        backToStart();
     }
 }
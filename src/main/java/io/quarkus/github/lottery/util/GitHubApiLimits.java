@@ -2,9 +2,12 @@ package io.quarkus.github.lottery.util;
 
 import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.kohsuke.github.GHException;
+import org.kohsuke.github.GHIOException;
 
 import io.quarkus.logging.Log;
 
@@ -12,6 +15,8 @@ import io.quarkus.logging.Log;
  * Utility for managing GitHub API rate limits and throttling.
  * <p>
  * Handles both secondary rate limit retries and proactive throttling to avoid hitting limits.
+ *
+ * @see GitHubRateLimiter
  */
 public final class GitHubApiLimits {
 
@@ -23,11 +28,6 @@ public final class GitHubApiLimits {
             "github.lottery.github-api.retry-wait-millis",
             61 * 1000);
 
-    // Throttle mutations (writes/deletes) more conservatively
-    private static final long MUTATION_THROTTLE_MILLIS = Long.getLong(
-            "github.lottery.github-api.mutation-throttle-millis",
-            1000);
-
     // Throttle reads less aggressively
     private static final long READ_THROTTLE_MILLIS = Long.getLong(
             "github.lottery.github-api.read-throttle-millis",
@@ -46,14 +46,16 @@ public final class GitHubApiLimits {
      */
     public static <T> T executeWithRetry(Supplier<T> action) {
         RuntimeException rateLimitException = null;
+        long retryWaitMillis = RETRY_WAIT_MILLIS;
         for (int i = 0; i < MAX_RETRY; i++) {
             if (rateLimitException != null) {
-                waitBeforeRetry();
+                waitBeforeRetry(retryWaitMillis);
             }
             try {
                 return action.get();
             } catch (RuntimeException e) {
                 if (isSecondaryRateLimitReached(e)) {
+                    retryWaitMillis = retryAfterMillis(e).orElse(RETRY_WAIT_MILLIS);
                     if (rateLimitException == null) {
                         rateLimitException = e;
                     } else {
@@ -86,31 +88,39 @@ public final class GitHubApiLimits {
                 && e.getCause() != null && e.getCause().getMessage().contains("secondary rate limit");
     }
 
-    private static void waitBeforeRetry() {
-        Log.infof("GitHub API reached a secondary rate limit; waiting %s ms before retrying...", RETRY_WAIT_MILLIS);
-        try {
-            Thread.sleep(RETRY_WAIT_MILLIS);
-        } catch (InterruptedException ex) {
-            throw new UncheckedIOException((InterruptedIOException) new InterruptedIOException().initCause(ex));
+    // GitHub may tell us how long to wait, in seconds, through the Retry-After header.
+    private static OptionalLong retryAfterMillis(RuntimeException e) {
+        if (!(e.getCause() instanceof GHIOException cause) || cause.getResponseHeaderFields() == null) {
+            return OptionalLong.empty();
+        }
+        for (var header : cause.getResponseHeaderFields().entrySet()) {
+            if (!"Retry-After".equalsIgnoreCase(header.getKey())
+                    || header.getValue() == null || header.getValue().isEmpty()) {
+                continue;
+            }
+            try {
+                return OptionalLong.of(TimeUnit.SECONDS.toMillis(Long.parseLong(header.getValue().get(0).trim())));
+            } catch (NumberFormatException ignored) {
+                // Possibly an HTTP date; just use the default.
+            }
         }
+        return OptionalLong.empty();
     }
 
-    /**
-     * Sleeps for the mutation throttling delay to avoid triggering secondary rate limits.
-     * Should be called between mutation operations (writes, deletes).
-     */
-    public static void sleepForMutationThrottling() {
+    private static void waitBeforeRetry(long retryWaitMillis) {
+        Log.infof("GitHub API reached a secondary rate limit; waiting %s ms before retrying...", retryWaitMillis);
         try {
-            Thread.sleep(MUTATION_THROTTLE_MILLIS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new UncheckedIOException((InterruptedIOException) new InterruptedIOException().initCause(e));
+            Thread.sleep(retryWaitMillis);
+        } catch (InterruptedException ex) {
+            throw new UncheckedIOException((InterruptedIOException) new InterruptedIOException().initCause(ex));
         }
     }
 
     /**
      * Sleeps for the read throttling delay to avoid triggering secondary rate limits.
      * Should be called between read operations.
+     * <p>
+     * Only useful when no {@link GitHubRateLimiter} is available.
      */
     public static void sleepForReadThrottling() {
         try {
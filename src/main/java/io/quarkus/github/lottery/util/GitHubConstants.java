@@ -7,4 +7,7 @@ public final class GitHubConstants {
 
     public static final String BOT_LOGIN_SUFFIX = "[bot]";
 
+    // Login of the user that replaces deleted accounts.
+    public static final String GHOST_LOGIN = "ghost";
+
 }
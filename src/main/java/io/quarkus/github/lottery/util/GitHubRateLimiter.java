@@ -0,0 +1,194 @@
+package io.quarkus.github.lottery.util;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GitHub;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.logging.Log;
+
+/**
+ * A rate limiter for calls to the GitHub API through a given GitHub App installation.
+ * <p>
+ * Each {@link Resource} gets its own token bucket, continuously refilled at a configurable rate,
+ * so as to avoid triggering GitHub's secondary rate limits.
+ * <p>
+ * On top of that, the limiter adapts to the primary rate limits reported by GitHub
+ * (the {@code X-RateLimit-Remaining}/{@code X-RateLimit-Reset} headers as parsed by the GitHub client,
+ * or the {@code rateLimit} field of GraphQL responses):
+ * when the remaining budget gets low, calls are spread evenly until the budget gets reset.
+ * <p>
+ * Instances are thread-safe, and meant to be shared by everything that uses the same installation.
+ */
+public final class GitHubRateLimiter {
+
+    public enum Resource {
+        /**
+         * Calls to the REST search API.
+         */
+        SEARCH,
+        /**
+         * Calls to the REST API that don't change anything.
+         */
+        READ,
+        /**
+         * Calls to the REST or GraphQL API that change something (creation, update, deletion, ...).
+         */
+        MUTATION,
+        /**
+         * Calls to the GraphQL API that don't change anything.
+         */
+        GRAPHQL
+    }
+
+    // Below this ratio of remaining primary rate limit budget, we start spreading calls until the budget gets reset.
+    private static final double LOW_BUDGET_RATIO = 0.1;
+
+    private final Map<Resource, Bucket> buckets = new EnumMap<>(Resource.class);
+
+    public GitHubRateLimiter(DeploymentConfig.RateLimits config) {
+        // GitHub limits searches per minute, so bursts are fine.
+        buckets.put(Resource.SEARCH, new Bucket(Resource.SEARCH, config.searchesPerMinute(), config.searchesPerMinute()));
+        buckets.put(Resource.READ, new Bucket(Resource.READ, config.readsPerMinute(), config.readsPerMinute() / 10));
+        // GitHub recommends waiting at least one second between mutations, so no bursts.
+        buckets.put(Resource.MUTATION, new Bucket(Resource.MUTATION, config.mutationsPerMinute(), 1));
+        buckets.put(Resource.GRAPHQL,
+                new Bucket(Resource.GRAPHQL, config.graphqlQueriesPerMinute(), config.graphqlQueriesPerMinute() / 10));
+    }
+
+    /**
+     * Waits until a call to the given resource is allowed.
+     * <p>
+     * Must be called right before each call to the GitHub API (or before fetching each page, for paged calls).
+     *
+     * @param resource The resource that will be called.
+     * @param client The client that will perform the call.
+     *        The primary rate limit it last observed is taken into account, unless it is outdated.
+     * @throws UncheckedIOException If interrupted while waiting.
+     */
+    public void acquire(Resource resource, GitHub client) {
+        Bucket bucket = buckets.get(resource);
+        GHRateLimit.Record primaryRateLimit = lastObservedPrimaryRateLimit(resource, client);
+        if (primaryRateLimit != null) {
+            bucket.observe(primaryRateLimit.getLimit(), primaryRateLimit.getRemaining(),
+                    TimeUnit.SECONDS.toMillis(primaryRateLimit.getResetEpochSeconds()));
+        }
+        long waitNanos = bucket.reserve(System.nanoTime(), System.currentTimeMillis());
+        if (waitNanos <= 0) {
+            return;
+        }
+        if (waitNanos >= TimeUnit.SECONDS.toNanos(10)) {
+            Log.infof("Throttling calls to the GitHub API (%s): waiting %s ms", resource,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException((InterruptedIOException) new InterruptedIOException().initCause(e));
+        }
+    }
+
+    /**
+     * Records the GraphQL primary rate limit, as reported by GitHub in the {@code rateLimit} field of a GraphQL response.
+     * <p>
+     * The GitHub client doesn't see GraphQL responses, so this is the only way for this limiter to know about this budget.
+     *
+     * @param limit The maximum number of points per hour.
+     * @param remaining The number of points remaining until the next reset.
+     * @param resetAt When the budget will be reset.
+     */
+    public void observeGraphQLRateLimit(int limit, int remaining, Instant resetAt) {
+        buckets.get(Resource.GRAPHQL).observe(limit, remaining, resetAt.toEpochMilli());
+    }
+
+    private GHRateLimit.Record lastObservedPrimaryRateLimit(Resource resource, GitHub client) {
+        if (Resource.GRAPHQL.equals(resource)) {
+            // See observeGraphQLRateLimit
+            return null;
+        }
+        GHRateLimit rateLimit = client.lastRateLimit();
+        if (rateLimit == null) {
+            return null;
+        }
+        return Resource.SEARCH.equals(resource) ? rateLimit.getSearch() : rateLimit.getCore();
+    }
+
+    private static final class Bucket {
+        private final Resource resource;
+        private final double permitsPerNano;
+        private final double capacity;
+
+        private double permits;
+        private long lastRefillNanos;
+
+        private int primaryLimit = -1;
+        private int primaryRemaining = -1;
+        private long primaryResetEpochMillis;
+        private long nextPrimarySlotNanos;
+
+        Bucket(Resource resource, int permitsPerMinute, int capacity) {
+            this.resource = resource;
+            this.permitsPerNano = (double) permitsPerMinute / TimeUnit.MINUTES.toNanos(1);
+            this.capacity = Math.max(1, capacity);
+            this.permits = this.capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized void observe(int limit, int remaining, long resetEpochMillis) {
+            if (limit <= 0 || resetEpochMillis < primaryResetEpochMillis
+                    // Within a given window, the remaining budget only decreases:
+                    // a higher value means this was observed before calls we already accounted for.
+                    || resetEpochMillis == primaryResetEpochMillis && remaining >= primaryRemaining) {
+                // Unknown or outdated.
+                return;
+            }
+            primaryLimit = limit;
+            primaryRemaining = remaining;
+            primaryResetEpochMillis = resetEpochMillis;
+        }
+
+        /**
+         * Reserves a permit.
+         *
+         * @return How long the caller must wait before using the permit, in nanoseconds.
+         */
+        synchronized long reserve(long nowNanos, long nowEpochMillis) {
+            // Token bucket: permits may go negative, in which case callers will wait for their turn.
+            permits = Math.min(capacity, permits + (nowNanos - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = nowNanos;
+            long bucketWaitNanos = permits >= 1 ? 0 : (long) Math.ceil((1 - permits) / permitsPerNano);
+            permits -= 1;
+
+            return Math.max(bucketWaitNanos, reservePrimarySlot(nowNanos, nowEpochMillis));
+        }
+
+        private long reservePrimarySlot(long nowNanos, long nowEpochMillis) {
+            long untilResetMillis = primaryResetEpochMillis - nowEpochMillis;
+            if (primaryRemaining < 0 || untilResetMillis <= 0
+                    || primaryRemaining >= primaryLimit * LOW_BUDGET_RATIO) {
+                // Unknown budget, budget already reset, or enough budget left: nothing to do.
+                return 0;
+            }
+            long untilResetNanos = TimeUnit.MILLISECONDS.toNanos(untilResetMillis);
+            long slotNanos;
+            if (primaryRemaining == 0) {
+                Log.debugf("Primary rate limit of the GitHub API (%s) reached; waiting for reset", resource);
+                slotNanos = Math.max(nowNanos + untilResetNanos, nextPrimarySlotNanos);
+            } else {
+                // Spread the remaining calls evenly until the reset.
+                slotNanos = Math.max(nowNanos, nextPrimarySlotNanos);
+                nextPrimarySlotNanos = slotNanos + untilResetNanos / primaryRemaining;
+                // Account for this call until we get a fresh observation.
+                primaryRemaining--;
+            }
+            return slotNanos - nowNanos;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.quarkus.github.lottery.util;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A map from {@code int} keys to {@code long} values, using open addressing with linear probing.
+ * <p>
+ * Unlike a {@code HashMap<Integer, ...>}, this doesn't box keys or values, nor allocate one entry object per mapping:
+ * everything is stored in two arrays.
+ * <p>
+ * Removal is not supported. Not thread-safe.
+ */
+public final class IntLongHashMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    // Low enough that linear probing stays short, high enough that we don't waste too much memory.
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // Key 0 marks empty slots, so the mapping for key 0 (if any) is stored separately.
+    private boolean hasZeroKey;
+    private long zeroKeyValue;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public IntLongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize The expected number of mappings; used to avoid resizing.
+     */
+    public IntLongHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key A key.
+     * @param defaultValue A default value.
+     * @return The value mapped to {@code key}, or {@code defaultValue} if there is none.
+     */
+    public long getOrDefault(int key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroKeyValue : defaultValue;
+        }
+        for (int slot = slot(key);; slot = (slot + 1) & mask) {
+            int candidate = keys[slot];
+            if (candidate == key) {
+                return values[slot];
+            }
+            if (candidate == 0) {
+                return defaultValue;
+            }
+        }
+    }
+
+    public void put(int key, long value) {
+        merge(key, value, (oldValue, newValue) -> newValue);
+    }
+
+    /**
+     * Maps {@code key} to {@code value} if there is no mapping yet,
+     * or to the result of {@code remappingFunction} applied to the existing and given values otherwise.
+     *
+     * @param key A key.
+     * @param value A value.
+     * @param remappingFunction A function to merge the existing value with {@code value}.
+     */
+    public void merge(int key, long value, LongBinaryOperator remappingFunction) {
+        if (key == 0) {
+            if (hasZeroKey) {
+                zeroKeyValue = remappingFunction.applyAsLong(zeroKeyValue, value);
+            } else {
+                hasZeroKey = true;
+                zeroKeyValue = value;
+                ++size;
+            }
+            return;
+        }
+        int slot = slot(key);
+        while (true) {
+            int candidate = keys[slot];
+            if (candidate == key) {
+                values[slot] = remappingFunction.applyAsLong(values[slot], value);
+                return;
+            }
+            if (candidate == 0) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    private int slot(int key) {
+        // Issue numbers are sequential: scramble them so that they don't cluster.
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int slot = slot(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int result = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(result, 2);
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.quarkus.github.lottery.util;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.quarkus.logging.Log;
+
+/**
+ * An iterator that retrieves elements from another iterator in a background (virtual) thread,
+ * ahead of consumption.
+ * <p>
+ * This is useful when the delegate iterator performs slow I/O (e.g. GitHub API calls),
+ * so that this I/O can be performed while the consumer processes previous elements.
+ * <p>
+ * The first element is retrieved by the consumer itself, and prefetching only starts once it has been consumed,
+ * so that an iterator that ends up not being consumed doesn't trigger any I/O.
+ * <p>
+ * Must be {@link #close() closed} when no longer needed, to stop retrieving elements.
+ *
+ * @param <E> the type of elements returned by this iterator
+ */
+public class PrefetchingIterator<E> implements Iterator<E>, AutoCloseable {
+
+    private static final Object END = new Object();
+    // How often the background thread checks whether this iterator got closed, when the queue is full.
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String name;
+    private final Iterator<E> delegate;
+    private final BlockingQueue<Object> queue;
+
+    private Thread producer;
+    // Interrupting the background thread is not enough, since some I/O clients swallow interrupts.
+    private volatile boolean closed;
+
+    private Object next;
+
+    /**
+     * @param name A name for the background thread.
+     * @param delegate A delegate iterator whose elements should be prefetched.
+     *        Will be used exclusively from a background thread once the first element has been consumed.
+     * @param capacity The maximum number of elements to prefetch.
+     */
+    public PrefetchingIterator(String name, Iterator<E> delegate, int capacity) {
+        this.name = name;
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    private void produce() {
+        try {
+            while (delegate.hasNext()) {
+                if (!enqueue(delegate.next())) {
+                    return;
+                }
+            }
+            enqueue(END);
+        } catch (InterruptedException e) {
+            // Closed: stop prefetching.
+        } catch (RuntimeException | Error e) {
+            try {
+                enqueue(new Failure(e));
+            } catch (InterruptedException ignored) {
+                // Closed: no one will consume the failure.
+            }
+        }
+    }
+
+    // Returns false if closed before the element could be added to the queue.
+    private boolean enqueue(Object element) throws InterruptedException {
+        while (!queue.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (closed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (producer == null) {
+                next = delegate.hasNext() ? delegate.next() : END;
+            } else {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException((InterruptedIOException) new InterruptedIOException().initCause(e));
+                }
+            }
+        }
+        if (next instanceof Failure failure) {
+            // Propagate the failure to the consumer, every time it attempts to consume.
+            if (failure.throwable() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) failure.throwable();
+        }
+        return next != END;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        @SuppressWarnings("unchecked")
+        E element = (E) next;
+        next = null;
+        if (producer == null && !closed) {
+            producer = Thread.ofVirtual().name("prefetch-" + name).start(this::produce);
+        }
+        return element;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (producer == null) {
+            return;
+        }
+        producer.interrupt();
+        try {
+            if (!producer.join(CLOSE_TIMEOUT)) {
+                Log.warnf("Prefetching thread %s did not stop within %s", producer.getName(), CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Failure(Throwable throwable) {
+    }
+}
@@ -1,9 +1,10 @@
 package io.quarkus.github.lottery.util;
 
 import static io.quarkus.github.lottery.util.GitHubApiLimits.executeWithRetry;
-import static io.quarkus.github.lottery.util.GitHubApiLimits.sleepForReadThrottling;
 
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import org.kohsuke.github.PagedIterator;
 
@@ -11,19 +12,43 @@ import org.kohsuke.github.PagedIterator;
 class RetryingIterator<T> implements Iterator<T> {
 
     private final PagedIterator<T> delegate;
+    private final Runnable beforePageFetch;
 
-    public RetryingIterator(PagedIterator<T> delegate) {
+    // Elements of the last fetched page that haven't been returned yet.
+    private Iterator<T> currentPage = Collections.emptyIterator();
+    private boolean exhausted = false;
+
+    public RetryingIterator(PagedIterator<T> delegate, Runnable beforePageFetch) {
         this.delegate = delegate;
+        this.beforePageFetch = beforePageFetch;
     }
 
     @Override
     public boolean hasNext() {
-        return executeWithRetry(delegate::hasNext);
+        // Pages may be empty (e.g. if elements got filtered out),
+        // in which case we need to move on to the next page.
+        while (!currentPage.hasNext()) {
+            if (exhausted) {
+                return false;
+            }
+            // We consumed the whole page that was fetched previously,
+            // so the delegate will need to perform an HTTP request:
+            // that's the only time we need to throttle.
+            beforePageFetch.run();
+            if (!executeWithRetry(delegate::hasNext)) {
+                exhausted = true;
+                return false;
+            }
+            currentPage = executeWithRetry(delegate::nextPage).iterator();
+        }
+        return true;
     }
 
     @Override
     public T next() {
-        sleepForReadThrottling();
-        return executeWithRetry(delegate::next);
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
     }
 }
@@ -66,13 +66,49 @@ public final class Streams {
         };
     }
 
+    /**
+     * @param stream A stream.
+     * @param batchSize The maximum size of each batch.
+     * @return A lazily populated stream of consecutive, non-empty batches of elements from the given stream.
+     */
+    public static <T> Stream<List<T>> batch(Stream<T> stream, int batchSize) {
+        Iterator<T> iterator = stream.iterator();
+        return toStream(new Iterator<List<T>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                return batch;
+            }
+        }).onClose(stream::close);
+    }
+
     public static <T> Stream<T> toStream(PagedIterable<T> iterable) {
-        return StreamSupport.stream(spliterator(iterable), false);
+        return toStream(iterable, GitHubApiLimits::sleepForReadThrottling);
+    }
+
+    /**
+     * @param iterable A paged iterable, i.e. the result of a GitHub API call.
+     * @param beforePageFetch An action to run before each page gets fetched from GitHub, e.g. for throttling.
+     * @return A stream of the elements returned by the iterable.
+     */
+    public static <T> Stream<T> toStream(PagedIterable<T> iterable, Runnable beforePageFetch) {
+        return StreamSupport.stream(spliterator(iterable, beforePageFetch), false);
     }
 
-    private static <T> Spliterator<T> spliterator(PagedIterable<T> iterable) {
+    private static <T> Spliterator<T> spliterator(PagedIterable<T> iterable, Runnable beforePageFetch) {
         var pagedIterator = iterable.iterator();
-        var workaroundIterator = new RetryingIterator<>(pagedIterator);
+        var workaroundIterator = new RetryingIterator<>(pagedIterator, beforePageFetch);
         return Spliterators.spliteratorUnknownSize(workaroundIterator, 0);
     }
 
@@ -0,0 +1,175 @@
+package io.quarkus.github.lottery;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static io.quarkus.github.lottery.util.MockHelper.mockIssueComment;
+import static io.quarkus.github.lottery.util.MockHelper.mockIssueForNotification;
+import static io.quarkus.github.lottery.util.MockHelper.mockPagedIterable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHIssueCommentQueryBuilder;
+import org.kohsuke.github.GHIssueSearchBuilder;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHUser;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.github.lottery.github.GitHubInstallationRef;
+import io.quarkus.github.lottery.github.GitHubRepositoryRef;
+import io.quarkus.github.lottery.github.GitHubService;
+import io.quarkus.github.lottery.github.LastCommentCache;
+import io.quarkus.github.lottery.github.TopicRef;
+import io.quarkus.github.lottery.message.MessageFormatter;
+import io.quarkus.github.lottery.util.CommentMinimizationBatchProfile;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@GitHubAppTest
+@ExtendWith(MockitoExtension.class)
+@TestProfile(CommentMinimizationBatchProfile.class)
+public class CommentMinimizationBatchTest {
+
+    private final GitHubInstallationRef installationRef = new GitHubInstallationRef("quarkus-github-lottery", 1234L);
+
+    @Inject
+    GitHubService gitHubService;
+
+    @Inject
+    LastCommentCache lastCommentCache;
+
+    MessageFormatter messageFormatterMock;
+
+    @BeforeEach
+    void setup() {
+        lastCommentCache.invalidateAll();
+        messageFormatterMock = Mockito.mock(MessageFormatter.class);
+        QuarkusMock.installMockForType(messageFormatterMock, MessageFormatter.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void minimizeOnClose() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus-lottery-reports");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        var clockMock = Clock.fixed(now, ZoneOffset.UTC);
+        QuarkusMock.installMockForType(clockMock, Clock.class);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        var issue1QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        var issue2QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    var mySelfMock = mocks.ghObject(GHUser.class, 1L);
+                    when(mySelfMock.getLogin()).thenReturn(installationRef.appLogin());
+
+                    var issue1Mock = mockIssueForNotification(mocks, 1,
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
+                    when(issue1Mock.getState()).thenReturn(GHIssueState.OPEN);
+                    when(issue1Mock.getCommentsCount()).thenReturn(1);
+                    when(issue1Mock.queryComments()).thenReturn(issue1QueryCommentsBuilderMock);
+                    var issue1CommentMock = mockIssueComment(mocks, 101, mySelfMock);
+                    when(issue1CommentMock.getNodeId()).thenReturn("comment101");
+                    when(issue1QueryCommentsBuilderMock.list()).thenReturn(mockPagedIterable(issue1CommentMock));
+                    var issue1NewCommentMock = mocks.issueComment(102);
+                    when(issue1NewCommentMock.getNodeId()).thenReturn("comment102");
+                    when(issue1NewCommentMock.getCreatedAt()).thenReturn(Date.from(now.plusSeconds(2)));
+                    when(issue1Mock.comment("Some content 1")).thenReturn(issue1NewCommentMock);
+
+                    var issue2Mock = mockIssueForNotification(mocks, 2,
+                            "gsmet's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "gsmet");
+                    when(issue2Mock.getState()).thenReturn(GHIssueState.OPEN);
+                    when(issue2Mock.getCommentsCount()).thenReturn(1);
+                    when(issue2Mock.queryComments()).thenReturn(issue2QueryCommentsBuilderMock);
+                    var issue2CommentMock = mockIssueComment(mocks, 201, mySelfMock);
+                    when(issue2CommentMock.getNodeId()).thenReturn("comment201");
+                    when(issue2QueryCommentsBuilderMock.list()).thenReturn(mockPagedIterable(issue2CommentMock));
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+
+                    when(messageFormatterMock.formatDedicatedIssueBodyMarkdown(anyString(), anyString()))
+                            .thenReturn("Dedicated issue body");
+                })
+                .when(() -> {
+                    try (var repo = gitHubService.repository(repoRef)) {
+                        assertThat(repo.topic(TopicRef.notification("yrodiere", "yrodiere's report for quarkusio/quarkus"))
+                                .update(" (updated 2017-11-06T06:00:00Z)", "Some content 1", true))
+                                .hasValueSatisfying(comment -> assertThat(comment.createdAt())
+                                        .isEqualTo(now.plusSeconds(2)));
+                        repo.topic(TopicRef.notification("gsmet", "gsmet's report for quarkusio/quarkus"))
+                                .update(" (updated 2017-11-06T06:00:00Z)", "Some content 2", false);
+                    }
+                    // The comment we just posted is known: the next update doesn't need to look for it.
+                    try (var repo = gitHubService.repository(repoRef)) {
+                        repo.topic(TopicRef.notification("yrodiere", "yrodiere's report for quarkusio/quarkus"))
+                                .update(" (updated 2017-11-06T06:00:00Z)", "Some content 3", false);
+                    }
+                })
+                .then().github(mocks -> {
+                    verify(searchIssuesBuilderMock, times(2)).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock, times(2)).q("is:issue");
+                    verify(searchIssuesBuilderMock, times(2)).q("author:" + installationRef.appLogin());
+
+                    verify(issue1QueryCommentsBuilderMock).since(Date.from(now.minus(21, ChronoUnit.DAYS)));
+                    verify(issue2QueryCommentsBuilderMock).since(Date.from(now.minus(21, ChronoUnit.DAYS)));
+
+                    // One GraphQL query per repository instance, minimizing all outdated comments at once.
+                    var queryCaptor = ArgumentCaptor.forClass(String.class);
+                    var mapCaptor = ArgumentCaptor.forClass(Map.class);
+                    verify(mocks.installationGraphQLClient(installationRef.installationId()), times(2))
+                            .executeSync(queryCaptor.capture(), mapCaptor.capture());
+                    assertThat(queryCaptor.getAllValues().get(0))
+                            .contains("minimize0: minimizeComment", "minimize1: minimizeComment");
+                    assertThat(mapCaptor.getAllValues().get(0))
+                            .containsOnly(Map.entry("subjectId0", "comment101"), Map.entry("subjectId1", "comment201"));
+                    assertThat(mapCaptor.getAllValues().get(1))
+                            .containsOnly(Map.entry("subjectId0", "comment102"));
+
+                    verify(mocks.issue(1), times(2))
+                            .setTitle("yrodiere's report for quarkusio/quarkus (updated 2017-11-06T06:00:00Z)");
+                    verify(mocks.issue(1), times(2)).setBody("Dedicated issue body");
+                    verify(mocks.issue(1)).comment("Some content 1");
+                    verify(mocks.issue(1)).getNumber();
+                    verify(mocks.issueComment(102)).getId();
+                    verify(mocks.issue(2)).setTitle("gsmet's report for quarkusio/quarkus (updated 2017-11-06T06:00:00Z)");
+                    verify(mocks.issue(2)).setBody("Dedicated issue body");
+
+                    verifyNoMoreInteractions(searchIssuesBuilderMock, issue1QueryCommentsBuilderMock,
+                            issue2QueryCommentsBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+}
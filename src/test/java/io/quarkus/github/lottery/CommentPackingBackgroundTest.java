@@ -0,0 +1,174 @@
+package io.quarkus.github.lottery;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static io.quarkus.github.lottery.util.MockHelper.mockGraphQLNodesResponse;
+import static io.quarkus.github.lottery.util.MockHelper.mockIssueComment;
+import static io.quarkus.github.lottery.util.MockHelper.mockIssueForNotification;
+import static io.quarkus.github.lottery.util.MockHelper.mockPagedIterable;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHIssueCommentQueryBuilder;
+import org.kohsuke.github.GHIssueSearchBuilder;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHUser;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.github.lottery.github.CommentPacker;
+import io.quarkus.github.lottery.github.GitHubInstallationRef;
+import io.quarkus.github.lottery.github.GitHubRepositoryRef;
+import io.quarkus.github.lottery.github.GitHubService;
+import io.quarkus.github.lottery.github.LastCommentCache;
+import io.quarkus.github.lottery.github.TopicRef;
+import io.quarkus.github.lottery.message.MessageFormatter;
+import io.quarkus.github.lottery.util.CommentPackingBackgroundProfile;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@GitHubAppTest
+@ExtendWith(MockitoExtension.class)
+@TestProfile(CommentPackingBackgroundProfile.class)
+public class CommentPackingBackgroundTest {
+
+    private final GitHubInstallationRef installationRef = new GitHubInstallationRef("quarkus-github-lottery", 1234L);
+
+    @Inject
+    GitHubService gitHubService;
+
+    @Inject
+    LastCommentCache lastCommentCache;
+
+    @Inject
+    CommentPacker commentPacker;
+
+    MessageFormatter messageFormatterMock;
+
+    @BeforeEach
+    void setup() {
+        lastCommentCache.invalidateAll();
+        messageFormatterMock = Mockito.mock(MessageFormatter.class);
+        QuarkusMock.installMockForType(messageFormatterMock, MessageFormatter.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void packAfterClose() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus-lottery-reports");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        var clockMock = Clock.fixed(now, ZoneOffset.UTC);
+        QuarkusMock.installMockForType(clockMock, Clock.class);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        var queryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+                    var repositoryMock = mocks.repository(repoRef.repositoryName());
+
+                    var mySelfMock = mocks.ghObject(GHUser.class, 1L);
+                    when(mySelfMock.getLogin()).thenReturn(installationRef.appLogin());
+                    var someoneElseMock = mocks.ghObject(GHUser.class, 2L);
+                    when(someoneElseMock.getLogin()).thenReturn("yrodiere");
+
+                    var issue2Mock = mockIssueForNotification(mocks, 2,
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
+                    when(issue2Mock.getNumber()).thenReturn(2);
+                    when(issue2Mock.getState()).thenReturn(GHIssueState.OPEN);
+                    // Mock 16 comments to trigger packing (threshold 15, retain 10)
+                    when(issue2Mock.getCommentsCount()).thenReturn(16);
+                    when(issue2Mock.queryComments()).thenReturn(queryCommentsBuilderMock);
+                    when(repositoryMock.getIssue(2)).thenReturn(issue2Mock);
+
+                    var allCommentMocks = new GHIssueComment[16];
+                    for (int i = 0; i < 16; i++) {
+                        allCommentMocks[i] = mockIssueComment(mocks, 200 + i, i < 15 ? mySelfMock : someoneElseMock);
+                        when(allCommentMocks[i].getNodeId()).thenReturn("comment" + (200 + i));
+                    }
+                    var allCommentsMockPagedIterable = mockPagedIterable(allCommentMocks);
+                    when(queryCommentsBuilderMock.list()).thenReturn(allCommentsMockPagedIterable);
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    var issuesMocks = mockPagedIterable(issue2Mock);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+
+                    var graphQLResponse = mockGraphQLNodesResponse();
+                    when(mocks.installationGraphQLClient(installationRef.installationId())
+                            .executeSync(anyString(), anyMap()))
+                            .thenReturn(graphQLResponse);
+
+                    when(messageFormatterMock.formatDedicatedIssueBodyMarkdown("yrodiere's report for quarkusio/quarkus",
+                            "Some content"))
+                            .thenReturn("Dedicated issue body");
+                })
+                .when(() -> {
+                    try (var repo = gitHubService.repository(repoRef)) {
+                        repo.topic(TopicRef.notification("yrodiere", "yrodiere's report for quarkusio/quarkus"))
+                                .update(" (updated 2017-11-06T06:00:00Z)", "Some content", false);
+                    }
+                    commentPacker.awaitIdle(Duration.ofSeconds(30));
+                })
+                .then().github(mocks -> {
+                    verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock).q("is:issue");
+                    verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
+
+                    verify(queryCommentsBuilderMock).since(Date.from(now.minus(21, ChronoUnit.DAYS)));
+
+                    // No comment gets deleted through the REST API.
+                    for (int i = 0; i < 16; i++) {
+                        verify(mocks.issueComment(200 + i), never()).delete();
+                    }
+
+                    // One query to minimize the last comment, then two batches of deletions (6 comments, 4 per batch).
+                    var mapCaptor = ArgumentCaptor.forClass(Map.class);
+                    verify(mocks.installationGraphQLClient(installationRef.installationId()), times(3))
+                            .executeSync(anyString(), mapCaptor.capture());
+                    assertThat(mapCaptor.getAllValues().get(0)).containsValue("comment214");
+                    assertThat(mapCaptor.getAllValues().get(1))
+                            .containsOnly(Map.entry("id0", "comment200"), Map.entry("id1", "comment201"),
+                                    Map.entry("id2", "comment202"), Map.entry("id3", "comment203"));
+                    assertThat(mapCaptor.getAllValues().get(2))
+                            .containsOnly(Map.entry("id0", "comment204"), Map.entry("id1", "comment205"));
+
+                    verify(mocks.issue(2)).setTitle("yrodiere's report for quarkusio/quarkus (updated 2017-11-06T06:00:00Z)");
+                    verify(mocks.issue(2)).setBody("Dedicated issue body");
+
+                    verifyNoMoreInteractions(searchIssuesBuilderMock, queryCommentsBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+}
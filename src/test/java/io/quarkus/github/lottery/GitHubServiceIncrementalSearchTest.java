@@ -0,0 +1,154 @@
+package io.quarkus.github.lottery;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static io.quarkus.github.lottery.util.MockHelper.mockIssueForLottery;
+import static io.quarkus.github.lottery.util.MockHelper.mockPagedIterable;
+import static io.quarkus.github.lottery.util.MockHelper.stubIssueList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHDirection;
+import org.kohsuke.github.GHIssueSearchBuilder;
+import org.mockito.Answers;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.github.lottery.github.GitHubInstallationRef;
+import io.quarkus.github.lottery.github.GitHubRepositoryRef;
+import io.quarkus.github.lottery.github.GitHubService;
+import io.quarkus.github.lottery.github.SearchCursorCache;
+import io.quarkus.github.lottery.util.IncrementalSearchWebhooksProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Tests that GitHubService correctly updates search results incrementally, or not.
+ */
+@QuarkusTest
+@GitHubAppTest
+@ExtendWith(MockitoExtension.class)
+@TestProfile(IncrementalSearchWebhooksProfile.class)
+public class GitHubServiceIncrementalSearchTest {
+
+    private final GitHubInstallationRef installationRef = new GitHubInstallationRef("quarkus-github-lottery", 1234L);
+
+    @Inject
+    GitHubService gitHubService;
+
+    @Inject
+    SearchCursorCache searchCursorCache;
+
+    @BeforeEach
+    void setup() {
+        searchCursorCache.invalidateAll();
+    }
+
+    @Test
+    void issuesOrPullRequestsLastUpdatedBefore_tooManyIssues() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    // GitHub only returns the first 1000 results of a search:
+                    // results can't be updated incrementally.
+                    var issuesMocks = mockPagedIterable(mockIssueForLottery(mocks, 1), mockIssueForLottery(mocks, 2));
+                    when(issuesMocks.getTotalCount()).thenReturn(1001);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    assertThat(repo.issuesOrPullRequestsLastUpdatedBefore(Set.of(), cutoff))
+                            .containsExactlyElementsOf(stubIssueList(1, 2));
+                    // No search cursor was kept: we search from scratch again.
+                    assertThat(repo.issuesOrPullRequestsLastUpdatedBefore(Set.of(), cutoff))
+                            .containsExactlyElementsOf(stubIssueList(1, 2));
+                })
+                .then().github(mocks -> {
+                    verify(searchIssuesBuilderMock, times(4)).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock, times(4)).isOpen();
+                    verify(searchIssuesBuilderMock, times(4)).q("updated:<2017-11-05T06:00");
+                    verify(searchIssuesBuilderMock, times(4)).sort(GHIssueSearchBuilder.Sort.UPDATED);
+                    verify(searchIssuesBuilderMock, times(4)).order(GHDirection.DESC);
+                    verify(searchIssuesBuilderMock, times(4)).list();
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void issuesOrPullRequestsLastUpdatedBefore_tooManyAddedIssues() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+        Instant nextCutoff = cutoff.plus(1, ChronoUnit.HOURS);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    var issue1Mock = mockIssueForLottery(mocks, 1);
+                    var issue2Mock = mockIssueForLottery(mocks, 2);
+                    var issue3Mock = mockIssueForLottery(mocks, 3);
+                    var initialIssuesMocks = mockPagedIterable(issue1Mock, issue2Mock);
+                    // GitHub only returns the first 1000 results of a search:
+                    // the search cursor can't be updated incrementally.
+                    var addedIssuesMocks = mockPagedIterable(mocks.issue(3));
+                    when(addedIssuesMocks.getTotalCount()).thenReturn(1001);
+                    var allIssuesMocks = mockPagedIterable(issue3Mock, issue1Mock, issue2Mock);
+                    when(searchIssuesBuilderMock.list())
+                            .thenReturn(initialIssuesMocks, addedIssuesMocks, allIssuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    assertThat(repo.issuesOrPullRequestsLastUpdatedBefore(Set.of(), cutoff))
+                            .containsExactlyElementsOf(stubIssueList(1, 2));
+                    // Falls back to a search from scratch.
+                    assertThat(repo.issuesOrPullRequestsLastUpdatedBefore(Set.of(), nextCutoff))
+                            .containsExactlyElementsOf(stubIssueList(3, 1, 2));
+                })
+                .then().github(mocks -> {
+                    verify(searchIssuesBuilderMock, times(3)).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock, times(3)).isOpen();
+                    verify(searchIssuesBuilderMock).q("updated:<2017-11-05T06:00");
+                    verify(searchIssuesBuilderMock).q("updated:2017-11-05T05:50..2017-11-05T07:00");
+                    verify(searchIssuesBuilderMock).q("updated:<2017-11-05T07:00");
+                    verify(searchIssuesBuilderMock, times(3)).sort(GHIssueSearchBuilder.Sort.UPDATED);
+                    verify(searchIssuesBuilderMock, times(3)).order(GHDirection.DESC);
+                    verify(searchIssuesBuilderMock, times(3)).list();
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+}
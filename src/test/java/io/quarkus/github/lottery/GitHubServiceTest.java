@@ -1,26 +1,33 @@
 package io.quarkus.github.lottery;
 
 import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static io.quarkus.github.lottery.util.MockHelper.mockGraphQLNodesResponse;
 import static io.quarkus.github.lottery.util.MockHelper.mockIssueComment;
-import static io.quarkus.github.lottery.util.MockHelper.mockIssueEvent;
 import static io.quarkus.github.lottery.util.MockHelper.mockIssueForLottery;
 import static io.quarkus.github.lottery.util.MockHelper.mockIssueForLotteryFilteredOutByRepository;
 import static io.quarkus.github.lottery.util.MockHelper.mockIssueForNotification;
-import static io.quarkus.github.lottery.util.MockHelper.mockLabel;
+import static io.quarkus.github.lottery.util.MockHelper.mockLabels;
 import static io.quarkus.github.lottery.util.MockHelper.mockPagedIterable;
 import static io.quarkus.github.lottery.util.MockHelper.mockUserForInspectedComments;
+import static io.quarkus.github.lottery.util.MockHelper.stubGraphQLComment;
+import static io.quarkus.github.lottery.util.MockHelper.stubGraphQLIssueNode;
+import static io.quarkus.github.lottery.util.MockHelper.stubGraphQLLabeledEvent;
 import static io.quarkus.github.lottery.util.MockHelper.stubIssue;
 import static io.quarkus.github.lottery.util.MockHelper.stubIssueList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.withSettings;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.Duration;
@@ -45,11 +52,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.kohsuke.github.GHApp;
 import org.kohsuke.github.GHAppInstallation;
 import org.kohsuke.github.GHAuthenticatedAppInstallation;
+import org.kohsuke.github.GHContent;
 import org.kohsuke.github.GHDirection;
+import org.kohsuke.github.GHFileNotFoundException;
 import org.kohsuke.github.GHIssueBuilder;
 import org.kohsuke.github.GHIssueComment;
 import org.kohsuke.github.GHIssueCommentQueryBuilder;
-import org.kohsuke.github.GHIssueEvent;
 import org.kohsuke.github.GHIssueSearchBuilder;
 import org.kohsuke.github.GHIssueState;
 import org.kohsuke.github.GHPermissionType;
@@ -67,6 +75,9 @@ import io.quarkus.github.lottery.github.GitHubInstallationRef;
 import io.quarkus.github.lottery.github.GitHubRepositoryRef;
 import io.quarkus.github.lottery.github.GitHubService;
 import io.quarkus.github.lottery.github.IssueActionSide;
+import io.quarkus.github.lottery.github.LastCommentCache;
+import io.quarkus.github.lottery.github.LotteryConfigCache;
+import io.quarkus.github.lottery.github.PermissionCache;
 import io.quarkus.github.lottery.github.TopicRef;
 import io.quarkus.github.lottery.message.MessageFormatter;
 import io.quarkus.test.junit.QuarkusMock;
@@ -92,10 +103,23 @@ public class GitHubServiceTest {
     @Inject
     GitHubService gitHubService;
 
+    @Inject
+    PermissionCache permissionCache;
+
+    @Inject
+    LastCommentCache lastCommentCache;
+
+    @Inject
+    LotteryConfigCache lotteryConfigCache;
+
     MessageFormatter messageFormatterMock;
 
     @BeforeEach
     void setup() {
+        // Tests assign different permissions to the same users.
+        permissionCache.invalidateAll();
+        lastCommentCache.invalidateAll();
+        lotteryConfigCache.invalidateAll();
         messageFormatterMock = Mockito.mock(MessageFormatter.class);
         QuarkusMock.installMockForType(messageFormatterMock, MessageFormatter.class);
     }
@@ -150,8 +174,11 @@ public class GitHubServiceTest {
         given()
                 .github(mocks -> {
                     var repositoryMock = mocks.repository(repoRef.repositoryName());
-                    mocks.configFile(repositoryMock, "quarkus-github-lottery.yml")
-                            .fromString("""
+                    var configFileContentMock = Mockito.mock(GHContent.class);
+                    when(configFileContentMock.getSha()).thenReturn("8a0f5f0c1f4c0b3a5e0d2c3b4a5f6e7d8c9b0a1f");
+                    when(repositoryMock.getFileContent(".github/quarkus-github-lottery.yml"))
+                            .thenReturn(configFileContentMock);
+                    when(configFileContentMock.read()).thenAnswer(ignored -> new ByteArrayInputStream("""
                                     notifications:
                                       createIssues:
                                         repository: "quarkusio/quarkus-lottery-reports"
@@ -228,7 +255,7 @@ public class GitHubServiceTest {
                                               maxIssues: 1
                                             provided:
                                               maxIssues: 1
-                                    """);
+                                    """.getBytes(StandardCharsets.UTF_8)));
                 })
                 .when(() -> {
                     var repo = gitHubService.repository(repoRef);
@@ -324,8 +351,11 @@ public class GitHubServiceTest {
         given()
                 .github(mocks -> {
                     var repositoryMock = mocks.repository(repoRef.repositoryName());
-                    mocks.configFile(repositoryMock, "quarkus-github-lottery.yml")
-                            .fromString("""
+                    var configFileContentMock = Mockito.mock(GHContent.class);
+                    when(configFileContentMock.getSha()).thenReturn("3c1b9e4d7a2f5e8b0c6d9a1f4e7b2c5d8a0f3e6b");
+                    when(repositoryMock.getFileContent(".github/quarkus-github-lottery.yml"))
+                            .thenReturn(configFileContentMock);
+                    when(configFileContentMock.read()).thenAnswer(ignored -> new ByteArrayInputStream("""
                                     notifications:
                                       createIssues:
                                         repository: "quarkusio/quarkus-lottery-reports"
@@ -354,7 +384,7 @@ public class GitHubServiceTest {
                                         delay: P60D
                                         timeout: P14D
                                     participants:
-                                    """);
+                                    """.getBytes(StandardCharsets.UTF_8)));
                 })
                 .when(() -> {
                     var repo = gitHubService.repository(repoRef);
@@ -390,6 +420,91 @@ public class GitHubServiceTest {
                 });
     }
 
+    @Test
+    void fetchLotteryConfig_cachedByBlobSha() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        given()
+                .github(mocks -> {
+                    var repositoryMock = mocks.repository(repoRef.repositoryName());
+                    var configFileContentMock = Mockito.mock(GHContent.class);
+                    when(configFileContentMock.getSha()).thenReturn("8a0f5f0c1f4c0b3a5e0d2c3b4a5f6e7d8c9b0a1f",
+                            "8a0f5f0c1f4c0b3a5e0d2c3b4a5f6e7d8c9b0a1f", "3c1b9e4d7a2f5e8b0c6d9a1f4e7b2c5d8a0f3e6b");
+                    when(repositoryMock.getFileContent(".github/quarkus-github-lottery.yml"))
+                            .thenReturn(configFileContentMock);
+                    when(configFileContentMock.read()).thenAnswer(ignored -> new ByteArrayInputStream("""
+                                    notifications:
+                                      createIssues:
+                                        repository: "quarkusio/quarkus-lottery-reports"
+                                    buckets:
+                                      triage:
+                                        label: "triage/needs-triage"
+                                        delay: PT0S
+                                        timeout: P3D
+                                      maintenance:
+                                        created:
+                                          delay: PT0S
+                                          timeout: P1D
+                                          expiry: P14D
+                                        feedback:
+                                          labels: ["triage/needs-feedback"]
+                                          needed:
+                                            delay: P21D
+                                            timeout: P3D
+                                          provided:
+                                            delay: P7D
+                                            timeout: P3D
+                                        stale:
+                                          delay: P60D
+                                          timeout: P14D
+                                      stewardship:
+                                        delay: P60D
+                                        timeout: P14D
+                                    participants:
+                                    """.getBytes(StandardCharsets.UTF_8)));
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    var first = repo.fetchLotteryConfig();
+                    assertThat(first).isNotEmpty();
+                    // Same blob: the configuration is not parsed again.
+                    assertThat(repo.fetchLotteryConfig()).containsSame(first.get());
+                    // Different blob: the configuration is parsed again.
+                    assertThat(repo.fetchLotteryConfig())
+                            .isNotEmpty()
+                            .get().isNotSameAs(first.get())
+                            .usingRecursiveComparison().isEqualTo(first.get());
+                })
+                .then().github(mocks -> {
+                    verify(mocks.repository(repoRef.repositoryName()), times(3))
+                            .getFileContent(".github/quarkus-github-lottery.yml");
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void fetchLotteryConfig_notFound() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        given()
+                .github(mocks -> {
+                    var repositoryMock = mocks.repository(repoRef.repositoryName());
+                    when(repositoryMock.getFileContent(".github/quarkus-github-lottery.yml"))
+                            .thenThrow(new GHFileNotFoundException());
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    assertThat(repo.fetchLotteryConfig()).isEmpty();
+                })
+                .then().github(mocks -> {
+                    verify(mocks.repository(repoRef.repositoryName()))
+                            .getFileContent(".github/quarkus-github-lottery.yml");
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
     @Test
     void issuesOrPullRequestsLastUpdatedBefore() throws IOException {
         var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
@@ -548,106 +663,286 @@ public class GitHubServiceTest {
     }
 
     @Test
-    void issuesLastActedOnByAndLastUpdatedBefore_team() throws IOException {
+    void issuesOrPullRequestsWithLabelLastUpdatedBefore_merged() throws IOException {
         var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
 
         Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
         Instant cutoff = now.minus(1, ChronoUnit.DAYS);
-        Date issue1ActionLabelEvent = Date.from(cutoff.minus(1, ChronoUnit.DAYS));
-        Date issue2ActionLabelEvent = Date.from(cutoff.minus(2, ChronoUnit.DAYS));
-        Date issue7ActionLabelEvent = Date.from(cutoff.minus(2, ChronoUnit.DAYS));
-        Date issue8ActionLabelEvent = Date.from(cutoff.minus(2, ChronoUnit.DAYS));
 
         var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue1QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue2QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue3QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue4QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    var issue1Mock = mockIssueForLottery(mocks, 1);
+                    when(issue1Mock.getLabels()).thenReturn(mockLabels("area/hibernate-orm"));
+                    var issue2Mock = mockIssueForLottery(mocks, 3);
+                    // GitHub matches labels regardless of case.
+                    when(issue2Mock.getLabels()).thenReturn(mockLabels("Area/Hibernate-Search"));
+                    var issue3Mock = mockIssueForLottery(mocks, 2);
+                    when(issue3Mock.getLabels()).thenReturn(mockLabels("kind/bug", "area/hibernate-search",
+                            "area/hibernate-orm"));
+                    var issue4Mock = mockIssueForLottery(mocks, 4);
+                    when(issue4Mock.getLabels()).thenReturn(mockLabels("area/hibernate-orm"));
+                    var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock, issue3Mock, issue4Mock);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    var result = repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(
+                            new LinkedHashSet<>(List.of("area/hibernate-orm", "area/hibernate-search")),
+                            Set.of("triage/on-ice"), cutoff);
+                    assertThat(result).containsOnlyKeys("area/hibernate-orm", "area/hibernate-search");
+                    assertThat(result.get("area/hibernate-orm"))
+                            .containsExactlyElementsOf(stubIssueList(1, 2, 4));
+                    assertThat(result.get("area/hibernate-search"))
+                            .containsExactlyElementsOf(stubIssueList(3, 2));
+                })
+                .then().github(mocks -> {
+                    // A single search for both labels.
+                    verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock).q("is:open");
+                    verify(searchIssuesBuilderMock).sort(GHIssueSearchBuilder.Sort.UPDATED);
+                    verify(searchIssuesBuilderMock).order(GHDirection.DESC);
+                    verify(searchIssuesBuilderMock).q("label:area/hibernate-orm,area/hibernate-search");
+                    verify(searchIssuesBuilderMock).q("updated:<2017-11-05T06:00");
+                    verify(searchIssuesBuilderMock).q("-label:triage/on-ice");
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void issuesOrPullRequestsWithLabelLastUpdatedBefore_merged_tooManyResults() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue5QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    // GitHub only returns the first 1000 results of a search:
+                    // the merged search must be split.
+                    var allLabelsIssuesMocks = mockPagedIterable(mocks.issue(1));
+                    when(allLabelsIssuesMocks.getTotalCount()).thenReturn(1001);
+                    var issue1Mock = mockIssueForLottery(mocks, 1);
+                    var issue2Mock = mockIssueForLottery(mocks, 2);
+                    var firstLabelIssuesMocks = mockPagedIterable(issue1Mock, issue2Mock);
+                    var issue3Mock = mockIssueForLottery(mocks, 3);
+                    when(issue3Mock.getLabels()).thenReturn(mockLabels("area/hibernate-search"));
+                    var issue4Mock = mockIssueForLottery(mocks, 4);
+                    when(issue4Mock.getLabels()).thenReturn(mockLabels("area/hibernate-validator",
+                            "area/hibernate-search"));
+                    var otherLabelsIssuesMocks = mockPagedIterable(issue3Mock, issue4Mock);
+                    when(searchIssuesBuilderMock.list())
+                            .thenReturn(allLabelsIssuesMocks, firstLabelIssuesMocks, otherLabelsIssuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    var result = repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(
+                            new LinkedHashSet<>(List.of("area/hibernate-orm", "area/hibernate-search",
+                                    "area/hibernate-validator")),
+                            Set.of("triage/on-ice"), cutoff);
+                    assertThat(result).containsOnlyKeys("area/hibernate-orm", "area/hibernate-search",
+                            "area/hibernate-validator");
+                    assertThat(result.get("area/hibernate-orm"))
+                            .containsExactlyElementsOf(stubIssueList(1, 2));
+                    assertThat(result.get("area/hibernate-search"))
+                            .containsExactlyElementsOf(stubIssueList(3, 4));
+                    assertThat(result.get("area/hibernate-validator"))
+                            .containsExactlyElementsOf(stubIssueList(4));
+                })
+                .then().github(mocks -> {
+                    // One search for all labels, then one for the first half (a single label),
+                    // then one for the second half.
+                    verify(searchIssuesBuilderMock, times(3)).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock, times(3)).q("is:open");
+                    verify(searchIssuesBuilderMock, times(3)).sort(GHIssueSearchBuilder.Sort.UPDATED);
+                    verify(searchIssuesBuilderMock, times(3)).order(GHDirection.DESC);
+                    verify(searchIssuesBuilderMock, times(3)).q("updated:<2017-11-05T06:00");
+                    verify(searchIssuesBuilderMock, times(3)).q("-label:triage/on-ice");
+                    verify(searchIssuesBuilderMock)
+                            .q("label:area/hibernate-orm,area/hibernate-search,area/hibernate-validator");
+                    verify(searchIssuesBuilderMock).q("label:area/hibernate-orm");
+                    verify(searchIssuesBuilderMock).q("label:area/hibernate-search,area/hibernate-validator");
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void issuePoolLastUpdatedBefore() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+        Instant narrowerCutoff = now.minus(3, ChronoUnit.DAYS);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue7QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    var issue1Mock = mockIssueForLottery(mocks, 1);
+                    when(issue1Mock.getLabels()).thenReturn(mockLabels("area/hibernate-orm"));
+                    when(issue1Mock.getUpdatedAt()).thenReturn(Date.from(cutoff.minus(1, ChronoUnit.DAYS)));
+                    var issue2Mock = mockIssueForLottery(mocks, 3);
+                    when(issue2Mock.getLabels()).thenReturn(mockLabels("area/hibernate-search", "triage/on-ice"));
+                    when(issue2Mock.getUpdatedAt()).thenReturn(Date.from(cutoff.minus(3, ChronoUnit.DAYS)));
+                    var issue3Mock = mockIssueForLottery(mocks, 2);
+                    when(issue3Mock.getLabels()).thenReturn(mockLabels());
+                    when(issue3Mock.getUpdatedAt()).thenReturn(Date.from(cutoff.minus(4, ChronoUnit.DAYS)));
+                    var issue4Mock = mockIssueForLottery(mocks, 4);
+                    when(issue4Mock.getLabels()).thenReturn(mockLabels("Area/Hibernate-ORM"));
+                    when(issue4Mock.getUpdatedAt()).thenReturn(Date.from(cutoff.minus(5, ChronoUnit.DAYS)));
+                    var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock, issue3Mock, issue4Mock);
+                    // GitHub returns up to 1000 results of a search: the pool is complete.
+                    when(issuesMocks.getTotalCount()).thenReturn(1000);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    var pool = repo.issuePoolLastUpdatedBefore(Set.of("triage/invalid"), cutoff).orElseThrow();
+                    assertThat(pool.issuesOrPullRequestsWithLabelLastUpdatedBefore(null, Set.of(), cutoff))
+                            .containsExactlyElementsOf(stubIssueList(1, 3, 2, 4));
+                    assertThat(pool.issuesOrPullRequestsWithLabelLastUpdatedBefore(null, Set.of("triage/on-ice"),
+                            cutoff))
+                            .containsExactlyElementsOf(stubIssueList(1, 2, 4));
+                    // GitHub matches labels regardless of case.
+                    assertThat(pool.issuesOrPullRequestsWithLabelLastUpdatedBefore("area/hibernate-orm", Set.of(),
+                            cutoff))
+                            .containsExactlyElementsOf(stubIssueList(1, 4));
+                    assertThat(pool.issuesOrPullRequestsWithLabelLastUpdatedBefore("area/hibernate-orm", Set.of(),
+                            narrowerCutoff))
+                            .containsExactlyElementsOf(stubIssueList(4));
+                })
+                .then().github(mocks -> {
+                    // A single search for all buckets.
+                    verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock).isOpen();
+                    verify(searchIssuesBuilderMock).sort(GHIssueSearchBuilder.Sort.UPDATED);
+                    verify(searchIssuesBuilderMock).order(GHDirection.DESC);
+                    verify(searchIssuesBuilderMock).q("updated:<2017-11-05T06:00");
+                    verify(searchIssuesBuilderMock).q("-label:triage/invalid");
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void issuePoolLastUpdatedBefore_tooManyIssues() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue8QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    // GitHub only returns the first 1000 results of a search:
+                    // the pool would be incomplete.
+                    var issuesMocks = mockPagedIterable(mocks.issue(1));
+                    when(issuesMocks.getTotalCount()).thenReturn(1001);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    assertThat(repo.issuePoolLastUpdatedBefore(Set.of("triage/invalid"), cutoff)).isEmpty();
+                })
+                .then().github(mocks -> {
+                    verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock).isOpen();
+                    verify(searchIssuesBuilderMock).sort(GHIssueSearchBuilder.Sort.UPDATED);
+                    verify(searchIssuesBuilderMock).order(GHDirection.DESC);
+                    verify(searchIssuesBuilderMock).q("updated:<2017-11-05T06:00");
+                    verify(searchIssuesBuilderMock).q("-label:triage/invalid");
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void issuesLastActedOnByAndLastUpdatedBefore_team() throws Exception {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
+
+        Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
+        Instant cutoff = now.minus(1, ChronoUnit.DAYS);
+        Instant issue1ActionLabelEvent = cutoff.minus(1, ChronoUnit.DAYS);
+        Instant issue2ActionLabelEvent = cutoff.minus(2, ChronoUnit.DAYS);
+        Instant issue7ActionLabelEvent = cutoff.minus(2, ChronoUnit.DAYS);
+        Instant issue8ActionLabelEvent = cutoff.minus(2, ChronoUnit.DAYS);
+
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> variablesCaptor = ArgumentCaptor.forClass(Map.class);
         given()
                 .github(mocks -> {
                     var clientMock = mocks.installationClient(installationRef.installationId());
                     var repositoryMock = mocks.repository(repoRef.repositoryName());
 
-                    var adminUser = mockUserForInspectedComments(mocks, repositoryMock, 1L, adminUserName,
-                            GHPermissionType.ADMIN);
+                    when(repositoryMock.getPermission(adminUserName)).thenReturn(GHPermissionType.ADMIN);
                     var writeUser = mockUserForInspectedComments(mocks, repositoryMock, 2L, writeUserName,
                             GHPermissionType.WRITE);
-                    var readUser = mockUserForInspectedComments(mocks, repositoryMock, 3L, readUserName, GHPermissionType.READ);
-                    var noneUser = mockUserForInspectedComments(mocks, repositoryMock, 4L, strangerUserName,
-                            GHPermissionType.NONE);
-                    var botUser = mockUserForInspectedComments(mocks, repositoryMock, 5L, botUserName);
+                    when(repositoryMock.getPermission(readUserName)).thenReturn(GHPermissionType.READ);
+                    when(repositoryMock.getPermission(strangerUserName)).thenReturn(GHPermissionType.NONE);
                     var randomReporterUser = mockUserForInspectedComments(mocks, repositoryMock, 6L, randomReporterUserName);
 
-                    var needsReproducerLabelMock = mockLabel("triage/needs-reproducer");
-                    var areaHibernateSearchLabelMock = mockLabel("area/hibernate-search");
-
                     var issue1Mock = mockIssueForLottery(mocks, 1, randomReporterUser);
-                    var issue1Event1Mock = mockIssueEvent("created");
-                    var issue1Event2Mock = mockIssueEvent("labeled");
-                    when(issue1Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue1Event2Mock.getCreatedAt()).thenReturn(issue1ActionLabelEvent);
-                    var issue1Event3Mock = mockIssueEvent("labeled");
-                    when(issue1Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue1Event4Mock = mockIssueEvent("locked");
-                    var issue1EventsMocks = mockPagedIterable(issue1Event1Mock,
-                            issue1Event2Mock, issue1Event3Mock, issue1Event4Mock);
-                    when(issue1Mock.listEvents()).thenReturn(issue1EventsMocks);
-                    var issue1CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 101, noneUser),
-                            mockIssueComment(mocks, 102, adminUser));
-                    when(issue1Mock.queryComments()).thenReturn(issue1QueryCommentsBuilderMock);
-                    when(issue1QueryCommentsBuilderMock.list()).thenReturn(issue1CommentsMocks);
+                    when(issue1Mock.getNodeId()).thenReturn("issue1");
+                    var issue1Node = stubGraphQLIssueNode("issue1",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue1ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue1ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(
+                                    // Before the label was assigned -- should be ignored.
+                                    stubGraphQLComment(readUserName, issue1ActionLabelEvent.minus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(strangerUserName, issue1ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(adminUserName, issue1ActionLabelEvent.plus(2, ChronoUnit.HOURS))));
 
                     var issue2Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 2, randomReporterUser);
-                    var issue2Event1Mock = mockIssueEvent("created");
-                    var issue2Event2Mock = mockIssueEvent("labeled");
-                    when(issue2Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue2Event2Mock.getCreatedAt()).thenReturn(issue2ActionLabelEvent);
-                    var issue2Event3Mock = mockIssueEvent("labeled");
-                    when(issue2Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue2Event4Mock = mockIssueEvent("locked");
-                    var issue2EventsMocks = mockPagedIterable(issue2Event1Mock,
-                            issue2Event2Mock, issue2Event3Mock, issue2Event4Mock);
-                    when(issue2Mock.listEvents()).thenReturn(issue2EventsMocks);
-                    var issue2CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 201, adminUser),
-                            mockIssueComment(mocks, 202, readUser));
-                    when(issue2Mock.queryComments()).thenReturn(issue2QueryCommentsBuilderMock);
-                    when(issue2QueryCommentsBuilderMock.list()).thenReturn(issue2CommentsMocks);
+                    when(issue2Mock.getNodeId()).thenReturn("issue2");
+                    var issue2Node = stubGraphQLIssueNode("issue2",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue2ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue2ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(stubGraphQLComment(adminUserName, issue2ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(readUserName, issue2ActionLabelEvent.plus(2, ChronoUnit.HOURS))));
 
                     var issue3Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 3, randomReporterUser);
-                    PagedSearchIterable<GHIssueEvent> issue3EventsMocks = mockPagedIterable();
-                    when(issue3Mock.listEvents()).thenReturn(issue3EventsMocks);
-                    var issue3CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 301, adminUser),
-                            mockIssueComment(mocks, 302, noneUser));
-                    when(issue3Mock.queryComments()).thenReturn(issue3QueryCommentsBuilderMock);
-                    when(issue3QueryCommentsBuilderMock.list()).thenReturn(issue3CommentsMocks);
+                    when(issue3Mock.getNodeId()).thenReturn("issue3");
+                    var issue3Node = stubGraphQLIssueNode("issue3",
+                            List.of(),
+                            List.of(stubGraphQLComment(adminUserName, cutoff.minus(3, ChronoUnit.DAYS)),
+                                    stubGraphQLComment(strangerUserName, cutoff.minus(2, ChronoUnit.DAYS))));
 
                     var issue4Mock = mockIssueForLottery(mocks, 4);
-                    PagedSearchIterable<GHIssueEvent> issue4EventsMocks = mockPagedIterable();
-                    when(issue4Mock.listEvents()).thenReturn(issue4EventsMocks);
-                    PagedSearchIterable<GHIssueComment> issue4CommentsMocks = mockPagedIterable();
-                    when(issue4Mock.queryComments()).thenReturn(issue4QueryCommentsBuilderMock);
-                    when(issue4QueryCommentsBuilderMock.list()).thenReturn(issue4CommentsMocks);
+                    when(issue4Mock.getNodeId()).thenReturn("issue4");
+                    var issue4Node = stubGraphQLIssueNode("issue4", List.of(), List.of());
 
                     var issue5Mock = mockIssueForLottery(mocks, 5, randomReporterUser);
-                    var issue5Event1Mock = mockIssueEvent("created");
-                    var issue5Event2Mock = mockIssueEvent("locked");
-                    var issue5EventsMocks = mockPagedIterable(issue5Event1Mock, issue5Event2Mock);
-                    when(issue5Mock.listEvents()).thenReturn(issue5EventsMocks);
-                    var issue5CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 501, noneUser),
-                            mockIssueComment(mocks, 502, writeUser));
-                    when(issue5Mock.queryComments()).thenReturn(issue5QueryCommentsBuilderMock);
-                    when(issue5QueryCommentsBuilderMock.list()).thenReturn(issue5CommentsMocks);
+                    when(issue5Mock.getNodeId()).thenReturn("issue5");
+                    var issue5Node = stubGraphQLIssueNode("issue5",
+                            List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, cutoff.minus(3, ChronoUnit.DAYS)),
+                                    stubGraphQLComment(writeUserName, cutoff.minus(2, ChronoUnit.DAYS))));
 
                     // issue6 used to be one after the cutoff, filtered out on the client side,
                     // but that's handled server-side now.
@@ -655,44 +950,36 @@ public class GitHubServiceTest {
 
                     // This is like issue 2, but a bot commented after the user -- which should be ignored.
                     var issue7Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 7, randomReporterUser);
-                    var issue7Event1Mock = mockIssueEvent("created");
-                    var issue7Event2Mock = mockIssueEvent("labeled");
-                    when(issue7Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue7Event2Mock.getCreatedAt()).thenReturn(issue7ActionLabelEvent);
-                    var issue7Event3Mock = mockIssueEvent("labeled");
-                    when(issue7Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue7Event4Mock = mockIssueEvent("locked");
-                    var issue7EventsMocks = mockPagedIterable(issue7Event1Mock,
-                            issue7Event2Mock, issue7Event3Mock, issue7Event4Mock);
-                    when(issue7Mock.listEvents()).thenReturn(issue7EventsMocks);
-                    var issue7CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 701, noneUser),
-                            mockIssueComment(mocks, 702, readUser),
-                            mockIssueComment(mocks, 703, botUser));
-                    when(issue7Mock.queryComments()).thenReturn(issue7QueryCommentsBuilderMock);
-                    when(issue7QueryCommentsBuilderMock.list()).thenReturn(issue7CommentsMocks);
+                    when(issue7Mock.getNodeId()).thenReturn("issue7");
+                    var issue7Node = stubGraphQLIssueNode("issue7",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue7ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue7ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(stubGraphQLComment(strangerUserName, issue7ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(readUserName, issue7ActionLabelEvent.plus(2, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(botUserName, issue7ActionLabelEvent.plus(3, ChronoUnit.HOURS))));
 
                     // This is like issue 2, but the reporter is a team member -- so should be considered as an outsider.
                     var issue8Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 8, writeUser);
-                    var issue8Event1Mock = mockIssueEvent("created");
-                    var issue8Event2Mock = mockIssueEvent("labeled");
-                    when(issue8Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue8Event2Mock.getCreatedAt()).thenReturn(issue8ActionLabelEvent);
-                    var issue8Event3Mock = mockIssueEvent("labeled");
-                    when(issue8Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue8Event4Mock = mockIssueEvent("locked");
-                    var issue8EventsMocks = mockPagedIterable(issue8Event1Mock,
-                            issue8Event2Mock, issue8Event3Mock, issue8Event4Mock);
-                    when(issue8Mock.listEvents()).thenReturn(issue8EventsMocks);
-                    var issue8CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 801, noneUser),
-                            mockIssueComment(mocks, 802, writeUser));
-                    when(issue8Mock.queryComments()).thenReturn(issue8QueryCommentsBuilderMock);
-                    when(issue8QueryCommentsBuilderMock.list()).thenReturn(issue8CommentsMocks);
+                    when(issue8Mock.getNodeId()).thenReturn("issue8");
+                    var issue8Node = stubGraphQLIssueNode("issue8",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue8ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue8ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(stubGraphQLComment(strangerUserName, issue8ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(writeUserName, issue8ActionLabelEvent.plus(2, ChronoUnit.HOURS))));
 
                     when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock)
                             .thenReturn(searchIssuesBuilderMock);
                     var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock, issue3Mock, issue4Mock, issue5Mock,
                             issue7Mock, issue8Mock);
                     when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+
+                    var graphQLResponse = mockGraphQLNodesResponse(issue1Node, issue2Node, issue3Node, issue4Node,
+                            issue5Node, issue7Node, issue8Node);
+                    when(mocks.installationGraphQLClient(installationRef.installationId())
+                            .executeSync(anyString(), anyMap()))
+                            .thenReturn(graphQLResponse);
                 })
                 .when(() -> {
                     var repo = gitHubService.repository(repoRef);
@@ -716,117 +1003,82 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("label:area/hibernate-search");
                     verifyNoMoreInteractions(searchIssuesBuilderMock);
 
-                    verify(issue1QueryCommentsBuilderMock).since(issue1ActionLabelEvent);
-                    verify(issue2QueryCommentsBuilderMock).since(issue2ActionLabelEvent);
-                    verify(issue7QueryCommentsBuilderMock).since(issue7ActionLabelEvent);
-                    verify(issue8QueryCommentsBuilderMock).since(issue8ActionLabelEvent);
+                    // A single GraphQL query for all issues
+                    verify(mocks.installationGraphQLClient(installationRef.installationId()))
+                            .executeSync(anyString(), variablesCaptor.capture());
+                    assertThat(variablesCaptor.getValue())
+                            .containsEntry("ids", List.of("issue1", "issue2", "issue3", "issue4", "issue5", "issue7", "issue8"));
 
                     verifyNoMoreInteractions(mocks.ghObjects());
                 });
     }
 
     @Test
-    void issuesLastActedOnByAndLastUpdatedBefore_outsider() throws IOException {
+    void issuesLastActedOnByAndLastUpdatedBefore_outsider() throws Exception {
         var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
 
         Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
         Instant cutoff = now.minus(1, ChronoUnit.DAYS);
-        Date issue1ActionLabelEvent = Date.from(cutoff.minus(1, ChronoUnit.DAYS));
-        Date issue2ActionLabelEvent = Date.from(cutoff.minus(2, ChronoUnit.DAYS));
-        Date issue7ActionLabelEvent = Date.from(cutoff.minus(2, ChronoUnit.DAYS));
-        Date issue8ActionLabelEvent = Date.from(cutoff.minus(2, ChronoUnit.DAYS));
+        Instant issue1ActionLabelEvent = cutoff.minus(1, ChronoUnit.DAYS);
+        Instant issue2ActionLabelEvent = cutoff.minus(2, ChronoUnit.DAYS);
+        Instant issue7ActionLabelEvent = cutoff.minus(2, ChronoUnit.DAYS);
+        Instant issue8ActionLabelEvent = cutoff.minus(2, ChronoUnit.DAYS);
 
         var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue1QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue2QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue3QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue4QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue5QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue7QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue8QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> variablesCaptor = ArgumentCaptor.forClass(Map.class);
         given()
                 .github(mocks -> {
                     var clientMock = mocks.installationClient(installationRef.installationId());
                     var repositoryMock = mocks.repository(repoRef.repositoryName());
 
-                    var adminUser = mockUserForInspectedComments(mocks, repositoryMock, 1L, adminUserName,
-                            GHPermissionType.ADMIN);
+                    when(repositoryMock.getPermission(adminUserName)).thenReturn(GHPermissionType.ADMIN);
                     var writeUser = mockUserForInspectedComments(mocks, repositoryMock, 2L, writeUserName,
                             GHPermissionType.WRITE);
-                    var readUser = mockUserForInspectedComments(mocks, repositoryMock, 3L, readUserName, GHPermissionType.READ);
-                    var noneUser = mockUserForInspectedComments(mocks, repositoryMock, 4L, strangerUserName,
-                            GHPermissionType.NONE);
-                    var botUser = mockUserForInspectedComments(mocks, repositoryMock, 5L, botUserName);
+                    when(repositoryMock.getPermission(readUserName)).thenReturn(GHPermissionType.READ);
+                    when(repositoryMock.getPermission(strangerUserName)).thenReturn(GHPermissionType.NONE);
                     var randomReporterUser = mockUserForInspectedComments(mocks, repositoryMock, 6L, randomReporterUserName);
 
-                    var needsReproducerLabelMock = mockLabel("triage/needs-reproducer");
-                    var areaHibernateSearchLabelMock = mockLabel("area/hibernate-search");
-
                     // Pull requests should always be filtered out
                     var issue1Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 1, randomReporterUser);
-                    var issue1Event1Mock = mockIssueEvent("created");
-                    var issue1Event2Mock = mockIssueEvent("labeled");
-                    when(issue1Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue1Event2Mock.getCreatedAt()).thenReturn(issue1ActionLabelEvent);
-                    var issue1Event3Mock = mockIssueEvent("labeled");
-                    when(issue1Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue1Event4Mock = mockIssueEvent("locked");
-                    var issue1EventsMocks = mockPagedIterable(issue1Event1Mock,
-                            issue1Event2Mock, issue1Event3Mock, issue1Event4Mock);
-                    when(issue1Mock.listEvents()).thenReturn(issue1EventsMocks);
-                    var issue1CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 101, noneUser),
-                            mockIssueComment(mocks, 102, adminUser));
-                    when(issue1Mock.queryComments()).thenReturn(issue1QueryCommentsBuilderMock);
-                    when(issue1QueryCommentsBuilderMock.list()).thenReturn(issue1CommentsMocks);
+                    when(issue1Mock.getNodeId()).thenReturn("issue1");
+                    var issue1Node = stubGraphQLIssueNode("issue1",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue1ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue1ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(stubGraphQLComment(strangerUserName, issue1ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(adminUserName, issue1ActionLabelEvent.plus(2, ChronoUnit.HOURS))));
 
                     var issue2Mock = mockIssueForLottery(mocks, 2, randomReporterUser);
-                    var issue2Event1Mock = mockIssueEvent("created");
-                    var issue2Event2Mock = mockIssueEvent("labeled");
-                    when(issue2Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue2Event2Mock.getCreatedAt()).thenReturn(issue2ActionLabelEvent);
-                    var issue2Event3Mock = mockIssueEvent("labeled");
-                    when(issue2Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue2Event4Mock = mockIssueEvent("locked");
-                    var issue2EventsMocks = mockPagedIterable(issue2Event1Mock,
-                            issue2Event2Mock, issue2Event3Mock, issue2Event4Mock);
-                    when(issue2Mock.listEvents()).thenReturn(issue2EventsMocks);
-                    var issue2CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 201, adminUser),
-                            mockIssueComment(mocks, 202, readUser));
-                    when(issue2Mock.queryComments()).thenReturn(issue2QueryCommentsBuilderMock);
-                    when(issue2QueryCommentsBuilderMock.list()).thenReturn(issue2CommentsMocks);
+                    when(issue2Mock.getNodeId()).thenReturn("issue2");
+                    var issue2Node = stubGraphQLIssueNode("issue2",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue2ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue2ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(
+                                    // Before the label was assigned -- should be ignored.
+                                    stubGraphQLComment(writeUserName, issue2ActionLabelEvent.minus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(adminUserName, issue2ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(readUserName, issue2ActionLabelEvent.plus(2, ChronoUnit.HOURS))));
 
                     var issue3Mock = mockIssueForLottery(mocks, 3, randomReporterUser);
-                    PagedSearchIterable<GHIssueEvent> issue3EventsMocks = mockPagedIterable();
-                    when(issue3Mock.listEvents()).thenReturn(issue3EventsMocks);
-                    var issue3CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 301, adminUser),
-                            mockIssueComment(mocks, 302, noneUser));
-                    when(issue3Mock.queryComments()).thenReturn(issue3QueryCommentsBuilderMock);
-                    when(issue3QueryCommentsBuilderMock.list()).thenReturn(issue3CommentsMocks);
+                    when(issue3Mock.getNodeId()).thenReturn("issue3");
+                    var issue3Node = stubGraphQLIssueNode("issue3",
+                            List.of(),
+                            List.of(stubGraphQLComment(adminUserName, cutoff.minus(3, ChronoUnit.DAYS)),
+                                    stubGraphQLComment(strangerUserName, cutoff.minus(2, ChronoUnit.DAYS))));
 
                     var issue4Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 4);
-                    PagedSearchIterable<GHIssueEvent> issue4EventsMocks = mockPagedIterable();
-                    when(issue4Mock.listEvents()).thenReturn(issue4EventsMocks);
-                    PagedSearchIterable<GHIssueComment> issue4CommentsMocks = mockPagedIterable();
-                    when(issue4Mock.queryComments()).thenReturn(issue4QueryCommentsBuilderMock);
-                    when(issue4QueryCommentsBuilderMock.list()).thenReturn(issue4CommentsMocks);
+                    when(issue4Mock.getNodeId()).thenReturn("issue4");
+                    var issue4Node = stubGraphQLIssueNode("issue4", List.of(), List.of());
 
                     var issue5Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 5, randomReporterUser);
-                    var issue5Event1Mock = mockIssueEvent("created");
-                    var issue5Event2Mock = mockIssueEvent("locked");
-                    var issue5EventsMocks = mockPagedIterable(issue5Event1Mock, issue5Event2Mock);
-                    when(issue5Mock.listEvents()).thenReturn(issue5EventsMocks);
-                    var issue5CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 501, noneUser),
-                            mockIssueComment(mocks, 502, writeUser));
-                    when(issue5Mock.queryComments()).thenReturn(issue5QueryCommentsBuilderMock);
-                    when(issue5QueryCommentsBuilderMock.list()).thenReturn(issue5CommentsMocks);
+                    when(issue5Mock.getNodeId()).thenReturn("issue5");
+                    var issue5Node = stubGraphQLIssueNode("issue5",
+                            List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, cutoff.minus(3, ChronoUnit.DAYS)),
+                                    stubGraphQLComment(writeUserName, cutoff.minus(2, ChronoUnit.DAYS))));
 
                     // issue6 used to be one after the cutoff, filtered out on the client side,
                     // but that's handled server-side now.
@@ -834,43 +1086,35 @@ public class GitHubServiceTest {
 
                     // This is like issue 2, but a bot commented after the user -- which should be ignored.
                     var issue7Mock = mockIssueForLottery(mocks, 7, randomReporterUser);
-                    var issue7Event1Mock = mockIssueEvent("created");
-                    var issue7Event2Mock = mockIssueEvent("labeled");
-                    when(issue7Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue7Event2Mock.getCreatedAt()).thenReturn(issue7ActionLabelEvent);
-                    var issue7Event3Mock = mockIssueEvent("labeled");
-                    when(issue7Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue7Event4Mock = mockIssueEvent("locked");
-                    var issue7EventsMocks = mockPagedIterable(issue7Event1Mock,
-                            issue7Event2Mock, issue7Event3Mock, issue7Event4Mock);
-                    when(issue7Mock.listEvents()).thenReturn(issue7EventsMocks);
-                    var issue7CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 701, adminUser),
-                            mockIssueComment(mocks, 702, readUser),
-                            mockIssueComment(mocks, 703, botUser));
-                    when(issue7Mock.queryComments()).thenReturn(issue7QueryCommentsBuilderMock);
-                    when(issue7QueryCommentsBuilderMock.list()).thenReturn(issue7CommentsMocks);
+                    when(issue7Mock.getNodeId()).thenReturn("issue7");
+                    var issue7Node = stubGraphQLIssueNode("issue7",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue7ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue7ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(stubGraphQLComment(adminUserName, issue7ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(readUserName, issue7ActionLabelEvent.plus(2, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(botUserName, issue7ActionLabelEvent.plus(3, ChronoUnit.HOURS))));
 
                     // This is like issue 2, but the reporter is a team member -- so should be considered as an outsider.
                     var issue8Mock = mockIssueForLottery(mocks, 8, writeUser);
-                    var issue8Event1Mock = mockIssueEvent("created");
-                    var issue8Event2Mock = mockIssueEvent("labeled");
-                    when(issue8Event2Mock.getLabel()).thenReturn(needsReproducerLabelMock);
-                    when(issue8Event2Mock.getCreatedAt()).thenReturn(issue8ActionLabelEvent);
-                    var issue8Event3Mock = mockIssueEvent("labeled");
-                    when(issue8Event3Mock.getLabel()).thenReturn(areaHibernateSearchLabelMock);
-                    var issue8Event4Mock = mockIssueEvent("locked");
-                    var issue8EventsMocks = mockPagedIterable(issue8Event1Mock,
-                            issue8Event2Mock, issue8Event3Mock, issue8Event4Mock);
-                    when(issue8Mock.listEvents()).thenReturn(issue8EventsMocks);
-                    var issue8CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 801, noneUser),
-                            mockIssueComment(mocks, 802, writeUser));
-                    when(issue8Mock.queryComments()).thenReturn(issue8QueryCommentsBuilderMock);
-                    when(issue8QueryCommentsBuilderMock.list()).thenReturn(issue8CommentsMocks);
+                    when(issue8Mock.getNodeId()).thenReturn("issue8");
+                    var issue8Node = stubGraphQLIssueNode("issue8",
+                            List.of(stubGraphQLLabeledEvent("triage/needs-reproducer", issue8ActionLabelEvent),
+                                    stubGraphQLLabeledEvent("area/hibernate-search",
+                                            issue8ActionLabelEvent.plus(1, ChronoUnit.MINUTES))),
+                            List.of(stubGraphQLComment(strangerUserName, issue8ActionLabelEvent.plus(1, ChronoUnit.HOURS)),
+                                    stubGraphQLComment(writeUserName, issue8ActionLabelEvent.plus(2, ChronoUnit.HOURS))));
 
                     when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
                     var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock, issue3Mock, issue4Mock, issue5Mock,
                             issue7Mock, issue8Mock);
                     when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+
+                    var graphQLResponse = mockGraphQLNodesResponse(issue1Node, issue2Node, issue3Node, issue4Node,
+                            issue5Node, issue7Node, issue8Node);
+                    when(mocks.installationGraphQLClient(installationRef.installationId())
+                            .executeSync(anyString(), anyMap()))
+                            .thenReturn(graphQLResponse);
                 })
                 .when(() -> {
                     var repo = gitHubService.repository(repoRef);
@@ -895,17 +1139,18 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("label:area/hibernate-search");
                     verifyNoMoreInteractions(searchIssuesBuilderMock);
 
-                    verify(issue1QueryCommentsBuilderMock).since(issue1ActionLabelEvent);
-                    verify(issue2QueryCommentsBuilderMock).since(issue2ActionLabelEvent);
-                    verify(issue7QueryCommentsBuilderMock).since(issue7ActionLabelEvent);
-                    verify(issue8QueryCommentsBuilderMock).since(issue8ActionLabelEvent);
+                    // A single GraphQL query for all issues
+                    verify(mocks.installationGraphQLClient(installationRef.installationId()))
+                            .executeSync(anyString(), variablesCaptor.capture());
+                    assertThat(variablesCaptor.getValue())
+                            .containsEntry("ids", List.of("issue1", "issue2", "issue3", "issue4", "issue5", "issue7", "issue8"));
 
                     verifyNoMoreInteractions(mocks.ghObjects());
                 });
     }
 
     @Test
-    void issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween() throws IOException {
+    void issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween() throws Exception {
         var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus");
 
         String maintainerUserName = "yrodiere";
@@ -913,89 +1158,73 @@ public class GitHubServiceTest {
         Instant now = LocalDateTime.of(2017, 11, 6, 6, 0).toInstant(ZoneOffset.UTC);
         Instant minCutoff = now.minus(14, ChronoUnit.DAYS);
         Instant maxCutoff = now.minus(0, ChronoUnit.DAYS);
+        Instant commentInstant = now.minus(1, ChronoUnit.DAYS);
 
         var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
                 withSettings().defaultAnswer(Answers.RETURNS_SELF));
-        var issue10QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> variablesCaptor = ArgumentCaptor.forClass(Map.class);
         given()
                 .github(mocks -> {
                     var clientMock = mocks.installationClient(installationRef.installationId());
                     var repositoryMock = mocks.repository(repoRef.repositoryName());
 
-                    var adminUser = mockUserForInspectedComments(mocks, repositoryMock, 1L, adminUserName,
-                            GHPermissionType.ADMIN);
+                    when(repositoryMock.getPermission(adminUserName)).thenReturn(GHPermissionType.ADMIN);
                     var writeUser = mockUserForInspectedComments(mocks, repositoryMock, 2L, writeUserName,
                             GHPermissionType.WRITE);
-                    var readUser = mockUserForInspectedComments(mocks, repositoryMock, 3L, readUserName, GHPermissionType.READ);
+                    when(repositoryMock.getPermission(readUserName)).thenReturn(GHPermissionType.READ);
                     var noneUser = mockUserForInspectedComments(mocks, repositoryMock, 4L, strangerUserName,
                             GHPermissionType.NONE);
-                    var botUser = mockUserForInspectedComments(mocks, repositoryMock, 5L, botUserName);
                     var randomReporterUser = mockUserForInspectedComments(mocks, repositoryMock, 6L, randomReporterUserName);
                     var maintainerUser = mockUserForInspectedComments(mocks, repositoryMock, 7L, maintainerUserName);
 
                     var issue1Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 1, randomReporterUser);
                     when(issue1Mock.isPullRequest()).thenReturn(false);
-                    var issue1CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 101, noneUser),
-                            mockIssueComment(mocks, 102, readUser),
-                            mockIssueComment(mocks, 103, adminUser));
-                    var issue1QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue1Mock.queryComments()).thenReturn(issue1QueryCommentsBuilderMock);
-                    when(issue1QueryCommentsBuilderMock.list()).thenReturn(issue1CommentsMocks);
+                    when(issue1Mock.getNodeId()).thenReturn("issue1");
+                    var issue1Node = stubGraphQLIssueNode("issue1", List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, commentInstant),
+                                    stubGraphQLComment(readUserName, commentInstant),
+                                    stubGraphQLComment(adminUserName, commentInstant)));
 
                     var issue2Mock = mockIssueForLottery(mocks, 2, randomReporterUser);
                     when(issue2Mock.isPullRequest()).thenReturn(false);
-                    var issue2CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 202, readUser));
-                    var issue2QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue2Mock.queryComments()).thenReturn(issue2QueryCommentsBuilderMock);
-                    when(issue2QueryCommentsBuilderMock.list()).thenReturn(issue2CommentsMocks);
+                    when(issue2Mock.getNodeId()).thenReturn("issue2");
+                    var issue2Node = stubGraphQLIssueNode("issue2", List.of(),
+                            List.of(stubGraphQLComment(readUserName, commentInstant)));
 
                     var issue3Mock = mockIssueForLottery(mocks, 3, randomReporterUser);
                     when(issue3Mock.isPullRequest()).thenReturn(false);
-                    var issue3CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 302, noneUser));
-                    var issue3QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue3Mock.queryComments()).thenReturn(issue3QueryCommentsBuilderMock);
-                    when(issue3QueryCommentsBuilderMock.list()).thenReturn(issue3CommentsMocks);
+                    when(issue3Mock.getNodeId()).thenReturn("issue3");
+                    var issue3Node = stubGraphQLIssueNode("issue3", List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, commentInstant)));
 
                     var issue4Mock = mockIssueForLottery(mocks, 4, noneUser);
                     when(issue4Mock.isPullRequest()).thenReturn(false);
-                    PagedSearchIterable<GHIssueComment> issue4CommentsMocks = mockPagedIterable();
-                    var issue4QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue4Mock.queryComments()).thenReturn(issue4QueryCommentsBuilderMock);
-                    when(issue4QueryCommentsBuilderMock.list()).thenReturn(issue4CommentsMocks);
+                    when(issue4Mock.getNodeId()).thenReturn("issue4");
+                    var issue4Node = stubGraphQLIssueNode("issue4", List.of(), List.of());
 
                     var issue5Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 5, randomReporterUser);
                     when(issue5Mock.isPullRequest()).thenReturn(false);
-                    var issue5CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 501, noneUser),
-                            mockIssueComment(mocks, 502, writeUser));
-                    var issue5QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue5Mock.queryComments()).thenReturn(issue5QueryCommentsBuilderMock);
-                    when(issue5QueryCommentsBuilderMock.list()).thenReturn(issue5CommentsMocks);
+                    when(issue5Mock.getNodeId()).thenReturn("issue5");
+                    var issue5Node = stubGraphQLIssueNode("issue5", List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, commentInstant),
+                                    stubGraphQLComment(writeUserName, commentInstant)));
 
                     // This is like issue 2, but a bot commented after the user -- which should be ignored.
                     var issue7Mock = mockIssueForLottery(mocks, 7, randomReporterUser);
                     when(issue7Mock.isPullRequest()).thenReturn(false);
-                    var issue7CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 701, readUser),
-                            mockIssueComment(mocks, 702, botUser));
-                    var issue7QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue7Mock.queryComments()).thenReturn(issue7QueryCommentsBuilderMock);
-                    when(issue7QueryCommentsBuilderMock.list()).thenReturn(issue7CommentsMocks);
+                    when(issue7Mock.getNodeId()).thenReturn("issue7");
+                    var issue7Node = stubGraphQLIssueNode("issue7", List.of(),
+                            List.of(stubGraphQLComment(readUserName, commentInstant),
+                                    stubGraphQLComment(botUserName, commentInstant)));
 
                     // This is like issue 5, but the reporter is a team member -- so his comments should be considered as outsider comments.
                     var issue8Mock = mockIssueForLottery(mocks, 8, writeUser);
                     when(issue8Mock.isPullRequest()).thenReturn(false);
-                    var issue8CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 801, noneUser),
-                            mockIssueComment(mocks, 802, writeUser));
-                    var issue8QueryCommentsBuilderMock = Mockito.mock(GHIssueCommentQueryBuilder.class,
-                            withSettings().defaultAnswer(Answers.RETURNS_SELF));
-                    when(issue8Mock.queryComments()).thenReturn(issue8QueryCommentsBuilderMock);
-                    when(issue8QueryCommentsBuilderMock.list()).thenReturn(issue8CommentsMocks);
+                    when(issue8Mock.getNodeId()).thenReturn("issue8");
+                    var issue8Node = stubGraphQLIssueNode("issue8", List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, commentInstant),
+                                    stubGraphQLComment(writeUserName, commentInstant)));
 
                     // This is like issue 2, but the reporter is a maintainer, and the issue is not a PR -- so the issue should be ignored.
                     var issue9Mock = mockIssueForLotteryFilteredOutByRepository(mocks, 9, maintainerUser);
@@ -1004,14 +1233,20 @@ public class GitHubServiceTest {
                     // This is like issue 2, but the reporter is a maintainer, and the issue is a PR -- so the issue should be returned.
                     var issue10Mock = mockIssueForLottery(mocks, 10, maintainerUser);
                     when(issue10Mock.isPullRequest()).thenReturn(true);
-                    var issue10CommentsMocks = mockPagedIterable(mockIssueComment(mocks, 1001, noneUser));
-                    when(issue10Mock.queryComments()).thenReturn(issue10QueryCommentsBuilderMock);
-                    when(issue10QueryCommentsBuilderMock.list()).thenReturn(issue10CommentsMocks);
+                    when(issue10Mock.getNodeId()).thenReturn("issue10");
+                    var issue10Node = stubGraphQLIssueNode("issue10", List.of(),
+                            List.of(stubGraphQLComment(strangerUserName, commentInstant)));
 
                     var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock, issue3Mock, issue4Mock, issue5Mock,
                             issue7Mock, issue8Mock, issue9Mock, issue10Mock);
                     when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
                     when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+
+                    var graphQLResponse = mockGraphQLNodesResponse(issue1Node, issue2Node, issue3Node, issue4Node,
+                            issue5Node, issue7Node, issue8Node, issue10Node);
+                    when(mocks.installationGraphQLClient(installationRef.installationId())
+                            .executeSync(anyString(), anyMap()))
+                            .thenReturn(graphQLResponse);
                 })
                 .when(() -> {
                     var repo = gitHubService.repository(repoRef);
@@ -1041,6 +1276,13 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("-commenter:yrodiere");
                     verifyNoMoreInteractions(searchIssuesBuilderMock);
 
+                    // A single GraphQL query for all issues that were not filtered out beforehand
+                    verify(mocks.installationGraphQLClient(installationRef.installationId()))
+                            .executeSync(anyString(), variablesCaptor.capture());
+                    assertThat(variablesCaptor.getValue())
+                            .containsEntry("ids", List.of("issue1", "issue2", "issue3", "issue4", "issue5", "issue7",
+                                    "issue8", "issue10"));
+
                     verifyNoMoreInteractions(mocks.ghObjects());
                 });
     }
@@ -1332,7 +1574,7 @@ public class GitHubServiceTest {
                     var issue1Mock = mockIssueForNotification(mocks, 1, "An unrelated issue");
 
                     var issue2Mock = mockIssueForNotification(mocks, 2,
-                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)");
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
                     when(issue2Mock.getState()).thenReturn(GHIssueState.OPEN);
                     when(issue2Mock.getCommentsCount()).thenReturn(3);
                     when(issue2Mock.queryComments()).thenReturn(queryCommentsBuilderMock);
@@ -1361,7 +1603,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
 
                     verify(queryCommentsBuilderMock).since(Date.from(now.minus(21, ChronoUnit.DAYS)));
                     var mapCaptor = ArgumentCaptor.forClass(Map.class);
@@ -1548,7 +1789,7 @@ public class GitHubServiceTest {
                     var issue1Mock = mockIssueForNotification(mocks, 1, "An unrelated issue");
 
                     var issue2Mock = mockIssueForNotification(mocks, 2,
-                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)");
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
                     when(issue2Mock.getState()).thenReturn(GHIssueState.CLOSED);
                     when(issue2Mock.getCommentsCount()).thenReturn(3);
                     when(issue2Mock.queryComments()).thenReturn(queryCommentsBuilderMock);
@@ -1577,7 +1818,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
 
                     verify(mocks.issue(2)).setTitle("yrodiere's report for quarkusio/quarkus (updated 2017-11-06T06:00:00Z)");
                     verify(mocks.issue(2)).reopen();
@@ -1635,7 +1875,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
                     verify(repositoryMock)
                             .createIssue("yrodiere's report for quarkusio/quarkus (updated 2017-11-06T06:00:00Z)");
                     verify(issueBuilderMock).assignee("yrodiere");
@@ -1685,7 +1924,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
                     verify(repositoryMock)
                             .createIssue("yrodiere's report for quarkusio/quarkus (updated 2017-11-06T06:00:00Z)");
                     verify(issueBuilderMock).assignee("yrodiere");
@@ -1724,7 +1962,7 @@ public class GitHubServiceTest {
                     var issue1Mock = mockIssueForNotification(mocks, 1, "An unrelated issue");
 
                     var issue2Mock = mockIssueForNotification(mocks, 2,
-                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)");
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
                     when(issue2Mock.getNumber()).thenReturn(2);
                     when(issue2Mock.getState()).thenReturn(GHIssueState.OPEN);
                     // Mock 16 comments to trigger packing (threshold 15, retain 10)
@@ -1761,7 +1999,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
 
                     // Verify getCommentsCount was called for pack check
                     verify(mocks.issue(2)).getCommentsCount();
@@ -1898,7 +2135,7 @@ public class GitHubServiceTest {
                     when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
                     var issue1Mock = mockIssueForNotification(mocks, 1, "An unrelated issue");
                     var issue2Mock = mockIssueForNotification(mocks, 2,
-                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)");
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
                     var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock);
                     when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
 
@@ -1915,7 +2152,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
 
                     verifyNoMoreInteractions(searchIssuesBuilderMock);
                     verifyNoMoreInteractions(mocks.ghObjects());
@@ -1940,7 +2176,7 @@ public class GitHubServiceTest {
                     when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
                     var issue1Mock = mockIssueForNotification(mocks, 1, "An unrelated issue");
                     var issue2Mock = mockIssueForNotification(mocks, 2,
-                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)");
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
                     var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock);
                     when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
 
@@ -1957,7 +2193,6 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
 
                     verifyNoMoreInteractions(searchIssuesBuilderMock);
                     verifyNoMoreInteractions(mocks.ghObjects());
@@ -1990,7 +2225,95 @@ public class GitHubServiceTest {
                     verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
                     verify(searchIssuesBuilderMock).q("is:issue");
                     verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
-                    verify(searchIssuesBuilderMock).q("assignee:yrodiere");
+
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void topic_isClosed_multipleTopics() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus-lottery-reports");
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    var issue1Mock = mockIssueForNotification(mocks, 1,
+                            "yrodiere's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "yrodiere");
+                    when(issue1Mock.getState()).thenReturn(GHIssueState.OPEN);
+                    var issue2Mock = mockIssueForNotification(mocks, 2,
+                            "gsmet's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "gsmet");
+                    when(issue2Mock.getState()).thenReturn(GHIssueState.CLOSED);
+                    // Reassigned manually: no longer dedicated to that topic.
+                    var issue3Mock = mockIssueForNotification(mocks, 3,
+                            "jdoe's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "someone-else");
+                    var issuesMocks = mockPagedIterable(issue1Mock, issue2Mock, issue3Mock);
+                    when(searchIssuesBuilderMock.list()).thenReturn(issuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    assertThat(repo.topic(TopicRef.notification("yrodiere", "yrodiere's report for quarkusio/quarkus"))
+                            .isClosed())
+                            .isFalse();
+                    assertThat(repo.topic(TopicRef.notification("gsmet", "gsmet's report for quarkusio/quarkus"))
+                            .isClosed())
+                            .isTrue();
+                    assertThat(repo.topic(TopicRef.notification("jdoe", "jdoe's report for quarkusio/quarkus"))
+                            .isClosed())
+                            .isFalse();
+                })
+                .then().github(mocks -> {
+                    // A single search for all topics.
+                    verify(searchIssuesBuilderMock).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock).q("is:issue");
+                    verify(searchIssuesBuilderMock).q("author:" + installationRef.appLogin());
+                    verify(searchIssuesBuilderMock).list();
+
+                    verifyNoMoreInteractions(searchIssuesBuilderMock);
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+    }
+
+    @Test
+    void topic_isClosed_tooManyAppIssues() throws IOException {
+        var repoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus-lottery-reports");
+        var searchIssuesBuilderMock = Mockito.mock(GHIssueSearchBuilder.class,
+                withSettings().defaultAnswer(Answers.RETURNS_SELF));
+
+        given()
+                .github(mocks -> {
+                    var clientMock = mocks.installationClient(installationRef.installationId());
+
+                    when(clientMock.searchIssues()).thenReturn(searchIssuesBuilderMock);
+                    // GitHub only returns the first 1000 results of a search:
+                    // the dedicated issue may not be among them.
+                    var allAppIssuesMocks = mockPagedIterable(mocks.issue(1));
+                    when(allAppIssuesMocks.getTotalCount()).thenReturn(1001);
+                    var issue2Mock = mockIssueForNotification(mocks, 2,
+                            "gsmet's report for quarkusio/quarkus (updated 2017-11-05T06:00:00Z)", "gsmet");
+                    when(issue2Mock.getState()).thenReturn(GHIssueState.CLOSED);
+                    var topicIssuesMocks = mockPagedIterable(issue2Mock);
+                    when(searchIssuesBuilderMock.list()).thenReturn(allAppIssuesMocks, topicIssuesMocks);
+                })
+                .when(() -> {
+                    var repo = gitHubService.repository(repoRef);
+
+                    assertThat(repo.topic(TopicRef.notification("gsmet", "gsmet's report for quarkusio/quarkus"))
+                            .isClosed())
+                            .isTrue();
+                })
+                .then().github(mocks -> {
+                    // One search for all topics, then one for the topic since the first one was truncated.
+                    verify(searchIssuesBuilderMock, times(2)).q("repo:" + repoRef.repositoryName());
+                    verify(searchIssuesBuilderMock, times(2)).q("is:issue");
+                    verify(searchIssuesBuilderMock, times(2)).q("author:" + installationRef.appLogin());
+                    verify(searchIssuesBuilderMock).q("assignee:gsmet");
+                    verify(searchIssuesBuilderMock, times(2)).list();
 
                     verifyNoMoreInteractions(searchIssuesBuilderMock);
                     verifyNoMoreInteractions(mocks.ghObjects());
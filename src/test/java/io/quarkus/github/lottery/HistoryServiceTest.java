@@ -2,9 +2,13 @@ package io.quarkus.github.lottery;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -13,6 +17,7 @@ import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import jakarta.inject.Inject;
@@ -120,6 +125,7 @@ public class HistoryServiceTest {
         assertThat(history.lastNotificationToday("yrodiere", timezone))
                 .isEmpty();
 
+        verify(persistenceRepoMock).close();
         verifyNoMoreInteractions(gitHubServiceMock, persistenceRepoMock, messageFormatterMock);
     }
 
@@ -138,16 +144,15 @@ public class HistoryServiceTest {
                 .thenReturn(topicMock);
         when(topicMock.extractComments(any()))
                 .thenAnswer(ignored -> Stream.of(historyBody));
-        when(messageFormatterMock.extractPayloadFromHistoryBodyMarkdown(historyBody))
-                .thenReturn(List.of(
-                        new LotteryReport.Serialized(now.minus(2, ChronoUnit.DAYS), "jane",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(6, 7))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty()),
-                        new LotteryReport.Serialized(now.minus(1, ChronoUnit.HOURS), "gsmet",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, 2))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty())));
+        mockHistoryPayload(historyBody, List.of(
+                new LotteryReport.Serialized(now.minus(2, ChronoUnit.DAYS), "jane",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(6, 7))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()),
+                new LotteryReport.Serialized(now.minus(1, ChronoUnit.HOURS), "gsmet",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, 2))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()));
 
         var history = historyService.fetch(drawRef, config);
 
@@ -158,6 +163,7 @@ public class HistoryServiceTest {
         assertThat(history.lastNotificationToday("yrodiere", timezone))
                 .isEmpty();
 
+        verify(persistenceRepoMock).close();
         verifyNoMoreInteractions(gitHubServiceMock, persistenceRepoMock, messageFormatterMock);
     }
 
@@ -176,20 +182,19 @@ public class HistoryServiceTest {
                 .thenReturn(topicMock);
         when(topicMock.extractComments(any()))
                 .thenAnswer(ignored -> Stream.of(historyBody));
-        when(messageFormatterMock.extractPayloadFromHistoryBodyMarkdown(historyBody))
-                .thenReturn(List.of(
-                        new LotteryReport.Serialized(now.minus(2, ChronoUnit.DAYS), "jane",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(6, 7))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty()),
-                        new LotteryReport.Serialized(now.minus(1, ChronoUnit.HOURS), "gsmet",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, 2))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty()),
-                        new LotteryReport.Serialized(now.minus(9, ChronoUnit.HOURS), "yrodiere",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(4, 5))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty())));
+        mockHistoryPayload(historyBody, List.of(
+                new LotteryReport.Serialized(now.minus(2, ChronoUnit.DAYS), "jane",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(6, 7))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()),
+                new LotteryReport.Serialized(now.minus(1, ChronoUnit.HOURS), "gsmet",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, 2))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()),
+                new LotteryReport.Serialized(now.minus(9, ChronoUnit.HOURS), "yrodiere",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(4, 5))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()));
 
         var history = historyService.fetch(drawRef, config);
 
@@ -203,6 +208,7 @@ public class HistoryServiceTest {
         assertThat(history.lastNotificationToday("yrodiere", timezone))
                 .contains(now.minus(9, ChronoUnit.HOURS).atZone(timezone));
 
+        verify(persistenceRepoMock).close();
         verifyNoMoreInteractions(gitHubServiceMock, persistenceRepoMock, messageFormatterMock);
     }
 
@@ -226,6 +232,7 @@ public class HistoryServiceTest {
         assertThat(history.triage().lastNotificationTimedOutForIssueNumber(2))
                 .isTrue();
 
+        verify(persistenceRepoMock).close();
         verifyNoMoreInteractions(gitHubServiceMock, persistenceRepoMock, messageFormatterMock);
     }
 
@@ -244,16 +251,15 @@ public class HistoryServiceTest {
                 .thenReturn(topicMock);
         when(topicMock.extractComments(any()))
                 .thenAnswer(ignored -> Stream.of(historyBody));
-        when(messageFormatterMock.extractPayloadFromHistoryBodyMarkdown(historyBody))
-                .thenReturn(List.of(
-                        new LotteryReport.Serialized(now.minus(1, ChronoUnit.DAYS), "gsmet",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, 2))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty()),
-                        new LotteryReport.Serialized(now.minus(7, ChronoUnit.DAYS), "yrodiere",
-                                Optional.of(new LotteryReport.Bucket.Serialized(List.of(42))),
-                                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
-                                Optional.empty())));
+        mockHistoryPayload(historyBody, List.of(
+                new LotteryReport.Serialized(now.minus(1, ChronoUnit.DAYS), "gsmet",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, 2))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()),
+                new LotteryReport.Serialized(now.minus(7, ChronoUnit.DAYS), "yrodiere",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(42))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.empty()));
 
         var history = historyService.fetch(drawRef, config);
 
@@ -267,7 +273,15 @@ public class HistoryServiceTest {
         assertThat(history.triage().lastNotificationTimedOutForIssueNumber(42))
                 .isTrue();
 
+        verify(persistenceRepoMock).close();
         verifyNoMoreInteractions(gitHubServiceMock, persistenceRepoMock, messageFormatterMock);
     }
 
+    private void mockHistoryPayload(String historyBody, List<LotteryReport.Serialized> reports) throws IOException {
+        doAnswer(invocation -> {
+            Consumer<LotteryReport.Serialized> consumer = invocation.getArgument(1);
+            reports.forEach(consumer);
+            return null;
+        }).when(messageFormatterMock).extractPayloadFromHistoryBodyMarkdown(eq(historyBody), any());
+    }
 }
@@ -66,4 +66,31 @@ public class LotteryNoConfigTest {
         verifyNoMoreInteractions(mainMocks);
     }
 
+    @Test
+    void noConfig_multipleRepositories_failureIsolated() throws IOException {
+        var failingRepoRef = new GitHubRepositoryRef(installationRef, "quarkusio/quarkus-failing");
+        var failingRepoMock = Mockito.mock(GitHubRepository.class);
+        var otherInstallationRepoRef = new GitHubRepositoryRef(
+                new GitHubInstallationRef("quarkus-github-lottery", 2L), "quarkusio/quarkus-other");
+        var otherInstallationRepoMock = Mockito.mock(GitHubRepository.class);
+        when(gitHubServiceMock.listRepositories())
+                .thenReturn(List.of(failingRepoRef, repoRef, otherInstallationRepoRef));
+        when(gitHubServiceMock.repository(failingRepoRef)).thenReturn(failingRepoMock);
+        when(gitHubServiceMock.repository(otherInstallationRepoRef)).thenReturn(otherInstallationRepoMock);
+
+        when(failingRepoMock.fetchLotteryConfig()).thenThrow(new IOException("Simulated failure"));
+        when(repoMock.fetchLotteryConfig()).thenReturn(Optional.empty());
+        when(otherInstallationRepoMock.fetchLotteryConfig()).thenReturn(Optional.empty());
+
+        lotteryService.draw();
+
+        // A failure for one repository must not prevent draws for other repositories.
+        verify(failingRepoMock).close();
+        verify(repoMock).close();
+        verify(otherInstallationRepoMock).close();
+
+        verifyNoMoreInteractions(mainMocks);
+        verifyNoMoreInteractions(failingRepoMock, otherInstallationRepoMock);
+    }
+
 }
\ No newline at end of file
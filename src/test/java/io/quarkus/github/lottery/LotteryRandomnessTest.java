@@ -123,6 +123,7 @@ public class LotteryRandomnessTest {
         notifierMock = mock(Notifier.class);
         when(notificationServiceMock.notifier(eq(drawRef), any())).thenReturn(notifierMock);
         doNothing().when(notifierMock).close();
+        when(notifierMock.installationRef()).thenReturn(installationRef);
 
         historyServiceMock = Mockito.mock(HistoryService.class);
         QuarkusMock.installMockForType(historyServiceMock, HistoryService.class);
@@ -12,6 +12,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -142,6 +143,7 @@ public class LotterySingleRepositoryTest {
         notifierMock = mock(Notifier.class);
         when(notificationServiceMock.notifier(eq(drawRef), any())).thenReturn(notifierMock);
         doNothing().when(notifierMock).close();
+        when(notifierMock.installationRef()).thenReturn(installationRef);
 
         historyServiceMock = Mockito.mock(HistoryService.class);
         QuarkusMock.installMockForType(historyServiceMock, HistoryService.class);
@@ -799,6 +801,69 @@ public class LotterySingleRepositoryTest {
         verifyNoMoreInteractions(historyFeedbackNeededMock, historyFeedbackProvidedMock, historyStaleMock);
     }
 
+    @Test
+    void multiParticipants_sendFailure() throws IOException {
+        var config = defaultConfig(List.of(
+                new LotteryConfig.Participant("yrodiere",
+                        Optional.empty(),
+                        Optional.of(new LotteryConfig.Participant.Triage(
+                                Set.of(DayOfWeek.MONDAY),
+                                new LotteryConfig.Participant.Participation(1))),
+                        Optional.empty(),
+                        Optional.empty()),
+                new LotteryConfig.Participant("gsmet",
+                        Optional.empty(),
+                        Optional.of(new LotteryConfig.Participant.Triage(
+                                Set.of(DayOfWeek.MONDAY),
+                                new LotteryConfig.Participant.Participation(1))),
+                        Optional.empty(),
+                        Optional.empty()),
+                new LotteryConfig.Participant("geoand",
+                        Optional.empty(),
+                        Optional.of(new LotteryConfig.Participant.Triage(
+                                Set.of(DayOfWeek.MONDAY),
+                                new LotteryConfig.Participant.Participation(1))),
+                        Optional.empty(),
+                        Optional.empty())));
+        when(repoMock.fetchLotteryConfig()).thenReturn(Optional.of(config));
+
+        when(repoMock.issuesOrPullRequestsWithLabelLastUpdatedBefore("triage/needs-triage", Set.of(), now))
+                .thenAnswer(ignored -> stubIssueList(1, 3, 2, 4).stream());
+
+        mockNotifiable("yrodiere", ZoneOffset.UTC);
+        mockNotifiable("gsmet", ZoneOffset.UTC);
+        mockNotifiable("geoand", ZoneOffset.UTC);
+
+        var historyTriageMock = mock(LotteryHistory.Bucket.class);
+        when(historyMock.triage()).thenReturn(historyTriageMock);
+        when(historyTriageMock.lastNotificationTimedOutForIssueNumber(anyInt())).thenReturn(true);
+
+        // Reports are sent concurrently: failing to send one must not affect the others.
+        doAnswer(invocation -> {
+            if ("gsmet".equals(invocation.<LotteryReport> getArgument(0).username())) {
+                throw new IOException("Simulated failure");
+            }
+            return null;
+        }).when(notifierMock).send(any());
+
+        lotteryService.draw();
+
+        verify(notifierMock, Mockito.times(3)).send(any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LotteryReport.Serialized>> sentCaptor = ArgumentCaptor.forClass(List.class);
+        verify(historyServiceMock).append(eq(drawRef), eq(config), sentCaptor.capture());
+        // Only reports that were sent successfully end up in history, in participant order.
+        assertThat(sentCaptor.getValue())
+                .extracting(LotteryReport.Serialized::username)
+                .containsExactly("yrodiere", "geoand");
+
+        verify(notifierMock).close();
+        verify(repoMock).close();
+
+        verifyNoMoreInteractions(mainMocks);
+    }
+
     @RepeatedTest(10) // Just to be reasonably certain that issues are spread evenly
     void multiParticipants_evenSpread() throws IOException {
         var config = defaultConfig(List.of(
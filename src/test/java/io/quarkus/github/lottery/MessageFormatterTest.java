@@ -492,6 +492,37 @@ public class MessageFormatterTest {
                 .isEqualTo(lotteryReports);
     }
 
+    @Test
+    void formatHistoryBodyMarkdown_compactPayload() throws IOException {
+        var lotteryReports = List.of(
+                new LotteryReport.Serialized(drawRef.instant(), "yrodiere",
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(38001, 37002, 41003))),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of()))),
+                new LotteryReport.Serialized(drawRef.instant().minusNanos(1), "gsmét",
+                        Optional.empty(),
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(1, Integer.MAX_VALUE))),
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(2))),
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(3))),
+                        Optional.of(new LotteryReport.Bucket.Serialized(List.of(4))),
+                        Optional.empty()));
+        String formatted = messageFormatter.formatHistoryBodyMarkdown(drawRef, lotteryReports);
+        String payload = formatted.substring(formatted.indexOf("<!--:payload:\n") + "<!--:payload:\n".length(),
+                formatted.lastIndexOf("\n:payload:-->"));
+        assertThat(payload)
+                .startsWith("v2:")
+                // Must not end the HTML comment early
+                .doesNotContain("--")
+                .doesNotContain("\n");
+
+        assertThat(messageFormatter.extractPayloadFromHistoryBodyMarkdown(formatted))
+                .usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(lotteryReports);
+        assertThat(messageFormatter.extractPayloadFromHistoryBodyMarkdown(
+                messageFormatter.formatHistoryBodyMarkdown(drawRef, List.of())))
+                .isEmpty();
+    }
+
     @Test
     void extractPayloadFromHistoryBodyMarkdown_oldFormatWithReproducer() throws IOException {
         var lotteryReports = List.of(
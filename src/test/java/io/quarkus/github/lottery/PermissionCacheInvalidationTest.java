@@ -0,0 +1,78 @@
+package io.quarkus.github.lottery;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.io.IOException;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHEvent;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.github.lottery.github.IssueActionSide;
+import io.quarkus.github.lottery.github.PermissionCache;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+@GitHubAppTest
+@ExtendWith(MockitoExtension.class)
+public class PermissionCacheInvalidationTest {
+
+    @Inject
+    PermissionCache permissionCache;
+
+    @BeforeEach
+    void setup() {
+        permissionCache.invalidateAll();
+        permissionCache.get("quarkusio/quarkus", "someuser", ignored -> IssueActionSide.TEAM);
+        permissionCache.get("quarkusio/quarkus", "otheruser", ignored -> IssueActionSide.TEAM);
+        permissionCache.get("quarkusio/other", "someuser", ignored -> IssueActionSide.TEAM);
+    }
+
+    @Test
+    void memberRemoved() throws IOException {
+        given().github(mocks -> {
+        })
+                .when()
+                .payloadFromClasspath("/member-removed.json")
+                .event(GHEvent.MEMBER)
+                .then()
+                .github(mocks -> {
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+
+        assertThat(permissionCache.get("quarkusio/quarkus", "someuser", ignored -> IssueActionSide.OUTSIDER))
+                .isEqualTo(IssueActionSide.OUTSIDER);
+        assertThat(permissionCache.get("quarkusio/quarkus", "otheruser", ignored -> IssueActionSide.OUTSIDER))
+                .isEqualTo(IssueActionSide.TEAM);
+        assertThat(permissionCache.get("quarkusio/other", "someuser", ignored -> IssueActionSide.OUTSIDER))
+                .isEqualTo(IssueActionSide.TEAM);
+    }
+
+    @Test
+    void teamRemovedFromRepository() throws IOException {
+        given().github(mocks -> {
+        })
+                .when()
+                .payloadFromClasspath("/team-removed-from-repository.json")
+                .event(GHEvent.TEAM)
+                .then()
+                .github(mocks -> {
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+
+        assertThat(permissionCache.get("quarkusio/quarkus", "someuser", ignored -> IssueActionSide.OUTSIDER))
+                .isEqualTo(IssueActionSide.OUTSIDER);
+        assertThat(permissionCache.get("quarkusio/quarkus", "otheruser", ignored -> IssueActionSide.OUTSIDER))
+                .isEqualTo(IssueActionSide.OUTSIDER);
+        assertThat(permissionCache.get("quarkusio/other", "someuser", ignored -> IssueActionSide.OUTSIDER))
+                .isEqualTo(IssueActionSide.TEAM);
+    }
+
+}
@@ -0,0 +1,60 @@
+package io.quarkus.github.lottery;
+
+import static io.quarkiverse.githubapp.testing.GitHubAppTesting.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.io.IOException;
+import java.time.Instant;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kohsuke.github.GHEvent;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.quarkiverse.githubapp.testing.GitHubAppTest;
+import io.quarkus.github.lottery.github.SearchCursorCache;
+import io.quarkus.github.lottery.util.IncrementalSearchWebhooksProfile;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+@QuarkusTest
+@GitHubAppTest
+@ExtendWith(MockitoExtension.class)
+@TestProfile(IncrementalSearchWebhooksProfile.class)
+public class SearchCursorUpdateTest {
+
+    @Inject
+    SearchCursorCache searchCursorCache;
+
+    @BeforeEach
+    void setup() {
+        searchCursorCache.invalidateAll();
+    }
+
+    @Test
+    void issueLabeled() throws IOException {
+        Instant start = Instant.now();
+
+        given().github(mocks -> {
+        })
+                .when()
+                .payloadFromClasspath("/issue-labeled.json")
+                .event(GHEvent.ISSUES)
+                .then()
+                .github(mocks -> {
+                    verifyNoMoreInteractions(mocks.ghObjects());
+                });
+
+        assertThat(searchCursorCache.changedIssueNumbers("quarkusio/quarkus", start))
+                .containsExactly(42);
+        assertThat(searchCursorCache.changedIssueNumbers("quarkusio/quarkus", Instant.now().plusSeconds(1)))
+                .isEmpty();
+        assertThat(searchCursorCache.changedIssueNumbers("quarkusio/other", start))
+                .isEmpty();
+    }
+
+}
@@ -20,6 +20,23 @@ class StreamsTest {
                 .containsExactlyElementsOf(expectedOutput);
     }
 
+    @ParameterizedTest
+    @MethodSource("batchParamSource")
+    void batch(List<List<Integer>> expectedOutput, List<Integer> input, int batchSize) {
+        assertThat(Streams.batch(input.stream(), batchSize))
+                .containsExactlyElementsOf(expectedOutput);
+    }
+
+    static Stream<Arguments> batchParamSource() {
+        return Stream.of(
+                Arguments.of(List.of(), List.of(), 2),
+                Arguments.of(List.of(List.of(1)), List.of(1), 2),
+                Arguments.of(List.of(List.of(1, 2)), List.of(1, 2), 2),
+                Arguments.of(List.of(List.of(1, 2), List.of(3)), List.of(1, 2, 3), 2),
+                Arguments.of(List.of(List.of(1), List.of(2), List.of(3)), List.of(1, 2, 3), 1),
+                Arguments.of(List.of(List.of(1, 2, 3)), List.of(1, 2, 3), 100));
+    }
+
     static Stream<Arguments> interleaveParamSource() {
         return Stream.of(
                 Arguments.of(List.of(),
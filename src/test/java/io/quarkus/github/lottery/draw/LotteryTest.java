@@ -0,0 +1,251 @@
+package io.quarkus.github.lottery.draw;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+import io.quarkus.github.lottery.config.LotteryConfig;
+import io.quarkus.github.lottery.github.GitHubRepository;
+import io.quarkus.github.lottery.github.Issue;
+import io.quarkus.github.lottery.github.IssuePool;
+import io.quarkus.github.lottery.history.LotteryHistory;
+
+class LotteryTest {
+
+    private static final LotteryConfig.Buckets BUCKETS = new LotteryConfig.Buckets(
+            new LotteryConfig.Buckets.Triage("triage/needs-triage", Duration.ZERO, Duration.ofDays(3)),
+            new LotteryConfig.Buckets.Maintenance(
+                    new LotteryConfig.Buckets.Maintenance.Created(Duration.ZERO, Duration.ofDays(1),
+                            Duration.ofDays(14), List.of()),
+                    new LotteryConfig.Buckets.Maintenance.Feedback(List.of("triage/needs-feedback"),
+                            new LotteryConfig.Buckets.Maintenance.Feedback.Needed(Duration.ofDays(21),
+                                    Duration.ofDays(3)),
+                            new LotteryConfig.Buckets.Maintenance.Feedback.Provided(Duration.ofDays(7),
+                                    Duration.ofDays(3))),
+                    new LotteryConfig.Buckets.Maintenance.Stale(Duration.ofDays(60), Duration.ofDays(14), List.of())),
+            new LotteryConfig.Buckets.Stewardship(Duration.ofDays(60), Duration.ofDays(14), List.of()));
+
+    private final DeploymentConfig deploymentConfig = mock(DeploymentConfig.class);
+    private final DeploymentConfig.MergedLabelSearch mergedLabelSearchConfig = mock(DeploymentConfig.MergedLabelSearch.class);
+    private final DeploymentConfig.IncrementalSearch incrementalSearchConfig = mock(DeploymentConfig.IncrementalSearch.class);
+    private final DeploymentConfig.SharedIssuePool sharedIssuePoolConfig = mock(DeploymentConfig.SharedIssuePool.class);
+    private final GitHubRepository repo = mock(GitHubRepository.class);
+
+    @BeforeEach
+    void setup() {
+        when(deploymentConfig.minChunkSize()).thenReturn(20);
+        when(deploymentConfig.maxChunkSize()).thenReturn(40);
+        when(deploymentConfig.pageSize()).thenReturn(60);
+        when(deploymentConfig.prefetchPages()).thenReturn(1);
+        when(deploymentConfig.mergedLabelSearch()).thenReturn(mergedLabelSearchConfig);
+        when(deploymentConfig.incrementalSearch()).thenReturn(incrementalSearchConfig);
+        when(deploymentConfig.sharedIssuePool()).thenReturn(sharedIssuePoolConfig);
+        // Two areas sharing some issues, so that draws compete for these issues.
+        when(repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(eq("area/hibernate-orm"), any(), any()))
+                .thenAnswer(ignored -> issues(1, 12));
+        when(repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(eq("area/hibernate-search"), any(), any()))
+                .thenAnswer(ignored -> issues(8, 20));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void fair(boolean concurrentDrawRounds) throws IOException {
+        when(deploymentConfig.concurrentDrawRounds()).thenReturn(concurrentDrawRounds);
+
+        var winnings = draw(new Random());
+
+        List<Integer> allIssueNumbers = new ArrayList<>();
+        winnings.values().forEach(allIssueNumbers::addAll);
+        // Participations are shared across areas, yet issues are never assigned twice,
+        // and each participation gets as many issues as it asked for.
+        assertThat(allIssueNumbers).doesNotHaveDuplicates();
+        assertThat(winnings).hasEntrySatisfying("yrodiere", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("gsmet", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("geoand", issues -> assertThat(issues).hasSize(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void deterministic(boolean concurrentDrawRounds) throws IOException {
+        when(deploymentConfig.concurrentDrawRounds()).thenReturn(concurrentDrawRounds);
+
+        var winnings = draw(new Random(42L));
+        for (int i = 0; i < 20; i++) {
+            assertThat(draw(new Random(42L))).isEqualTo(winnings);
+        }
+    }
+
+    @Test
+    void concurrentDrawRounds_scarceIssues() throws IOException {
+        when(deploymentConfig.concurrentDrawRounds()).thenReturn(true);
+        when(repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(eq("area/hibernate-orm"), any(), any()))
+                .thenAnswer(ignored -> issues(1, 3));
+        when(repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(eq("area/hibernate-search"), any(), any()))
+                .thenAnswer(ignored -> issues(2, 4));
+
+        var winnings = draw(new Random());
+
+        List<Integer> allIssueNumbers = new ArrayList<>();
+        winnings.values().forEach(allIssueNumbers::addAll);
+        assertThat(allIssueNumbers).containsExactlyInAnyOrder(1, 2, 3, 4);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    void selfAuthoredIssues(boolean concurrentDrawRounds) throws IOException {
+        when(deploymentConfig.concurrentDrawRounds()).thenReturn(concurrentDrawRounds);
+        // Most issues were created by participants, who can't be assigned issues they created themselves.
+        List<String> authors = List.of("yrodiere", "yrodiere", "yrodiere", "gsmet", "yrodiere", "geoand", "someone");
+        when(repo.issuesOrPullRequestsNeverActedOnByTeamAndCreatedBetween(eq("area/hibernate-orm"), any(), any(),
+                any(), any()))
+                .thenAnswer(ignored -> IntStream.range(0, 40)
+                        .mapToObj(i -> new Issue(i + 1, "Hibernate ORM works too well #" + (i + 1),
+                                authors.get(i % authors.size()), null)));
+        var now = LocalDateTime.of(2017, 11, 6, 8, 0).toInstant(ZoneOffset.UTC);
+        var lottery = new Lottery(now, deploymentConfig, BUCKETS, Map.of(), new Random());
+        List<Participation> participations = List.of(
+                participation("yrodiere", 10),
+                participation("gsmet", 4),
+                participation("geoand", 2));
+        for (Participation participation : participations) {
+            lottery.maintenance("area/hibernate-orm").created().participate(participation);
+        }
+
+        lottery.draw(repo, new LotteryHistory(now, BUCKETS));
+
+        List<Integer> allIssueNumbers = new ArrayList<>();
+        for (Participation participation : participations) {
+            assertThat(participation.issues()).hasSize(participation.maxIssues)
+                    .allSatisfy(issue -> assertThat(issue.author()).isNotEqualTo(participation.username()));
+            participation.issues().forEach(issue -> allIssueNumbers.add(issue.number()));
+        }
+        assertThat(allIssueNumbers).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void mergedLabelSearch() throws IOException {
+        when(mergedLabelSearchConfig.enabled()).thenReturn(true);
+        when(repo.issuesOrPullRequestsWithLabelLastUpdatedBefore(eq(Set.of("area/hibernate-orm", "area/hibernate-search")),
+                any(), any()))
+                .thenAnswer(ignored -> Map.of(
+                        "area/hibernate-orm", issues(1, 12),
+                        "area/hibernate-search", issues(8, 20)));
+
+        var winnings = draw(new Random());
+
+        // A single search for both areas.
+        verify(repo).issuesOrPullRequestsWithLabelLastUpdatedBefore(
+                eq(Set.of("area/hibernate-orm", "area/hibernate-search")), any(), any());
+        verify(repo, never()).issuesOrPullRequestsWithLabelLastUpdatedBefore(any(String.class), any(), any());
+        List<Integer> allIssueNumbers = new ArrayList<>();
+        winnings.values().forEach(allIssueNumbers::addAll);
+        assertThat(allIssueNumbers).doesNotHaveDuplicates();
+        assertThat(winnings).hasEntrySatisfying("yrodiere", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("gsmet", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("geoand", issues -> assertThat(issues).hasSize(2));
+    }
+
+    @Test
+    void sharedIssuePool() throws IOException {
+        when(sharedIssuePoolConfig.enabled()).thenReturn(true);
+        var updatedAt = LocalDateTime.of(2017, 8, 1, 8, 0).toInstant(ZoneOffset.UTC);
+        when(repo.issuePoolLastUpdatedBefore(any(), any()))
+                .thenAnswer(invocation -> Optional.of(new IssuePool(invocation.getArgument(1),
+                        IntStream.rangeClosed(1, 20)
+                                .mapToObj(number -> new IssuePool.Candidate(
+                                        issues(number, number).findFirst().orElseThrow(),
+                                        number <= 7 ? Set.of("area/hibernate-orm")
+                                                : number <= 12 ? Set.of("area/hibernate-orm", "area/hibernate-search")
+                                                        : Set.of("area/hibernate-search"),
+                                        updatedAt))
+                                .toList())));
+
+        var winnings = draw(new Random());
+
+        // A single search for both areas.
+        verify(repo).issuePoolLastUpdatedBefore(any(), any());
+        verify(repo, never()).issuesOrPullRequestsWithLabelLastUpdatedBefore(any(String.class), any(), any());
+        List<Integer> allIssueNumbers = new ArrayList<>();
+        winnings.values().forEach(allIssueNumbers::addAll);
+        assertThat(allIssueNumbers).doesNotHaveDuplicates();
+        assertThat(winnings).hasEntrySatisfying("yrodiere", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("gsmet", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("geoand", issues -> assertThat(issues).hasSize(2));
+    }
+
+    @Test
+    void sharedIssuePool_tooManyIssues() throws IOException {
+        when(sharedIssuePoolConfig.enabled()).thenReturn(true);
+        // The pool would exceed what a single search can return.
+        when(repo.issuePoolLastUpdatedBefore(any(), any())).thenReturn(Optional.empty());
+
+        var winnings = draw(new Random());
+
+        // Falls back to one search per area.
+        verify(repo).issuePoolLastUpdatedBefore(any(), any());
+        verify(repo).issuesOrPullRequestsWithLabelLastUpdatedBefore(eq("area/hibernate-orm"), any(), any());
+        verify(repo).issuesOrPullRequestsWithLabelLastUpdatedBefore(eq("area/hibernate-search"), any(), any());
+        List<Integer> allIssueNumbers = new ArrayList<>();
+        winnings.values().forEach(allIssueNumbers::addAll);
+        assertThat(allIssueNumbers).doesNotHaveDuplicates();
+        assertThat(winnings).hasEntrySatisfying("yrodiere", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("gsmet", issues -> assertThat(issues).hasSize(4))
+                .hasEntrySatisfying("geoand", issues -> assertThat(issues).hasSize(2));
+    }
+
+    private Map<String, List<Integer>> draw(Random random) throws IOException {
+        var now = LocalDateTime.of(2017, 11, 6, 8, 0).toInstant(ZoneOffset.UTC);
+        var lottery = new Lottery(now, deploymentConfig, BUCKETS, Map.of(), random);
+        List<Participation> participations = List.of(
+                participation("yrodiere", 4),
+                participation("gsmet", 4),
+                participation("geoand", 2));
+        for (String areaLabel : List.of("area/hibernate-orm", "area/hibernate-search")) {
+            for (Participation participation : participations) {
+                lottery.maintenance(areaLabel).stale().participate(participation);
+            }
+        }
+
+        lottery.draw(repo, new LotteryHistory(now, BUCKETS));
+
+        Map<String, List<Integer>> winnings = new LinkedHashMap<>();
+        for (Participation participation : participations) {
+            winnings.put(participation.username(), participation.issues().stream().map(Issue::number).toList());
+        }
+        return winnings;
+    }
+
+    private static Participation participation(String username, int maxIssues) {
+        return Participation.create(username, new LotteryConfig.Participant.Participation(maxIssues)).orElseThrow();
+    }
+
+    private static Stream<Issue> issues(int firstNumber, int lastNumber) {
+        return IntStream.rangeClosed(firstNumber, lastNumber)
+                .mapToObj(number -> new Issue(number, "Hibernate ORM works too well #" + number, "someone", null));
+    }
+
+}
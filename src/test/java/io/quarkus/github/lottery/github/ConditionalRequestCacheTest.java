@@ -0,0 +1,98 @@
+package io.quarkus.github.lottery.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConditionalRequestCacheTest {
+
+    // Keys (and responses) have the same length, so that cached entries have the same size.
+    private static final String KEY_1 = "https://api.github.com/repos/quarkusio/quarkus/issues/1/events\n"
+            + "application/vnd.github+json";
+    private static final String KEY_2 = "https://api.github.com/repos/quarkusio/quarkus/issues/2/events\n"
+            + "application/vnd.github+json";
+    private static final String KEY_3 = "https://api.github.com/repos/quarkusio/quarkus/issues/3/events\n"
+            + "application/vnd.github+json";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void missing() throws IOException {
+        var cache = new ConditionalRequestCache(directory, 10_000);
+        assertThat(cache.get(KEY_1)).isNull();
+    }
+
+    @Test
+    void putThenGet() throws IOException {
+        var cache = new ConditionalRequestCache(directory, 10_000);
+        cache.put(KEY_1, response("\"etag1\"", "body1"));
+        assertThat(cache.get(KEY_1)).satisfies(response -> {
+            assertThat(response.etag()).isEqualTo("\"etag1\"");
+            assertThat(response.headers()).containsEntry("Link", List.of("<https://api.github.com/next>; rel=\"next\""));
+            assertThat(response.body()).asString(StandardCharsets.UTF_8).isEqualTo("body1");
+        });
+        assertThat(cache.get(KEY_2)).isNull();
+
+        cache.put(KEY_1, response("\"etag2\"", "body2"));
+        assertThat(cache.get(KEY_1)).satisfies(response -> assertThat(response.etag()).isEqualTo("\"etag2\""));
+
+        // Survives restarts.
+        var restartedCache = new ConditionalRequestCache(directory, 10_000);
+        assertThat(restartedCache.get(KEY_1)).satisfies(response -> assertThat(response.etag()).isEqualTo("\"etag2\""));
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() throws IOException {
+        var cache = new ConditionalRequestCache(directory, 10_000);
+        cache.put(KEY_1, response("\"etag1\"", "body1"));
+        long entrySize;
+        try (Stream<Path> files = Files.list(directory)) {
+            entrySize = Files.size(files.findFirst().orElseThrow());
+        }
+
+        // Room for two entries only.
+        cache = new ConditionalRequestCache(directory, entrySize * 2 + entrySize / 2);
+        cache.put(KEY_2, response("\"etag2\"", "body2"));
+        // Use the first entry, so that the second one is the least recently used.
+        assertThat(cache.get(KEY_1)).isNotNull();
+        cache.put(KEY_3, response("\"etag3\"", "body3"));
+
+        assertThat(cache.get(KEY_1)).isNotNull();
+        assertThat(cache.get(KEY_2)).isNull();
+        assertThat(cache.get(KEY_3)).isNotNull();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(2);
+        }
+    }
+
+    @Test
+    void truncated() throws IOException {
+        var cache = new ConditionalRequestCache(directory, 10_000);
+        cache.put(KEY_1, response("\"etag1\"", "body1"));
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 2));
+        assertThat(cache.get(KEY_1)).isNull();
+    }
+
+    private static ConditionalRequestCache.CachedResponse response(String etag, String body) {
+        return new ConditionalRequestCache.CachedResponse(etag,
+                Map.of("Link", List.of("<https://api.github.com/next>; rel=\"next\"")),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
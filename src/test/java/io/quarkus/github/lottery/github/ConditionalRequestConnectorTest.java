@@ -0,0 +1,203 @@
+package io.quarkus.github.lottery.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+class ConditionalRequestConnectorTest {
+
+    private static final String EVENTS_URL = "https://api.github.com/repos/quarkusio/quarkus/issues/1/events";
+    private static final String SEARCH_URL = "https://api.github.com/search/issues?q=repo:quarkusio/quarkus";
+    private static final String TOKEN_1 = "token ghs_installation1";
+    private static final String TOKEN_2 = "token ghs_installation2";
+
+    @TempDir
+    Path directory;
+
+    private ConditionalRequestCache cache;
+    private FakeConnector delegate;
+    private ConditionalRequestConnector connector;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ConditionalRequestCache(directory, 10_000);
+        delegate = new FakeConnector();
+        connector = new ConditionalRequestConnector(delegate, cache, 1L);
+    }
+
+    @Test
+    void notModified() throws IOException {
+        delegate.respond(200, Map.of("ETag", List.of("\"etag1\""), "Link", List.of("<next>; rel=\"next\""),
+                "X-RateLimit-Remaining", List.of("4999")), "body1");
+        try (var response = connector.send(get(EVENTS_URL, TOKEN_1))) {
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(body(response)).isEqualTo("body1");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isNull();
+
+        delegate.respond(304, Map.of("ETag", List.of("\"etag1\""), "X-RateLimit-Remaining", List.of("4998")), "");
+        try (var response = connector.send(get(EVENTS_URL, TOKEN_1))) {
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(body(response)).isEqualTo("body1");
+            // Cached headers, except those present in the fresh response.
+            assertThat(response.header("Link")).isEqualTo("<next>; rel=\"next\"");
+            assertThat(response.header("X-RateLimit-Remaining")).isEqualTo("4998");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isEqualTo("\"etag1\"");
+    }
+
+    @Test
+    void modified() throws IOException {
+        delegate.respond(200, Map.of("ETag", List.of("\"etag1\"")), "body1");
+        connector.send(get(EVENTS_URL, TOKEN_1)).close();
+
+        delegate.respond(200, Map.of("ETag", List.of("\"etag2\"")), "body2");
+        try (var response = connector.send(get(EVENTS_URL, TOKEN_1))) {
+            assertThat(body(response)).isEqualTo("body2");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isEqualTo("\"etag1\"");
+
+        delegate.respond(304, Map.of("ETag", List.of("\"etag2\"")), "");
+        try (var response = connector.send(get(EVENTS_URL, TOKEN_1))) {
+            assertThat(body(response)).isEqualTo("body2");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isEqualTo("\"etag2\"");
+    }
+
+    @Test
+    void newToken() throws IOException {
+        delegate.respond(200, Map.of("ETag", List.of("\"etag1\"")), "body1");
+        connector.send(get(EVENTS_URL, TOKEN_1)).close();
+
+        // Installation tokens expire every hour: cached responses must survive that.
+        delegate.respond(304, Map.of("ETag", List.of("\"etag1\"")), "");
+        try (var response = connector.send(get(EVENTS_URL, TOKEN_2))) {
+            assertThat(body(response)).isEqualTo("body1");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isEqualTo("\"etag1\"");
+    }
+
+    @Test
+    void differentInstallation() throws IOException {
+        delegate.respond(200, Map.of("ETag", List.of("\"etag1\"")), "body1");
+        connector.send(get(EVENTS_URL, TOKEN_1)).close();
+
+        // Another installation must not get a response cached for the first one.
+        var otherConnector = new ConditionalRequestConnector(delegate, cache, 2L);
+        delegate.respond(200, Map.of("ETag", List.of("\"etag2\"")), "body2");
+        try (var response = otherConnector.send(get(EVENTS_URL, TOKEN_2))) {
+            assertThat(body(response)).isEqualTo("body2");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isNull();
+    }
+
+    @Test
+    void search() throws IOException {
+        delegate.respond(200, Map.of("ETag", List.of("\"etag1\"")), "body1");
+        connector.send(get(SEARCH_URL, TOKEN_1)).close();
+
+        delegate.respond(200, Map.of("ETag", List.of("\"etag1\"")), "body1");
+        try (var response = connector.send(get(SEARCH_URL, TOKEN_1))) {
+            assertThat(body(response)).isEqualTo("body1");
+        }
+        assertThat(delegate.sent.getLast().header("If-None-Match")).isNull();
+    }
+
+    private static String body(GitHubConnectorResponse response) throws IOException {
+        return new String(response.bodyStream().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static GitHubConnectorRequest get(String url, String authorization) throws MalformedURLException {
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("Accept", List.of("application/vnd.github+json"));
+        headers.put("Authorization", List.of(authorization));
+        return new FakeRequest(URI.create(url).toURL(), headers);
+    }
+
+    private record FakeRequest(URL url, Map<String, List<String>> allHeaders) implements GitHubConnectorRequest {
+        @Override
+        public String method() {
+            return "GET";
+        }
+
+        @Override
+        public String header(String name) {
+            List<String> values = allHeaders.get(name);
+            return values == null ? null : values.get(0);
+        }
+
+        @Override
+        public String contentType() {
+            return null;
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+
+    private static final class FakeConnector implements GitHubConnector {
+        private final Deque<FakeResponseSpec> responses = new ArrayDeque<>();
+        private final List<GitHubConnectorRequest> sent = new ArrayList<>();
+
+        void respond(int statusCode, Map<String, List<String>> headers, String body) {
+            responses.add(new FakeResponseSpec(statusCode, headers, body));
+        }
+
+        @Override
+        public GitHubConnectorResponse send(GitHubConnectorRequest request) {
+            sent.add(request);
+            FakeResponseSpec spec = responses.remove();
+            return new FakeResponse(request, spec.statusCode(), spec.headers(),
+                    spec.body().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private record FakeResponseSpec(int statusCode, Map<String, List<String>> headers, String body) {
+    }
+
+    private static final class FakeResponse extends GitHubConnectorResponse {
+        private final byte[] body;
+
+        FakeResponse(GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        @Override
+        protected InputStream rawBodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            // Nothing to do.
+        }
+    }
+}
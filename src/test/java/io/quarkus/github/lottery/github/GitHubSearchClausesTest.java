@@ -0,0 +1,41 @@
+package io.quarkus.github.lottery.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class GitHubSearchClausesTest {
+
+    @Test
+    void anyLabelBatches() {
+        var labels = new LinkedHashSet<>(List.of("area/a", "area/b", "area/c", "area/d", "area/e"));
+
+        // "label:area/a,area/b" is 19 characters long.
+        assertThat(GitHubSearchClauses.anyLabelBatches(labels, 19))
+                .containsExactly(Set.of("area/a", "area/b"), Set.of("area/c", "area/d"), Set.of("area/e"));
+        assertThat(GitHubSearchClauses.anyLabelBatches(labels, 18))
+                .containsExactly(Set.of("area/a"), Set.of("area/b"), Set.of("area/c"), Set.of("area/d"),
+                        Set.of("area/e"));
+        assertThat(GitHubSearchClauses.anyLabelBatches(labels, 256))
+                .containsExactly(labels);
+    }
+
+    @Test
+    void anyLabelBatches_tooLong() {
+        var labels = new LinkedHashSet<>(List.of("area/a", "area/way-too-long", "area/b"));
+
+        // Labels that don't fit still get searched for.
+        assertThat(GitHubSearchClauses.anyLabelBatches(labels, 12))
+                .containsExactly(Set.of("area/a"), Set.of("area/way-too-long"), Set.of("area/b"));
+    }
+
+    @Test
+    void anyLabelBatches_empty() {
+        assertThat(GitHubSearchClauses.anyLabelBatches(Set.of(), 256)).isEmpty();
+    }
+
+}
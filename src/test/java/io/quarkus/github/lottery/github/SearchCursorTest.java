@@ -0,0 +1,87 @@
+package io.quarkus.github.lottery.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTest {
+
+    private static final Instant NOW = LocalDateTime.of(2017, 11, 6, 8, 0).toInstant(ZoneOffset.UTC);
+    private static final Duration DELAY = Duration.ofDays(60);
+
+    @Test
+    void create() {
+        var cursor = SearchCursor.create(NOW.minus(DELAY), NOW, List.of(issue(3), issue(1), issue(2)));
+
+        assertThat(cursor.issues()).extracting(Issue::number).containsExactly(3, 1, 2);
+        assertThat(cursor.changedSince()).isEqualTo(NOW.minus(SearchCursor.SEARCH_INDEX_LAG));
+        assertThat(cursor.addedSince()).isEqualTo(NOW.minus(DELAY).minus(SearchCursor.SEARCH_INDEX_LAG));
+    }
+
+    @Test
+    void canAdvanceTo() {
+        var cursor = SearchCursor.create(NOW.minus(DELAY), NOW, List.of(issue(1)));
+
+        assertThat(cursor.canAdvanceTo(NOW.minus(DELAY), NOW.minus(Duration.ofDays(1)))).isTrue();
+        assertThat(cursor.canAdvanceTo(NOW.plus(Duration.ofHours(1)).minus(DELAY), NOW.minus(Duration.ofDays(1))))
+                .isTrue();
+        // Cutoff moving backwards, e.g. because the delay changed in the configuration.
+        assertThat(cursor.canAdvanceTo(NOW.minus(DELAY).minusSeconds(1), NOW.minus(Duration.ofDays(1))))
+                .isFalse();
+        // Full search too old.
+        assertThat(cursor.canAdvanceTo(NOW.minus(DELAY), NOW.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void advance() {
+        var cursor = SearchCursor.create(NOW.minus(DELAY), NOW, List.of(issue(5), issue(4), issue(3), issue(2), issue(1)));
+
+        var later = NOW.plus(Duration.ofHours(1));
+        var advanced = cursor.advance(later.minus(DELAY), later,
+                // Issue 4 got closed, issue 2 got commented on, issue 42 got created.
+                Set.of(4, 2, 42),
+                // Issue 6 and 7 were last updated between the previous and new cutoff.
+                List.of(issue(7), issue(6)));
+
+        assertThat(advanced.issues()).extracting(Issue::number).containsExactly(7, 6, 5, 3, 1);
+        assertThat(advanced.cutoff()).isEqualTo(later.minus(DELAY));
+        assertThat(advanced.searchedAt()).isEqualTo(later);
+        // Advancing doesn't count as a full search.
+        assertThat(advanced.fullySearchedAt()).isEqualTo(NOW);
+    }
+
+    @Test
+    void advance_changedButStillMatching() {
+        var cursor = SearchCursor.create(NOW.minus(Duration.ofMinutes(30)), NOW, List.of(issue(2), issue(1)));
+
+        var later = NOW.plus(Duration.ofHours(1));
+        // With short delays, issues that changed since the last search may still match.
+        var advanced = cursor.advance(later.minus(Duration.ofMinutes(30)), later, Set.of(1),
+                List.of(issue(1)));
+
+        assertThat(advanced.issues()).extracting(Issue::number).containsExactly(1, 2);
+    }
+
+    @Test
+    void advance_searchIndexLag() {
+        var cursor = SearchCursor.create(NOW.minus(DELAY), NOW, List.of(issue(2), issue(1)));
+
+        var later = NOW.plus(Duration.ofHours(1));
+        // Issue 2 is returned again, because we search a bit before the previous cutoff.
+        var advanced = cursor.advance(later.minus(DELAY), later, Set.of(), List.of(issue(3), issue(2)));
+
+        assertThat(advanced.issues()).extracting(Issue::number).containsExactly(3, 2, 1);
+    }
+
+    private static Issue issue(int number) {
+        return new Issue(number, "Hibernate ORM works too well #" + number, "someone", null);
+    }
+
+}
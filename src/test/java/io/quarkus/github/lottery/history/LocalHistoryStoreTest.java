@@ -0,0 +1,139 @@
+package io.quarkus.github.lottery.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkus.github.lottery.github.TopicComment;
+
+class LocalHistoryStoreTest {
+
+    private static final String REPOSITORY = "quarkusio/quarkus-lottery-reports";
+    private static final String TOPIC = "Lottery history for quarkusio/quarkus";
+
+    @TempDir
+    Path directory;
+
+    LocalHistoryStore store;
+    Instant now;
+
+    @BeforeEach
+    void setup() {
+        store = new LocalHistoryStore(directory);
+        now = Instant.parse("2017-11-06T06:00:00Z");
+    }
+
+    @Test
+    void missing() throws IOException {
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS))).isEmpty();
+        assertThat(bodies(now.minus(1, ChronoUnit.DAYS))).isNull();
+
+        // Appending without a local copy is pointless, as we'd miss older comments.
+        store.append(REPOSITORY, TOPIC, comment(1L, now, "body1"));
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS))).isEmpty();
+    }
+
+    @Test
+    void replaceThenAppend() throws IOException {
+        Instant since = now.minus(1, ChronoUnit.DAYS);
+        store.replace(REPOSITORY, TOPIC, since, List.of(
+                comment(1L, now.minus(3, ChronoUnit.HOURS), "body1"),
+                comment(2L, now.minus(2, ChronoUnit.HOURS), "body2")));
+        assertThat(store.lastComment(REPOSITORY, TOPIC, since))
+                .hasValueSatisfying(comment -> {
+                    assertThat(comment.issueNumber()).isEqualTo(42);
+                    assertThat(comment.id()).isEqualTo(2L);
+                    assertThat(comment.createdAt()).isEqualTo(now.minus(2, ChronoUnit.HOURS));
+                });
+        assertThat(bodies(since)).containsExactly("body1", "body2");
+
+        store.append(REPOSITORY, TOPIC, comment(3L, now, "body3 with ünicode"));
+        assertThat(store.lastComment(REPOSITORY, TOPIC, since))
+                .hasValueSatisfying(comment -> assertThat(comment.id()).isEqualTo(3L));
+        assertThat(bodies(since)).containsExactly("body1", "body2", "body3 with ünicode");
+
+        // Topics are stored independently.
+        assertThat(store.lastComment(REPOSITORY, "Lottery history for quarkusio/quarkusio.github.io", since))
+                .isEmpty();
+    }
+
+    @Test
+    void since() throws IOException {
+        store.replace(REPOSITORY, TOPIC, now.minus(4, ChronoUnit.DAYS), List.of(
+                comment(1L, now.minus(3, ChronoUnit.DAYS), "body1"),
+                comment(2L, now.minus(2, ChronoUnit.HOURS), "body2")));
+        assertThat(bodies(now.minus(1, ChronoUnit.DAYS))).containsExactly("body2");
+        assertThat(bodies(now.minus(4, ChronoUnit.DAYS))).containsExactly("body1", "body2");
+    }
+
+    @Test
+    void sinceBeforeCoveredPeriod() throws IOException {
+        store.replace(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS), List.of(
+                comment(1L, now.minus(2, ChronoUnit.HOURS), "body1")));
+        // Older comments may exist, but were never stored locally: the local copy is unusable.
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(2, ChronoUnit.DAYS))).isEmpty();
+        assertThat(bodies(now.minus(2, ChronoUnit.DAYS))).isNull();
+        // ... but remains usable for later draws that don't need older comments.
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS)))
+                .hasValueSatisfying(comment -> assertThat(comment.id()).isEqualTo(1L));
+        assertThat(bodies(now.minus(1, ChronoUnit.DAYS))).containsExactly("body1");
+    }
+
+    @Test
+    void compact() throws IOException {
+        store.replace(REPOSITORY, TOPIC, now.minus(10, ChronoUnit.DAYS), List.of(
+                comment(1L, now.minus(5, ChronoUnit.DAYS), "body1"),
+                comment(2L, now.minus(4, ChronoUnit.DAYS), "body2"),
+                comment(3L, now.minus(2, ChronoUnit.HOURS), "body3")));
+        Instant since = now.minus(1, ChronoUnit.DAYS);
+        // Most comments are too old: they get dropped.
+        assertThat(store.lastComment(REPOSITORY, TOPIC, since))
+                .hasValueSatisfying(comment -> assertThat(comment.id()).isEqualTo(3L));
+        assertThat(bodies(since)).containsExactly("body3");
+        // Dropped comments are no longer covered by the local copy.
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(10, ChronoUnit.DAYS))).isEmpty();
+        assertThat(bodies(now.minus(10, ChronoUnit.DAYS))).isNull();
+    }
+
+    @Test
+    void invalidate() throws IOException {
+        store.replace(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS), List.of(comment(1L, now, "body1")));
+        store.invalidate(REPOSITORY, TOPIC);
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS))).isEmpty();
+    }
+
+    @Test
+    void truncated() throws IOException {
+        store.replace(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS), List.of(comment(1L, now, "body1")));
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 2));
+        assertThat(store.lastComment(REPOSITORY, TOPIC, now.minus(1, ChronoUnit.DAYS))).isEmpty();
+        assertThat(bodies(now.minus(1, ChronoUnit.DAYS))).isNull();
+    }
+
+    private List<String> bodies(Instant since) throws IOException {
+        List<String> bodies = new ArrayList<>();
+        return store.forEachComment(REPOSITORY, TOPIC, since, bodies::add) ? bodies : null;
+    }
+
+    private static TopicComment comment(long id, Instant createdAt, String body) {
+        return new TopicComment(42, id, createdAt, body);
+    }
+
+}
@@ -1,9 +1,13 @@
 package io.quarkus.github.lottery.util;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
@@ -141,4 +145,73 @@ class BufferingIteratorTest {
         assertThat(it).isExhausted();
     }
 
-}
\ No newline at end of file
+    @Test
+    void removeIf() {
+        var it = new BufferingIterator<>(List.of(1, 2, 3, 4, 5).iterator(), 2, ignored -> {
+        });
+
+        assertThat(it.next()).isEqualTo(1);
+        assertThat(it.next()).isEqualTo(2);
+        assertThat(it.next()).isEqualTo(3);
+
+        // Only affects buffered elements, and gets back to the start.
+        it.removeIf(i -> i % 2 == 1);
+        assertThat(it).hasNext();
+        assertThat(it.next()).isEqualTo(2);
+        assertThat(it).hasNext();
+        assertThat(it.next()).isEqualTo(4);
+        assertThat(it).hasNext();
+        assertThat(it.next()).isEqualTo(5);
+        assertThat(it).isExhausted();
+
+        it.backToStart();
+        assertThat(it.next()).isEqualTo(2);
+        assertThat(it.next()).isEqualTo(4);
+        assertThat(it.next()).isEqualTo(5);
+        assertThat(it).isExhausted();
+    }
+
+    @Test
+    void manyChunks() {
+        var it = new BufferingIterator<>(IntStream.range(0, 1000).boxed().iterator(), 7, ignored -> {
+        });
+
+        // Keep some elements at the start of the buffer, remove most others while loading chunks,
+        // so that slots of removed elements get reclaimed.
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(it).hasNext();
+            int element = it.next();
+            assertThat(element).isEqualTo(i);
+            if (element % 10 == 0) {
+                expected.add(element);
+            } else {
+                it.remove();
+            }
+        }
+        assertThat(it).isExhausted();
+
+        it.backToStart();
+        assertThat(it).toIterable().containsExactlyElementsOf(expected);
+
+        it.backToStart();
+        it.removeIf(i -> i % 20 == 0);
+        assertThat(it).toIterable().containsExactlyElementsOf(
+                expected.stream().filter(i -> i % 20 != 0).toList());
+    }
+
+    @Test
+    void remove_illegalState() {
+        var it = new BufferingIterator<>(List.of(1, 2).iterator(), 1, ignored -> {
+        });
+
+        assertThatThrownBy(it::remove).isInstanceOf(IllegalStateException.class);
+        assertThat(it.next()).isEqualTo(1);
+        it.remove();
+        assertThatThrownBy(it::remove).isInstanceOf(IllegalStateException.class);
+        assertThat(it.next()).isEqualTo(2);
+        assertThat(it).isExhausted();
+        assertThatThrownBy(it::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+}
@@ -0,0 +1,12 @@
+package io.quarkus.github.lottery.util;
+
+import java.util.Map;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+public class CommentMinimizationBatchProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("lottery.comment-minimization.batch", "true");
+    }
+}
@@ -0,0 +1,13 @@
+package io.quarkus.github.lottery.util;
+
+import java.util.Map;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+public class CommentPackingBackgroundProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("lottery.comment-packing.background", "true",
+                "lottery.comment-packing.batch-size", "4");
+    }
+}
@@ -0,0 +1,109 @@
+package io.quarkus.github.lottery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.GitHub;
+
+import io.quarkus.github.lottery.config.DeploymentConfig;
+
+class GitHubRateLimiterTest {
+
+    private static final DeploymentConfig.RateLimits CONFIG = new DeploymentConfig.RateLimits() {
+        @Override
+        public int searchesPerMinute() {
+            return 600;
+        }
+
+        @Override
+        public int readsPerMinute() {
+            return 600;
+        }
+
+        @Override
+        public int mutationsPerMinute() {
+            return 600;
+        }
+
+        @Override
+        public int graphqlQueriesPerMinute() {
+            return 600;
+        }
+    };
+
+    private final GitHub client = mock(GitHub.class);
+
+    @Test
+    void burst() {
+        var limiter = new GitHubRateLimiter(CONFIG);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(GitHubRateLimiter.Resource.SEARCH, client);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+    }
+
+    @Test
+    void noBurstForMutations() {
+        var limiter = new GitHubRateLimiter(CONFIG);
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire(GitHubRateLimiter.Resource.MUTATION, client);
+        }
+        // 10 mutations per second, the first one being immediate.
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(290));
+    }
+
+    @Test
+    void resourcesAreIndependent() {
+        var limiter = new GitHubRateLimiter(CONFIG);
+        limiter.acquire(GitHubRateLimiter.Resource.MUTATION, client);
+        long start = System.nanoTime();
+        limiter.acquire(GitHubRateLimiter.Resource.READ, client);
+        limiter.acquire(GitHubRateLimiter.Resource.GRAPHQL, client);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(90));
+    }
+
+    @Test
+    void lowPrimaryBudget() {
+        var limiter = new GitHubRateLimiter(CONFIG);
+        // 5 points left out of 100, reset in 1 second: calls should be spread by ~200ms.
+        limiter.observeGraphQLRateLimit(100, 5, Instant.now().plusSeconds(1));
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(GitHubRateLimiter.Resource.GRAPHQL, client);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    void lowPrimaryBudget_outdatedObservation() {
+        var limiter = new GitHubRateLimiter(CONFIG);
+        long resetEpochSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 2;
+        // The client keeps reporting the same, increasingly outdated rate limit:
+        // 2 calls left out of 100 until the reset.
+        GHRateLimit rateLimit = mock(GHRateLimit.class);
+        GHRateLimit.Record core = mock(GHRateLimit.Record.class);
+        when(client.lastRateLimit()).thenReturn(rateLimit);
+        when(rateLimit.getCore()).thenReturn(core);
+        when(core.getLimit()).thenReturn(100);
+        when(core.getRemaining()).thenReturn(2);
+        when(core.getResetEpochSeconds()).thenReturn(resetEpochSeconds);
+        long start = System.nanoTime();
+        Duration untilReset = Duration.ofMillis(TimeUnit.SECONDS.toMillis(resetEpochSeconds) - System.currentTimeMillis());
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(GitHubRateLimiter.Resource.READ, client);
+        }
+        // The third call must wait for the reset, since the first two used up the budget.
+        assertThat(Duration.ofNanos(System.nanoTime() - start))
+                .isGreaterThanOrEqualTo(untilReset.minusMillis(100));
+    }
+
+}
@@ -0,0 +1,13 @@
+package io.quarkus.github.lottery.util;
+
+import java.util.Map;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+public class IncrementalSearchWebhooksProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of("lottery.incremental-search.enabled", "true",
+                "lottery.incremental-search.webhooks", "true");
+    }
+}
@@ -0,0 +1,78 @@
+package io.quarkus.github.lottery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntLongHashMapTest {
+
+    @Test
+    void simple() {
+        var map = new IntLongHashMap();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.getOrDefault(1, -1L)).isEqualTo(-1L);
+
+        map.put(1, 42L);
+        map.put(3, 43L);
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.getOrDefault(1, -1L)).isEqualTo(42L);
+        assertThat(map.getOrDefault(2, -1L)).isEqualTo(-1L);
+        assertThat(map.getOrDefault(3, -1L)).isEqualTo(43L);
+
+        map.put(1, 44L);
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.getOrDefault(1, -1L)).isEqualTo(44L);
+    }
+
+    @Test
+    void merge() {
+        var map = new IntLongHashMap();
+        map.merge(1, 42L, Math::max);
+        map.merge(1, 41L, Math::max);
+        assertThat(map.getOrDefault(1, -1L)).isEqualTo(42L);
+        map.merge(1, 43L, Math::max);
+        assertThat(map.getOrDefault(1, -1L)).isEqualTo(43L);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void zeroAndNegativeKeys() {
+        var map = new IntLongHashMap();
+        assertThat(map.getOrDefault(0, -1L)).isEqualTo(-1L);
+        map.put(0, 42L);
+        map.put(-1, 43L);
+        map.put(Integer.MIN_VALUE, 44L);
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.getOrDefault(0, -1L)).isEqualTo(42L);
+        assertThat(map.getOrDefault(-1, -1L)).isEqualTo(43L);
+        assertThat(map.getOrDefault(Integer.MIN_VALUE, -1L)).isEqualTo(44L);
+        map.merge(0, 41L, Math::max);
+        assertThat(map.getOrDefault(0, -1L)).isEqualTo(42L);
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    void resize() {
+        var map = new IntLongHashMap(2);
+        var reference = new HashMap<Integer, Long>();
+        var random = new Random(42L);
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(20_000);
+            long value = random.nextLong();
+            map.put(key, value);
+            reference.put(key, value);
+        }
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (Map.Entry<Integer, Long> entry : reference.entrySet()) {
+            assertThat(map.getOrDefault(entry.getKey(), 0L)).isEqualTo(entry.getValue());
+        }
+        for (int key = 20_000; key < 21_000; key++) {
+            assertThat(map.getOrDefault(key, -1L)).isEqualTo(-1L);
+        }
+    }
+
+}
@@ -8,16 +8,21 @@ import static org.mockito.Mockito.withSettings;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Instant;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
 
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
 import org.kohsuke.github.GHIssue;
 import org.kohsuke.github.GHIssueComment;
-import org.kohsuke.github.GHIssueEvent;
 import org.kohsuke.github.GHLabel;
 import org.kohsuke.github.GHPermissionType;
 import org.kohsuke.github.GHPullRequestFileDetail;
@@ -26,13 +31,13 @@ import org.kohsuke.github.GHUser;
 import org.kohsuke.github.PagedIterator;
 import org.kohsuke.github.PagedSearchIterable;
 import org.mockito.Answers;
-import org.mockito.Mockito;
 import org.mockito.quality.Strictness;
 
 import io.quarkiverse.githubapp.testing.dsl.GitHubMockContext;
 import io.quarkus.github.lottery.draw.DrawRef;
 import io.quarkus.github.lottery.draw.LotteryReport;
 import io.quarkus.github.lottery.github.Issue;
+import io.smallrye.graphql.client.Response;
 
 public class MockHelper {
 
@@ -47,6 +52,12 @@ public class MockHelper {
             Iterator<T> actualIterator = List.of(contentMocks).iterator();
             when(iteratorMock.next()).thenAnswer(ignored2 -> actualIterator.next());
             when(iteratorMock.hasNext()).thenAnswer(ignored2 -> actualIterator.hasNext());
+            when(iteratorMock.nextPage()).thenAnswer(ignored2 -> {
+                // Simulate a single page containing all remaining elements
+                List<T> page = new ArrayList<>();
+                actualIterator.forEachRemaining(page::add);
+                return page;
+            });
             return iteratorMock;
         });
         return iterableMock;
@@ -199,6 +210,16 @@ public class MockHelper {
         return mock;
     }
 
+    public static List<GHLabel> mockLabels(String... names) {
+        List<GHLabel> result = new ArrayList<>();
+        for (String name : names) {
+            GHLabel mock = mock(GHLabel.class, withSettings().stubOnly());
+            when(mock.getName()).thenReturn(name);
+            result.add(mock);
+        }
+        return result;
+    }
+
     public static GHIssue mockIssueForLotteryFilteredOutByRepository(GitHubMockContext context, int number)
             throws IOException {
         GHIssue mock = context.issue(10000L + number);
@@ -219,15 +240,12 @@ public class MockHelper {
         return mock;
     }
 
-    public static GHIssueEvent mockIssueEvent(String type) {
-        GHIssueEvent mock = Mockito.mock(GHIssueEvent.class);
-        when(mock.getEvent()).thenReturn(type);
-        return mock;
-    }
-
-    public static GHLabel mockLabel(String name) {
-        GHLabel mock = Mockito.mock(GHLabel.class);
-        when(mock.getName()).thenReturn(name);
+    public static GHIssue mockIssueForNotification(GitHubMockContext context, long id, String title,
+            String assigneeLogin) {
+        GHIssue mock = mockIssueForNotification(context, id, title);
+        GHUser assigneeMock = mock(GHUser.class, withSettings().stubOnly());
+        when(assigneeMock.getLogin()).thenReturn(assigneeLogin);
+        when(mock.getAssignees()).thenReturn(List.of(assigneeMock));
         return mock;
     }
 
@@ -259,6 +277,56 @@ public class MockHelper {
         return mockIssueComment(context, id, author, null);
     }
 
+    public static Response mockGraphQLNodesResponse(JsonObject... nodes) {
+        var nodesBuilder = Json.createArrayBuilder();
+        for (JsonObject node : nodes) {
+            nodesBuilder.add(node);
+        }
+        Response mock = mock(Response.class);
+        when(mock.getData()).thenReturn(Json.createObjectBuilder()
+                .add("rateLimit", Json.createObjectBuilder()
+                        .add("limit", 5000)
+                        .add("remaining", 4999)
+                        .add("resetAt", Instant.now().plus(1, ChronoUnit.HOURS).toString()))
+                .add("nodes", nodesBuilder)
+                .build());
+        return mock;
+    }
+
+    public static JsonObject stubGraphQLIssueNode(String nodeId, List<JsonObject> labeledEvents, List<JsonObject> comments) {
+        return Json.createObjectBuilder()
+                .add("id", nodeId)
+                .add("timelineItems", Json.createObjectBuilder()
+                        .add("pageInfo", Json.createObjectBuilder().add("hasPreviousPage", false))
+                        .add("nodes", Json.createArrayBuilder(labeledEvents)))
+                .add("comments", Json.createObjectBuilder()
+                        .add("pageInfo", Json.createObjectBuilder()
+                                .add("hasPreviousPage", false)
+                                .add("hasNextPage", false))
+                        .add("nodes", Json.createArrayBuilder(comments)))
+                .build();
+    }
+
+    public static JsonObject stubGraphQLLabeledEvent(String label, Instant createdAt) {
+        return Json.createObjectBuilder()
+                .add("createdAt", createdAt.toString())
+                .add("label", Json.createObjectBuilder().add("name", label))
+                .build();
+    }
+
+    public static JsonObject stubGraphQLComment(String authorLogin, Instant createdAt) {
+        // The GraphQL API doesn't add the bot suffix to logins.
+        boolean bot = authorLogin.endsWith(GitHubConstants.BOT_LOGIN_SUFFIX);
+        return Json.createObjectBuilder()
+                .add("createdAt", createdAt.toString())
+                .add("author", Json.createObjectBuilder()
+                        .add("__typename", bot ? "Bot" : "User")
+                        .add("login", bot
+                                ? authorLogin.substring(0, authorLogin.length() - GitHubConstants.BOT_LOGIN_SUFFIX.length())
+                                : authorLogin))
+                .build();
+    }
+
     public static GHIssueComment mockIssueComment(GitHubMockContext context, long id, GHUser author, String body)
             throws IOException {
         GHIssueComment mock = context.issueComment(id);
@@ -0,0 +1,117 @@
+package io.quarkus.github.lottery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class PrefetchingIteratorTest {
+
+    @Test
+    void simple() {
+        try (var it = new PrefetchingIterator<>("test", List.of(1, 2, 3).iterator(), 2)) {
+            assertThat(it).toIterable().containsExactly(1, 2, 3);
+            assertThat(it).isExhausted();
+            assertThatThrownBy(it::next).isInstanceOf(NoSuchElementException.class);
+        }
+    }
+
+    @Test
+    void empty() {
+        try (var it = new PrefetchingIterator<>("test", List.<Integer> of().iterator(), 2)) {
+            assertThat(it).isExhausted();
+        }
+    }
+
+    @Test
+    void readAheadIsBounded() throws InterruptedException {
+        AtomicInteger retrieved = new AtomicInteger();
+        Iterator<Integer> delegate = IntStream.range(0, 100).boxed()
+                .peek(ignored -> retrieved.incrementAndGet())
+                .iterator();
+        try (var it = new PrefetchingIterator<>("test", delegate, 10)) {
+            assertThat(it.next()).isEqualTo(0);
+            // 10 elements in the queue, plus one waiting to be added to the queue.
+            for (int i = 0; i < 100 && retrieved.get() < 12; i++) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50);
+            assertThat(retrieved).hasValue(12);
+        }
+    }
+
+    @Test
+    void failure() {
+        Iterator<Integer> delegate = Stream.of(1, 2, 3)
+                .map(i -> {
+                    if (i == 3) {
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                    return i;
+                })
+                .iterator();
+        try (var it = new PrefetchingIterator<>("test", delegate, 10)) {
+            assertThat(it.next()).isEqualTo(1);
+            assertThat(it.next()).isEqualTo(2);
+            assertThatThrownBy(it::hasNext)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Simulated failure");
+        }
+    }
+
+    @Test
+    void noPrefetchingUntilFirstElementConsumed() throws InterruptedException {
+        AtomicInteger retrieved = new AtomicInteger();
+        Iterator<Integer> delegate = IntStream.range(0, 100).boxed()
+                .peek(ignored -> retrieved.incrementAndGet())
+                .iterator();
+        try (var it = new PrefetchingIterator<>("test", delegate, 10)) {
+            Thread.sleep(50);
+            assertThat(retrieved).hasValue(0);
+            assertThat(it).hasNext();
+            Thread.sleep(50);
+            assertThat(retrieved).hasValue(1);
+            assertThat(it.next()).isEqualTo(0);
+            for (int i = 0; i < 100 && retrieved.get() < 12; i++) {
+                Thread.sleep(10);
+            }
+            assertThat(retrieved).hasValue(12);
+        }
+    }
+
+    @Test
+    void closeWhileFailing_queueFull_interruptSwallowed() {
+        AtomicReference<Thread> producer = new AtomicReference<>();
+        Iterator<Integer> delegate = Stream.of(1, 2, 3)
+                .map(i -> {
+                    if (i == 3) {
+                        producer.set(Thread.currentThread());
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException ignored) {
+                            // Swallowed, like some I/O clients do.
+                        }
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                    return i;
+                })
+                .iterator();
+        var it = new PrefetchingIterator<>("test", delegate, 1);
+        assertThat(it.next()).isEqualTo(1);
+        // Wait for the queue to be full and the producer to retrieve the failing element.
+        while (producer.get() == null) {
+            Thread.onSpinWait();
+        }
+        it.close();
+        assertThat(producer.get().isAlive()).isFalse();
+    }
+
+}
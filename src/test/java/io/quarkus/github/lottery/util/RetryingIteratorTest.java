@@ -0,0 +1,48 @@
+package io.quarkus.github.lottery.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.PagedIterator;
+
+class RetryingIteratorTest {
+
+    @Test
+    void pages() {
+        var pageFetches = new AtomicInteger();
+        var it = new RetryingIterator<>(mockPagedIterator(List.of(1, 2), List.of(3)), pageFetches::incrementAndGet);
+
+        assertThat(it).toIterable().containsExactly(1, 2, 3);
+        assertThat(it).isExhausted();
+        // One fetch per page, plus one to find out there are no more pages.
+        assertThat(pageFetches).hasValue(3);
+    }
+
+    @Test
+    void emptyPages() {
+        var pageFetches = new AtomicInteger();
+        var it = new RetryingIterator<>(mockPagedIterator(List.of(1), List.of(), List.of(), List.of(2), List.of()),
+                pageFetches::incrementAndGet);
+
+        assertThat(it).toIterable().containsExactly(1, 2);
+        assertThat(it).isExhausted();
+        assertThat(pageFetches).hasValue(6);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static <T> PagedIterator<T> mockPagedIterator(List<T>... pages) {
+        PagedIterator<T> iteratorMock = mock(PagedIterator.class);
+        Iterator<List<T>> pageIterator = List.of(pages).iterator();
+        when(iteratorMock.hasNext()).thenAnswer(ignored -> pageIterator.hasNext());
+        when(iteratorMock.nextPage()).thenAnswer(ignored -> pageIterator.next());
+        return iteratorMock;
+    }
+
+}